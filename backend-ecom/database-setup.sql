@@ -18,13 +18,21 @@ CREATE TABLE IF NOT EXISTS users (
 -- Table des produits
 CREATE TABLE IF NOT EXISTS products (
     id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    reference VARCHAR(64) NULL,
     nom VARCHAR(255) NOT NULL,
     description TEXT,
     prix DECIMAL(10,2) NOT NULL,
     image_url VARCHAR(500),
     stock INT NOT NULL DEFAULT 0,
+    reserved INT NOT NULL DEFAULT 0,
+    stock_shards INT NOT NULL DEFAULT 0,
+    version BIGINT NOT NULL DEFAULT 0,
+    updated_at DATETIME(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6),
+    content_updated_at DATETIME(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6),
     INDEX idx_nom (nom),
-    INDEX idx_stock (stock)
+    INDEX idx_stock (stock),
+    INDEX idx_prix_id (prix, id),
+    UNIQUE KEY uk_products_reference (reference)
 );
 
 -- Table des articles du panier
@@ -46,8 +54,9 @@ CREATE TABLE IF NOT EXISTS orders (
     date DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
     statut ENUM('PENDING', 'PAID', 'SHIPPED', 'DELIVERED') NOT NULL DEFAULT 'PENDING',
     FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
-    INDEX idx_user_date (user_id, date),
-    INDEX idx_statut (statut)
+    INDEX idx_orders_user_date (user_id, date),
+    INDEX idx_orders_statut_date (statut, date),
+    INDEX idx_orders_date (date)
 );
 
 -- Table des articles de commande
@@ -70,10 +79,123 @@ CREATE TABLE IF NOT EXISTS payments (
     date DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
     statut ENUM('PENDING', 'PAID', 'FAILED') NOT NULL DEFAULT 'PENDING',
     FOREIGN KEY (order_id) REFERENCES orders(id) ON DELETE CASCADE,
-    INDEX idx_statut (statut),
-    INDEX idx_date (date)
+    INDEX idx_payments_statut_date (statut, date),
+    INDEX idx_payments_date (date)
 );
 
+-- Historique des commandes dénormalisé (listes de commandes), tenu à jour par l'application
+CREATE TABLE IF NOT EXISTS order_summaries (
+    order_id BIGINT PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    user_nom VARCHAR(255),
+    date DATETIME(6) NOT NULL,
+    statut ENUM('PENDING', 'PAID', 'SHIPPED', 'DELIVERED') NOT NULL,
+    total DECIMAL(10,2) NOT NULL,
+    item_count BIGINT NOT NULL,
+    first_product_nom VARCHAR(255),
+    first_product_image_url VARCHAR(500),
+    payment_statut ENUM('PENDING', 'PAID', 'FAILED'),
+    INDEX idx_order_summaries_user_date (user_id, date),
+    INDEX idx_order_summaries_statut_date (statut, date),
+    INDEX idx_order_summaries_date (date)
+);
+
+-- Outbox des paiements (traitement asynchrone par la passerelle)
+CREATE TABLE IF NOT EXISTS payment_outbox (
+    id BIGINT PRIMARY KEY,
+    payment_id BIGINT NOT NULL UNIQUE,
+    order_id BIGINT NOT NULL,
+    montant DECIMAL(10,2) NOT NULL,
+    methode VARCHAR(50) NOT NULL,
+    idempotency_key VARCHAR(64) NOT NULL UNIQUE,
+    statut ENUM('PENDING', 'PROCESSING', 'DONE', 'FAILED') NOT NULL DEFAULT 'PENDING',
+    attempts INT NOT NULL DEFAULT 0,
+    next_attempt_at DATETIME(6) NOT NULL,
+    claimed_at DATETIME(6),
+    last_error VARCHAR(500),
+    gateway_reference VARCHAR(100),
+    created_at DATETIME(6) NOT NULL,
+    processed_at DATETIME(6),
+    version BIGINT,
+    FOREIGN KEY (payment_id) REFERENCES payments(id) ON DELETE CASCADE,
+    INDEX idx_payment_outbox_statut_next (statut, next_attempt_at)
+);
+
+-- Compteurs de stock des produits partitionnés (ventes flash)
+CREATE TABLE IF NOT EXISTS product_stock_shards (
+    product_id BIGINT NOT NULL,
+    shard INT NOT NULL,
+    stock INT NOT NULL DEFAULT 0,
+    PRIMARY KEY (product_id, shard),
+    FOREIGN KEY (product_id) REFERENCES products(id) ON DELETE CASCADE
+);
+
+-- Réservations de stock prises au début du paiement (libérées à l'expiration)
+CREATE TABLE IF NOT EXISTS stock_reservations (
+    id BIGINT PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    product_id BIGINT NOT NULL,
+    quantite INT NOT NULL,
+    created_at DATETIME(6) NOT NULL,
+    expires_at DATETIME(6) NOT NULL,
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
+    FOREIGN KEY (product_id) REFERENCES products(id) ON DELETE CASCADE,
+    INDEX idx_stock_reservations_user (user_id),
+    INDEX idx_stock_reservations_expires (expires_at)
+);
+
+-- Agrégats analytiques (mis à jour par l'application, recalculables via /api/analytics/admin/rebuild)
+CREATE TABLE IF NOT EXISTS analytics_daily_revenue (
+    jour DATE PRIMARY KEY,
+    order_count BIGINT NOT NULL,
+    revenue DECIMAL(14,2) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS analytics_product_sales (
+    product_id BIGINT PRIMARY KEY,
+    units BIGINT NOT NULL,
+    revenue DECIMAL(14,2) NOT NULL,
+    INDEX idx_product_sales_units (units)
+);
+
+CREATE TABLE IF NOT EXISTS analytics_order_status (
+    statut VARCHAR(20) PRIMARY KEY,
+    order_count BIGINT NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS analytics_payment_method (
+    methode VARCHAR(255) PRIMARY KEY,
+    payment_count BIGINT NOT NULL,
+    pending_count BIGINT NOT NULL,
+    paid_count BIGINT NOT NULL,
+    failed_count BIGINT NOT NULL,
+    amount_total DECIMAL(14,2) NOT NULL,
+    amount_paid DECIMAL(14,2) NOT NULL
+);
+
+-- Tables d'allocation des identifiants (séquences émulées par Hibernate, allocation par blocs de 50)
+-- Sur une base existante, next_val est aligné au-delà des identifiants déjà utilisés
+CREATE TABLE IF NOT EXISTS orders_seq (next_val BIGINT);
+CREATE TABLE IF NOT EXISTS order_items_seq (next_val BIGINT);
+CREATE TABLE IF NOT EXISTS payments_seq (next_val BIGINT);
+CREATE TABLE IF NOT EXISTS cart_items_seq (next_val BIGINT);
+CREATE TABLE IF NOT EXISTS payment_outbox_seq (next_val BIGINT);
+CREATE TABLE IF NOT EXISTS products_seq (next_val BIGINT);
+CREATE TABLE IF NOT EXISTS stock_reservations_seq (next_val BIGINT);
+
+INSERT INTO orders_seq (next_val) SELECT 1 FROM DUAL WHERE NOT EXISTS (SELECT 1 FROM orders_seq);
+INSERT INTO order_items_seq (next_val) SELECT 1 FROM DUAL WHERE NOT EXISTS (SELECT 1 FROM order_items_seq);
+INSERT INTO payments_seq (next_val) SELECT 1 FROM DUAL WHERE NOT EXISTS (SELECT 1 FROM payments_seq);
+INSERT INTO cart_items_seq (next_val) SELECT 1 FROM DUAL WHERE NOT EXISTS (SELECT 1 FROM cart_items_seq);
+INSERT INTO payment_outbox_seq (next_val) SELECT 1 FROM DUAL WHERE NOT EXISTS (SELECT 1 FROM payment_outbox_seq);
+INSERT INTO products_seq (next_val) SELECT 1 FROM DUAL WHERE NOT EXISTS (SELECT 1 FROM products_seq);
+INSERT INTO stock_reservations_seq (next_val) SELECT 1 FROM DUAL WHERE NOT EXISTS (SELECT 1 FROM stock_reservations_seq);
+
+UPDATE orders_seq SET next_val = GREATEST(next_val, (SELECT COALESCE(MAX(id), 0) + 51 FROM orders));
+UPDATE order_items_seq SET next_val = GREATEST(next_val, (SELECT COALESCE(MAX(id), 0) + 51 FROM order_items));
+UPDATE payments_seq SET next_val = GREATEST(next_val, (SELECT COALESCE(MAX(id), 0) + 51 FROM payments));
+UPDATE cart_items_seq SET next_val = GREATEST(next_val, (SELECT COALESCE(MAX(id), 0) + 51 FROM cart_items));
+
 -- Insérer un utilisateur admin par défaut
 INSERT INTO users (nom, email, mot_de_passe, role) VALUES 
 ('Admin', 'admin@shopie.com', '$2a$10$92IXUNpkjO0rOQ5byMi.Ye4oKoEa3Ro9llC/.og/at2.uheWG/igi', 'ADMIN')
@@ -89,4 +211,7 @@ INSERT INTO products (nom, description, prix, image_url, stock) VALUES
 ('Apple Watch', 'Montre connectée Apple Series 9', 399.99, 'https://example.com/watch.jpg', 60)
 ON DUPLICATE KEY UPDATE nom = nom;
 
+-- Les produits d'exemple ont reçu des identifiants AUTO_INCREMENT : aligner la séquence au-delà
+UPDATE products_seq SET next_val = GREATEST(next_val, (SELECT COALESCE(MAX(id), 0) + 51 FROM products));
+
 COMMIT;
\ No newline at end of file
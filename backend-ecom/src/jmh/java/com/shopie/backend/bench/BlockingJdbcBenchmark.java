@@ -0,0 +1,83 @@
+package com.shopie.backend.bench;
+
+import com.shopie.backend.ShopieBackendApplication;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rafale de requêtes bloquées chacune sur une requête SQL de 20 ms, traitées comme par Tomcat :
+ * PLATFORM par un pool de 200 threads (server.tomcat.threads.max par défaut), VIRTUAL par un
+ * thread virtuel par requête (spring.threads.virtual.enabled=true).
+ * Les requêtes passent par le pool Hikari de l'application (20 connexions) : c'est lui, et non
+ * le nombre de threads, qui borne le débit tant que le pilote n'épingle pas les threads virtuels.
+ * Mesure au niveau des exécuteurs, sans HTTP : seul le modèle de threads change entre les deux.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class BlockingJdbcBenchmark {
+    
+    private static final int TOMCAT_MAX_THREADS = 200;
+    private static final int QUERY_MS = 20;
+    
+    @Param({"PLATFORM", "VIRTUAL"})
+    private String threads;
+    
+    // Requêtes simultanées de la rafale
+    @Param({"200", "1000"})
+    private int requests;
+    
+    private ConfigurableApplicationContext context;
+    private JdbcTemplate jdbcTemplate;
+    private ExecutorService executor;
+    
+    @Setup(Level.Trial)
+    public void startApplication() {
+        context = new SpringApplicationBuilder(ShopieBackendApplication.class)
+                .profiles("bench")
+                .run();
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        // Requête lente côté base : H2 exécute la fonction dans le thread appelant, qui reste bloqué
+        jdbcTemplate.execute("CREATE ALIAS IF NOT EXISTS BENCH_PAUSE FOR \"" + getClass().getName() + ".pause\"");
+        executor = "PLATFORM".equals(threads)
+                ? Executors.newFixedThreadPool(TOMCAT_MAX_THREADS)
+                : Executors.newVirtualThreadPerTaskExecutor();
+    }
+    
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        executor.shutdownNow();
+        context.close();
+    }
+    
+    @Benchmark
+    public int burst() throws InterruptedException, ExecutionException {
+        List<Future<Integer>> responses = new ArrayList<>(requests);
+        for (int i = 0; i < requests; i++) {
+            responses.add(executor.submit(() -> jdbcTemplate.queryForObject("SELECT BENCH_PAUSE(?)", Integer.class, QUERY_MS)));
+        }
+        int completed = 0;
+        for (Future<Integer> response : responses) {
+            completed += response.get();
+        }
+        return completed;
+    }
+    
+    public static int pause(int millis) throws InterruptedException {
+        Thread.sleep(millis);
+        return 1;
+    }
+}
@@ -0,0 +1,114 @@
+package com.shopie.backend.bench;
+
+import com.shopie.backend.ShopieBackendApplication;
+import com.shopie.backend.cart.CartStore;
+import com.shopie.backend.dto.CartItemRequest;
+import com.shopie.backend.dto.CartLineView;
+import com.shopie.backend.model.Order;
+import com.shopie.backend.model.Product;
+import com.shopie.backend.model.User;
+import com.shopie.backend.repository.ProductRepository;
+import com.shopie.backend.repository.UserRepository;
+import com.shopie.backend.service.CartService;
+import com.shopie.backend.service.OrderService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parcours d'achat à travers les services, sur l'application complète avec une base H2
+ * en mémoire (profil bench) : ajout au panier et création d'une commande depuis le panier.
+ * Le stock des produits est assez grand pour ne jamais s'épuiser pendant une mesure.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class CheckoutBenchmark {
+    
+    private static final int PRODUCTS = 50;
+    
+    // Nombre de lignes du panier transformé en commande
+    @Param({"1", "5"})
+    private int lines;
+    
+    private ConfigurableApplicationContext context;
+    private CartService cartService;
+    private OrderService orderService;
+    private CartStore cartStore;
+    private User user;
+    private final List<Long> productIds = new ArrayList<>();
+    private int next;
+    
+    @Setup(Level.Trial)
+    public void startApplication() {
+        context = new SpringApplicationBuilder(ShopieBackendApplication.class)
+                .profiles("bench")
+                .run();
+        cartService = context.getBean(CartService.class);
+        orderService = context.getBean(OrderService.class);
+        cartStore = context.getBean(CartStore.class);
+        
+        ProductRepository productRepository = context.getBean(ProductRepository.class);
+        for (int i = 0; i < PRODUCTS; i++) {
+            Product product = new Product();
+            product.setNom("Produit bench " + i);
+            product.setPrix(new BigDecimal("9.99"));
+            product.setStock(Integer.MAX_VALUE);
+            productIds.add(productRepository.save(product).getId());
+        }
+        
+        User buyer = new User();
+        buyer.setNom("Bench");
+        buyer.setEmail("bench-" + UUID.randomUUID() + "@shopie.com");
+        buyer.setMotDePasse("x");
+        user = context.getBean(UserRepository.class).save(buyer);
+    }
+    
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+    
+    @Benchmark
+    public CartLineView addToCart() {
+        return cartService.addToCart(user, new CartItemRequest(nextProductId(), 1));
+    }
+    
+    @Benchmark
+    public Order createOrderFromCart(FilledCart cart) {
+        return orderService.createOrderFromCart(user);
+    }
+    
+    private Long nextProductId() {
+        Long productId = productIds.get(next);
+        next = (next + 1) % productIds.size();
+        return productId;
+    }
+    
+    /**
+     * Panier rempli hors mesure avant chaque création de commande.
+     */
+    @State(Scope.Benchmark)
+    public static class FilledCart {
+        
+        @Setup(Level.Invocation)
+        public void fill(CheckoutBenchmark benchmark) {
+            benchmark.cartStore.mutate(benchmark.user.getId(), cart -> {
+                cart.clear();
+                for (int i = 0; i < benchmark.lines; i++) {
+                    cart.put(benchmark.nextProductId(), 1);
+                }
+                return null;
+            });
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.shopie.backend.bench;
+
+import com.shopie.backend.ShopieBackendApplication;
+import com.shopie.backend.model.Product;
+import com.shopie.backend.repository.ProductRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Requête HTTP sur le catalogue, à travers le serveur complet (profil bench) : réponse 200
+ * avec le corps JSON sérialisé, contre requête conditionnelle If-None-Match résolue en 304
+ * par l'ETag, sans lecture des produits ni sérialisation.
+ * LIST est une page de 20 produits de GET /products, ITEM un produit de GET /products/{id}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ConditionalGetBenchmark {
+    
+    private static final int PRODUCTS = 100;
+    
+    @Param({"LIST", "ITEM"})
+    private String resource;
+    
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private HttpRequest fullRequest;
+    private HttpRequest conditionalRequest;
+    
+    @Setup(Level.Trial)
+    public void startApplication() throws IOException, InterruptedException {
+        context = new SpringApplicationBuilder(ShopieBackendApplication.class)
+                .profiles("bench")
+                .run();
+        
+        ProductRepository productRepository = context.getBean(ProductRepository.class);
+        Long productId = null;
+        for (int i = 0; i < PRODUCTS; i++) {
+            Product product = new Product();
+            product.setNom("Produit bench " + i);
+            product.setDescription("Description du produit " + i + " pour le benchmark des requêtes conditionnelles");
+            product.setPrix(new BigDecimal("19.99"));
+            product.setImageUrl("https://cdn.shopie.com/products/" + i + ".jpg");
+            product.setStock(100);
+            productId = productRepository.save(product).getId();
+        }
+        
+        String port = context.getEnvironment().getProperty("local.server.port");
+        String contextPath = context.getEnvironment().getProperty("server.servlet.context-path", "");
+        URI uri = URI.create("http://localhost:" + port + contextPath
+                + ("LIST".equals(resource) ? "/products?limit=20" : "/products/" + productId));
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        fullRequest = HttpRequest.newBuilder(uri).GET().build();
+        
+        HttpResponse<byte[]> response = client.send(fullRequest, HttpResponse.BodyHandlers.ofByteArray());
+        String etag = response.headers().firstValue("ETag").orElseThrow();
+        conditionalRequest = HttpRequest.newBuilder(uri).header("If-None-Match", etag).GET().build();
+        System.out.printf("%n%s : %d octets, ETag %s%n", resource, response.body().length, etag);
+    }
+    
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+    
+    @Benchmark
+    public byte[] fullResponse() throws IOException, InterruptedException {
+        return send(fullRequest, 200);
+    }
+    
+    @Benchmark
+    public byte[] notModified() throws IOException, InterruptedException {
+        return send(conditionalRequest, 304);
+    }
+    
+    private byte[] send(HttpRequest request, int expectedStatus) throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != expectedStatus) {
+            throw new IllegalStateException("Statut " + response.statusCode() + " au lieu de " + expectedStatus);
+        }
+        return response.body();
+    }
+}
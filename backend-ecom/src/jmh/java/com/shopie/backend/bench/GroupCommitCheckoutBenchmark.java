@@ -0,0 +1,105 @@
+package com.shopie.backend.bench;
+
+import com.shopie.backend.ShopieBackendApplication;
+import com.shopie.backend.cart.CartStore;
+import com.shopie.backend.model.Order;
+import com.shopie.backend.model.Product;
+import com.shopie.backend.model.User;
+import com.shopie.backend.repository.ProductRepository;
+import com.shopie.backend.repository.UserRepository;
+import com.shopie.backend.service.CheckoutBatcher;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Création de commandes par 64 acheteurs simultanés, avec une transaction par commande
+ * (groupCommit = false) ou par lots (CheckoutBatcher). Throughput donne les commandes par
+ * seconde, SampleTime la distribution des latences (p99 dans le rapport JSON).
+ * H2 en mémoire n'a pas de fsync au commit : le gain mesuré ici est un minimum. Sur MySQL,
+ * surcharger spring.datasource.* (et spring.jpa.properties.hibernate.dialect) dans la JVM forkée.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(64)
+@Fork(1)
+public class GroupCommitCheckoutBenchmark {
+    
+    private static final int PRODUCTS = 200;
+    
+    @Param({"false", "true"})
+    private boolean groupCommit;
+    
+    private ConfigurableApplicationContext context;
+    private CheckoutBatcher checkoutBatcher;
+    private CartStore cartStore;
+    private final List<Long> productIds = new ArrayList<>();
+    
+    @Setup(Level.Trial)
+    public void startApplication() {
+        context = new SpringApplicationBuilder(ShopieBackendApplication.class)
+                .profiles("bench")
+                .properties("orders.checkout.group-commit.enabled=" + groupCommit)
+                .run();
+        checkoutBatcher = context.getBean(CheckoutBatcher.class);
+        cartStore = context.getBean(CartStore.class);
+        
+        ProductRepository productRepository = context.getBean(ProductRepository.class);
+        for (int i = 0; i < PRODUCTS; i++) {
+            Product product = new Product();
+            product.setNom("Produit bench " + i);
+            product.setPrix(new BigDecimal("9.99"));
+            product.setStock(Integer.MAX_VALUE);
+            productIds.add(productRepository.save(product).getId());
+        }
+    }
+    
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+    
+    @Benchmark
+    public Order checkout(Buyer buyer) {
+        return checkoutBatcher.checkout(buyer.user);
+    }
+    
+    /**
+     * Un acheteur par thread, dont le panier (trois produits au hasard) est rempli hors mesure.
+     */
+    @State(Scope.Thread)
+    public static class Buyer {
+        
+        private User user;
+        
+        @Setup(Level.Trial)
+        public void createUser(GroupCommitCheckoutBenchmark benchmark) {
+            User buyer = new User();
+            buyer.setNom("Bench");
+            buyer.setEmail("bench-" + UUID.randomUUID() + "@shopie.com");
+            buyer.setMotDePasse("x");
+            user = benchmark.context.getBean(UserRepository.class).save(buyer);
+        }
+        
+        @Setup(Level.Invocation)
+        public void fillCart(GroupCommitCheckoutBenchmark benchmark) {
+            benchmark.cartStore.mutate(user.getId(), cart -> {
+                cart.clear();
+                for (int i = 0; i < 3; i++) {
+                    cart.put(benchmark.productIds.get(ThreadLocalRandom.current().nextInt(PRODUCTS)), 1);
+                }
+                return null;
+            });
+        }
+    }
+}
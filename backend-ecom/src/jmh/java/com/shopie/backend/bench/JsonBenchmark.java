@@ -0,0 +1,104 @@
+package com.shopie.backend.bench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.shopie.backend.dto.OrderDetail;
+import com.shopie.backend.model.Order;
+import com.shopie.backend.model.OrderItem;
+import com.shopie.backend.model.Payment;
+import com.shopie.backend.model.Product;
+import com.shopie.backend.model.User;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sérialisation JSON des réponses les plus fréquentes : un produit et le détail d'une commande
+ * de items lignes. Les objets sont construits en mémoire, sans base de données.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonBenchmark {
+    
+    @Param({"1", "10", "50"})
+    private int items;
+    
+    private ObjectMapper mapper;
+    private Product product;
+    private OrderDetail orderDetail;
+    
+    @Setup
+    public void setUp() {
+        mapper = new ObjectMapper()
+                .findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        
+        product = product(1L);
+        
+        User user = new User();
+        user.setId(7L);
+        user.setNom("Bench");
+        user.setEmail("bench@shopie.com");
+        
+        Order order = new Order();
+        order.setId(1000L);
+        order.setUser(user);
+        order.setStatut(Order.Statut.PAID);
+        List<OrderItem> orderItems = new ArrayList<>();
+        BigDecimal total = BigDecimal.ZERO;
+        for (int i = 0; i < items; i++) {
+            OrderItem item = new OrderItem();
+            item.setId((long) i + 1);
+            item.setOrder(order);
+            item.setProduct(product(i + 1L));
+            item.setQuantite(2);
+            item.setPrix(item.getProduct().getPrix());
+            orderItems.add(item);
+            total = total.add(item.getPrix().multiply(BigDecimal.valueOf(2)));
+        }
+        order.setOrderItems(orderItems);
+        order.setTotal(total);
+        
+        Payment payment = new Payment();
+        payment.setId(500L);
+        payment.setOrder(order);
+        payment.setMontant(total);
+        payment.setMethode("Card");
+        payment.setStatut(Payment.Statut.PAID);
+        order.setPayment(payment);
+        
+        orderDetail = OrderDetail.from(order);
+    }
+    
+    @Benchmark
+    public byte[] serializeProduct() throws Exception {
+        return mapper.writeValueAsBytes(product);
+    }
+    
+    @Benchmark
+    public byte[] serializeOrderDetail() throws Exception {
+        return mapper.writeValueAsBytes(orderDetail);
+    }
+    
+    private static Product product(long id) {
+        Product product = new Product();
+        product.setId(id);
+        product.setReference("REF-" + id);
+        product.setNom("Produit " + id);
+        product.setDescription("Description du produit " + id + " pour le benchmark de sérialisation");
+        product.setPrix(new BigDecimal("19.99").add(BigDecimal.valueOf(id)));
+        product.setImageUrl("https://cdn.shopie.com/products/" + id + ".jpg");
+        product.setStock(100);
+        product.setVersion(3L);
+        product.setUpdatedAt(LocalDateTime.now());
+        return product;
+    }
+}
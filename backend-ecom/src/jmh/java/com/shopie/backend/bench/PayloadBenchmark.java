@@ -0,0 +1,165 @@
+package com.shopie.backend.bench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.shopie.backend.controller.SparseFieldsetAdvice;
+import com.shopie.backend.dto.CursorPage;
+import com.shopie.backend.dto.OrderDetail;
+import com.shopie.backend.dto.OrderSummary;
+import com.shopie.backend.dto.PageResponse;
+import com.shopie.backend.dto.ProductSummary;
+import com.shopie.backend.model.Order;
+import com.shopie.backend.model.OrderItem;
+import com.shopie.backend.model.Payment;
+import com.shopie.backend.model.Product;
+import com.shopie.backend.model.User;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Taille et coût de sérialisation d'une page de 20 éléments de GET /products et GET /orders :
+ * FULL est la représentation complète (entités Product ; détail des commandes avec leurs lignes,
+ * les entités Order étant cycliques via OrderItem), COMPACT les DTO de liste renvoyés par l'API,
+ * SPARSE ces mêmes DTO réduits par fields=.
+ * Les tailles (JSON brut et gzip, comme la compression du serveur) sont affichées au démarrage
+ * de chaque combinaison ; le temps mesuré est celui de la sérialisation, avec ou sans gzip.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PayloadBenchmark {
+    
+    private static final int PAGE_SIZE = 20;
+    private static final int LINES_PER_ORDER = 3;
+    
+    @Param({"PRODUCTS", "ORDERS"})
+    private String resource;
+    
+    @Param({"FULL", "COMPACT", "SPARSE"})
+    private String view;
+    
+    private ObjectMapper mapper;
+    private Object body;
+    
+    @Setup
+    public void setUp() throws IOException {
+        mapper = new ObjectMapper()
+                .findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        
+        List<Product> products = new ArrayList<>();
+        for (long id = 1; id <= PAGE_SIZE; id++) {
+            products.add(product(id));
+        }
+        List<Order> orders = new ArrayList<>();
+        for (long id = 1; id <= PAGE_SIZE; id++) {
+            orders.add(order(id));
+        }
+        
+        SparseFieldsetAdvice sparseFieldset = new SparseFieldsetAdvice();
+        if ("PRODUCTS".equals(resource)) {
+            CursorPage<ProductSummary> page = new CursorPage<>(
+                    products.stream().map(ProductSummary::from).toList(), "MjA", true);
+            body = switch (view) {
+                case "FULL" -> new CursorPage<>(products, "MjA", true);
+                case "COMPACT" -> page;
+                default -> sparseFieldset.apply(page, "id,nom,prix");
+            };
+        } else {
+            PageResponse<OrderSummary> page = new PageResponse<>(
+                    orders.stream().map(PayloadBenchmark::summary).toList(), 0, PAGE_SIZE, 1000);
+            body = switch (view) {
+                case "FULL" -> new PageResponse<>(orders.stream().map(OrderDetail::from).toList(), 0, PAGE_SIZE, 1000);
+                case "COMPACT" -> page;
+                default -> sparseFieldset.apply(page, "id,date,statut,total");
+            };
+        }
+        
+        byte[] json = mapper.writeValueAsBytes(body);
+        System.out.printf("%n%s %s : %d octets JSON, %d octets gzip%n", resource, view, json.length, gzip(json).length);
+    }
+    
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return mapper.writeValueAsBytes(body);
+    }
+    
+    @Benchmark
+    public byte[] serializeGzip() throws IOException {
+        return gzip(mapper.writeValueAsBytes(body));
+    }
+    
+    private static byte[] gzip(byte[] json) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(json.length / 4);
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(json);
+        }
+        return bytes.toByteArray();
+    }
+    
+    private static OrderSummary summary(Order order) {
+        return new OrderSummary(order.getId(), order.getUser().getId(), order.getUser().getNom(), order.getDate(),
+                order.getStatut(), order.getTotal(), (long) order.getOrderItems().size(), order.getPayment().getStatut(),
+                order.getOrderItems().get(0).getProduct().getNom(), order.getOrderItems().get(0).getProduct().getImageUrl());
+    }
+    
+    private static Order order(long id) {
+        User user = new User();
+        user.setId(7L);
+        user.setNom("Bench");
+        user.setEmail("bench@shopie.com");
+        
+        Order order = new Order();
+        order.setId(id);
+        order.setUser(user);
+        order.setStatut(Order.Statut.PAID);
+        List<OrderItem> orderItems = new ArrayList<>();
+        BigDecimal total = BigDecimal.ZERO;
+        for (int i = 0; i < LINES_PER_ORDER; i++) {
+            OrderItem item = new OrderItem();
+            item.setId(id * LINES_PER_ORDER + i);
+            item.setOrder(order);
+            item.setProduct(product(id + i));
+            item.setQuantite(2);
+            item.setPrix(item.getProduct().getPrix());
+            orderItems.add(item);
+            total = total.add(item.getPrix().multiply(BigDecimal.valueOf(2)));
+        }
+        order.setOrderItems(orderItems);
+        order.setTotal(total);
+        
+        Payment payment = new Payment();
+        payment.setId(id);
+        payment.setOrder(order);
+        payment.setMontant(total);
+        payment.setMethode("Card");
+        payment.setStatut(Payment.Statut.PAID);
+        order.setPayment(payment);
+        return order;
+    }
+    
+    private static Product product(long id) {
+        Product product = new Product();
+        product.setId(id);
+        product.setReference("REF-" + id);
+        product.setNom("Produit " + id);
+        product.setDescription("Description du produit " + id + " pour le benchmark de sérialisation");
+        product.setPrix(new BigDecimal("19.99").add(BigDecimal.valueOf(id)));
+        product.setImageUrl("https://cdn.shopie.com/products/" + id + ".jpg");
+        product.setStock(100);
+        product.setVersion(3L);
+        product.setUpdatedAt(LocalDateTime.now());
+        return product;
+    }
+}
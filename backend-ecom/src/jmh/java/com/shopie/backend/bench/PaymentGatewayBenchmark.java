@@ -0,0 +1,139 @@
+package com.shopie.backend.bench;
+
+import com.shopie.backend.ShopieBackendApplication;
+import com.shopie.backend.dto.PaymentRequest;
+import com.shopie.backend.model.Order;
+import com.shopie.backend.model.Payment;
+import com.shopie.backend.model.User;
+import com.shopie.backend.payment.ChargeRequest;
+import com.shopie.backend.payment.ChargeResult;
+import com.shopie.backend.payment.PaymentGateway;
+import com.shopie.backend.payment.PaymentGatewayException;
+import com.shopie.backend.payment.PaymentOutboxWorker;
+import com.shopie.backend.repository.OrderRepository;
+import com.shopie.backend.repository.UserRepository;
+import com.shopie.backend.service.PaymentService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Paiements face à une passerelle lente (passerelle locale à 200 ms de latence), sur
+ * l'application complète (profil bench) :
+ * - acceptedRequest : POST /payments/{id}/process actuel, qui enregistre un événement dans
+ *   l'outbox et rend la main ;
+ * - synchronousRequest : ancien traitement, appel à la passerelle dans la transaction de la
+ *   requête, connexion JDBC retenue pendant l'appel ;
+ * - workerDrain : débit du worker de l'outbox sur un lot de 200 paiements en attente.
+ * Les requêtes sont lancées par 20 threads, autant que de connexions dans le pool : au-delà,
+ * les requêtes de l'ancien traitement attendraient aussi une connexion libre.
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class PaymentGatewayBenchmark {
+    
+    private static final long GATEWAY_LATENCY_MS = 200;
+    private static final int DRAINED_PAYMENTS = 200;
+    
+    private ConfigurableApplicationContext context;
+    private PaymentService paymentService;
+    private PaymentGateway gateway;
+    private PaymentOutboxWorker outboxWorker;
+    private OrderRepository orderRepository;
+    private TransactionTemplate transactionTemplate;
+    private User user;
+    
+    @Setup(Level.Trial)
+    public void startApplication() {
+        context = new SpringApplicationBuilder(ShopieBackendApplication.class)
+                .profiles("bench")
+                // Argument de ligne de commande : prioritaire sur application.properties (latence nulle)
+                .run("--payments.gateway.stub.latency-ms=" + GATEWAY_LATENCY_MS);
+        paymentService = context.getBean(PaymentService.class);
+        gateway = context.getBean(PaymentGateway.class);
+        outboxWorker = context.getBean(PaymentOutboxWorker.class);
+        orderRepository = context.getBean(OrderRepository.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        
+        User buyer = new User();
+        buyer.setNom("Bench");
+        buyer.setEmail("bench-" + UUID.randomUUID() + "@shopie.com");
+        buyer.setMotDePasse("x");
+        user = context.getBean(UserRepository.class).save(buyer);
+    }
+    
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+    
+    /**
+     * Paiements acceptés et en attente dans l'outbox avant chaque appel de workerDrain.
+     */
+    @State(Scope.Benchmark)
+    public static class PendingPayments {
+        
+        @Setup(Level.Invocation)
+        public void enqueue(PaymentGatewayBenchmark benchmark) {
+            for (int i = 0; i < DRAINED_PAYMENTS; i++) {
+                benchmark.paymentService.processPayment(benchmark.newPayment().getId());
+            }
+        }
+    }
+    
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Threads(20)
+    public Payment.Statut acceptedRequest() {
+        return paymentService.processPayment(newPayment().getId()).getStatut();
+    }
+    
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Threads(20)
+    public Payment.Statut synchronousRequest() {
+        Long paymentId = newPayment().getId();
+        return transactionTemplate.execute(status -> {
+            Payment payment = paymentService.getPaymentById(paymentId);
+            ChargeResult result;
+            try {
+                result = gateway.charge(new ChargeRequest(UUID.randomUUID().toString(), payment.getId(),
+                        payment.getMontant(), payment.getMethode()));
+            } catch (PaymentGatewayException e) {
+                throw new IllegalStateException(e);
+            }
+            return paymentService.updatePaymentStatus(paymentId,
+                    result.approved() ? Payment.Statut.PAID : Payment.Statut.FAILED).getStatut();
+        });
+    }
+    
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public int workerDrain(PendingPayments pending) {
+        int processed = 0;
+        int batch;
+        while ((batch = outboxWorker.processBatch()) > 0) {
+            processed += batch;
+        }
+        return processed;
+    }
+    
+    // Commande et paiement en attente, créés de la même façon pour chaque variante
+    private Payment newPayment() {
+        Order order = new Order();
+        order.setUser(user);
+        order.setTotal(new BigDecimal("42.00"));
+        order = orderRepository.save(order);
+        return paymentService.createPayment(new PaymentRequest(order.getId(), order.getTotal(), "Card"));
+    }
+}
@@ -0,0 +1,93 @@
+package com.shopie.backend.bench;
+
+import com.shopie.backend.model.User;
+import com.shopie.backend.security.JwtUtils;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coût CPU de l'authentification : signature et vérification d'un JWT (à chaque requête),
+ * hachage et vérification BCrypt (inscription et connexion).
+ * jwtVerifyPerCallParser reproduit la vérification d'avant le parser partagé de JwtUtils :
+ * clé et parser reconstruits à chaque appel, token analysé deux fois par requête
+ * (validation puis lecture du sujet).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SecurityBenchmark {
+    
+    private static final String PASSWORD = "motDePasse123";
+    private static final String JWT_SECRET = "benchSecretKey123456789012345678901234567890";
+    
+    // Valeur par défaut de security.bcrypt.strength
+    @Param("10")
+    private int bcryptStrength;
+    
+    private JwtUtils jwtUtils;
+    private User user;
+    private String token;
+    private BCryptPasswordEncoder passwordEncoder;
+    private String passwordHash;
+    
+    @Setup
+    public void setUp() {
+        jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "jwtSecret", JWT_SECRET);
+        ReflectionTestUtils.setField(jwtUtils, "jwtKeyId", "current");
+        ReflectionTestUtils.setField(jwtUtils, "previousJwtSecret", "");
+        ReflectionTestUtils.setField(jwtUtils, "previousJwtKeyId", "previous");
+        ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", 86400000);
+        ReflectionTestUtils.setField(jwtUtils, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.invokeMethod(jwtUtils, "init");
+        
+        user = new User();
+        user.setId(42L);
+        user.setNom("Bench");
+        user.setEmail("bench@shopie.com");
+        user.setRole(User.Role.USER);
+        token = jwtUtils.generateJwtToken(user);
+        
+        passwordEncoder = new BCryptPasswordEncoder(bcryptStrength);
+        passwordHash = passwordEncoder.encode(PASSWORD);
+    }
+    
+    @Benchmark
+    public String jwtSign() {
+        return jwtUtils.generateJwtToken(user);
+    }
+    
+    @Benchmark
+    public Claims jwtVerify() {
+        return jwtUtils.parseValidClaims(token);
+    }
+    
+    @Benchmark
+    public String jwtVerifyPerCallParser() {
+        Jwts.parser().verifyWith(Keys.hmacShaKeyFor(JWT_SECRET.getBytes())).build().parseSignedClaims(token);
+        return Jwts.parser().verifyWith(Keys.hmacShaKeyFor(JWT_SECRET.getBytes())).build()
+                .parseSignedClaims(token).getPayload().getSubject();
+    }
+    
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public String bcryptEncode() {
+        return passwordEncoder.encode(PASSWORD);
+    }
+    
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public boolean bcryptMatches() {
+        return passwordEncoder.matches(PASSWORD, passwordHash);
+    }
+}
@@ -0,0 +1,66 @@
+package com.shopie.backend.bench;
+
+import com.shopie.backend.ShopieBackendApplication;
+import com.shopie.backend.dto.StockDecrementResult;
+import com.shopie.backend.model.Product;
+import com.shopie.backend.repository.ProductRepository;
+import com.shopie.backend.service.ProductService;
+import com.shopie.backend.service.ShardedStockService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Décrémentation concurrente du stock d'un seul produit (vente flash) : ligne unique
+ * (shards = 0) contre stock partitionné sur plusieurs compteurs. Chaque appel est une
+ * transaction, comme la décrémentation faite par la création d'une commande.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(32)
+@Fork(1)
+public class StockContentionBenchmark {
+    
+    @Param({"0", "16"})
+    private int shards;
+    
+    private ConfigurableApplicationContext context;
+    private ProductService productService;
+    private Map<Long, Integer> line;
+    
+    @Setup(Level.Trial)
+    public void startApplication() {
+        context = new SpringApplicationBuilder(ShopieBackendApplication.class)
+                .profiles("bench")
+                .run();
+        productService = context.getBean(ProductService.class);
+        
+        Product product = new Product();
+        product.setNom("Produit vente flash");
+        product.setPrix(new BigDecimal("9.99"));
+        product.setStock(Integer.MAX_VALUE);
+        Long productId = context.getBean(ProductRepository.class).save(product).getId();
+        if (shards > 0) {
+            context.getBean(ShardedStockService.class).enable(productId, shards);
+        }
+        line = Map.of(productId, 1);
+    }
+    
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+    
+    @Benchmark
+    public List<StockDecrementResult> decrementHotSku() {
+        return productService.decrementStock(line);
+    }
+}
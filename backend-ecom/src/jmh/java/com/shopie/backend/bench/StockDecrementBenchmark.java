@@ -0,0 +1,98 @@
+package com.shopie.backend.bench;
+
+import com.shopie.backend.ShopieBackendApplication;
+import com.shopie.backend.model.Product;
+import com.shopie.backend.repository.ProductRepository;
+import com.shopie.backend.service.ProductService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Décrémentation du stock d'un produit par la création d'une commande : l'ancienne lecture,
+ * soustraction en Java puis écriture de l'entité (findById + updateStock), contre la mise à jour
+ * conditionnelle UPDATE ... WHERE stock >= ? de ProductService.decrementStock.
+ * La lecture-écriture est rejouée en cas de conflit de version : sans cela, deux commandes
+ * concurrentes vendraient la même unité.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class StockDecrementBenchmark {
+    
+    public enum Strategy { READ_MODIFY_WRITE, CONDITIONAL_UPDATE }
+    
+    @Param({"READ_MODIFY_WRITE", "CONDITIONAL_UPDATE"})
+    private Strategy strategy;
+    
+    private ConfigurableApplicationContext context;
+    private ProductService productService;
+    private ProductRepository productRepository;
+    private TransactionTemplate transactionTemplate;
+    private Long productId;
+    private Map<Long, Integer> line;
+    
+    @Setup(Level.Trial)
+    public void startApplication() {
+        context = new SpringApplicationBuilder(ShopieBackendApplication.class)
+                .profiles("bench")
+                .run();
+        productService = context.getBean(ProductService.class);
+        productRepository = context.getBean(ProductRepository.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        
+        Product product = new Product();
+        product.setNom("Produit très demandé");
+        product.setPrix(new BigDecimal("19.99"));
+        product.setStock(Integer.MAX_VALUE);
+        productId = productRepository.save(product).getId();
+        line = Map.of(productId, 1);
+    }
+    
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+    
+    @Benchmark
+    @Threads(1)
+    public boolean decrement() {
+        return decrementOnce();
+    }
+    
+    // Même produit pour tous les threads : conflits de version pour la lecture-écriture, attente du verrou de ligne sinon
+    @Benchmark
+    @Threads(16)
+    public boolean decrementContended() {
+        return decrementOnce();
+    }
+    
+    private boolean decrementOnce() {
+        if (strategy == Strategy.CONDITIONAL_UPDATE) {
+            return productService.decrementStock(line).get(0).isSuccess();
+        }
+        while (true) {
+            try {
+                return Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+                    Product product = productRepository.findById(productId).orElseThrow();
+                    if (product.getStock() < 1) {
+                        return false;
+                    }
+                    productService.updateStock(productId, product.getStock() - 1);
+                    return true;
+                }));
+            } catch (OptimisticLockingFailureException e) {
+                // Un autre thread a modifié la ligne entre la lecture et l'écriture : nouvel essai
+            }
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.shopie.backend.cache;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Version globale du catalogue, incrémentée à chaque écriture sur un produit.
+ * Sert d'ETag / Last-Modified aux listes de produits : une requête conditionnelle
+ * est résolue en 304 sans requête SQL ni sérialisation.
+ *
+ * La version vit en mémoire : l'époque (instant de démarrage) la rend unique d'une
+ * exécution à l'autre, et chaque instance a ses propres ETags.
+ */
+@Component
+public class CatalogVersion {
+    
+    private final long epoch = System.currentTimeMillis();
+    private final AtomicLong counter = new AtomicLong();
+    private volatile long lastModified = epoch;
+    
+    public String etag() {
+        return "\"catalog-" + epoch + "-" + counter.get() + "\"";
+    }
+    
+    public long lastModified() {
+        return lastModified;
+    }
+    
+    /**
+     * Incrémente immédiatement puis, si une transaction est en cours, à nouveau à sa fin :
+     * un client qui a lu pendant la transaction ne garde pas un ETag valide sur des données périmées.
+     */
+    public void bump() {
+        bumpNow();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    bumpNow();
+                }
+            });
+        }
+    }
+    
+    private void bumpNow() {
+        counter.incrementAndGet();
+        lastModified = System.currentTimeMillis();
+    }
+}
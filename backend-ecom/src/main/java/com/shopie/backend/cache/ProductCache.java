@@ -0,0 +1,126 @@
+package com.shopie.backend.cache;
+
+import com.shopie.backend.model.Product;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Cache en lecture des produits (fiche produit, ajout au panier).
+ * Le stock servi par le cache n'est qu'indicatif : les contrôles de stock relisent la base
+ * et la commande repose sur la décrémentation conditionnelle en SQL.
+ */
+@Component
+public class ProductCache {
+    
+    private final BoundedTtlCache<Long, Product> cache;
+    
+    // Incrémenté à chaque invalidation : un chargement commencé avant n'est pas mis en cache,
+    // pour ne pas réinsérer une valeur lue avant l'écriture qui l'a invalidée
+    private final AtomicLong generation = new AtomicLong();
+    
+    public ProductCache(@Value("${catalog.product-cache.max-size:5000}") int maxSize,
+                        @Value("${catalog.product-cache.ttl-ms:300000}") long ttlMs) {
+        this.cache = new BoundedTtlCache<>(maxSize, ttlMs);
+    }
+    
+    public Optional<Product> get(Long id, Function<Long, Optional<Product>> loader) {
+        Product cached = cache.get(id);
+        if (cached != null) {
+            return Optional.of(copy(cached));
+        }
+        long loadGeneration = generation.get();
+        Optional<Product> loaded = loader.apply(id);
+        loaded.ifPresent(product -> {
+            if (generation.get() == loadGeneration) {
+                cache.put(id, copy(product));
+            }
+        });
+        return loaded;
+    }
+    
+    /**
+     * Lecture groupée : les produits absents du cache sont chargés en un seul appel au loader.
+     */
+    public Map<Long, Product> getAll(Collection<Long> ids, Function<Collection<Long>, List<Product>> loader) {
+        Map<Long, Product> found = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long id : ids) {
+            Product cached = cache.get(id);
+            if (cached != null) {
+                found.put(id, copy(cached));
+            } else {
+                missing.add(id);
+            }
+        }
+        if (!missing.isEmpty()) {
+            long loadGeneration = generation.get();
+            for (Product product : loader.apply(missing)) {
+                found.put(product.getId(), product);
+                if (generation.get() == loadGeneration) {
+                    cache.put(product.getId(), copy(product));
+                }
+            }
+        }
+        return found;
+    }
+    
+    /**
+     * Invalide immédiatement puis, si une transaction est en cours, à nouveau après son commit :
+     * une lecture concurrente ne peut pas remettre en cache l'état antérieur à l'écriture.
+     */
+    public void evict(Long id) {
+        evictNow(id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evictNow(id);
+                }
+            });
+        }
+    }
+    
+    public void evictAll() {
+        generation.incrementAndGet();
+        cache.invalidateAll();
+    }
+    
+    public BoundedTtlCache.CacheStats stats() {
+        return cache.stats();
+    }
+    
+    private void evictNow(Long id) {
+        generation.incrementAndGet();
+        cache.invalidate(id);
+    }
+    
+    // Copies détachées : un appelant qui modifie le produit reçu n'altère pas l'entrée en cache.
+    // Toutes les colonnes sont copiées : une copie réenregistrée n'efface ni la référence ni les réservations
+    private static Product copy(Product product) {
+        Product copy = new Product();
+        copy.setId(product.getId());
+        copy.setReference(product.getReference());
+        copy.setNom(product.getNom());
+        copy.setDescription(product.getDescription());
+        copy.setPrix(product.getPrix());
+        copy.setImageUrl(product.getImageUrl());
+        copy.setStock(product.getStock());
+        copy.setReserved(product.getReserved());
+        copy.setStockShards(product.getStockShards());
+        copy.setVersion(product.getVersion());
+        copy.setUpdatedAt(product.getUpdatedAt());
+        copy.setContentUpdatedAt(product.getContentUpdatedAt());
+        return copy;
+    }
+}
@@ -0,0 +1,7 @@
+package com.shopie.backend.cart;
+
+/**
+ * Ligne de panier telle que stockée : produit et quantité.
+ */
+public record CartLine(Long userId, Long productId, Integer quantite) {
+}
@@ -0,0 +1,23 @@
+package com.shopie.backend.cart;
+
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Stockage des paniers, derrière CartService. Un panier est une map productId -> quantité
+ * dans l'ordre d'ajout des lignes.
+ */
+public interface CartStore {
+    
+    /**
+     * Lignes du panier (copie non modifiable), vide si l'utilisateur n'a pas de panier.
+     */
+    Map<Long, Integer> getLines(Long userId);
+    
+    /**
+     * Applique une modification atomique au panier : la fonction reçoit une copie modifiable
+     * des lignes, les lignes à quantité nulle ou négative sont retirées. Si la fonction lève
+     * une exception, le panier reste inchangé.
+     */
+    <T> T mutate(Long userId, Function<Map<Long, Integer>, T> mutation);
+}
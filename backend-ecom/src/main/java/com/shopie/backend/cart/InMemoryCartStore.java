@@ -0,0 +1,210 @@
+package com.shopie.backend.cart;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Paniers tenus en mémoire, avec écriture différée vers cart_items.
+ *
+ * Lecture sans verrou ni requête SQL quand le panier est en mémoire ; sinon il est rechargé
+ * depuis la table (après un redémarrage notamment). Les modifications sont sérialisées par
+ * utilisateur (verrous répartis sur des segments) et marquent le panier à écrire ; un lot
+ * d'écriture périodique réécrit les paniers modifiés en une transaction. Les paniers inactifs
+ * depuis ttl-ms sont retirés de la mémoire une fois écrits.
+ *
+ * Les paniers vivent dans la mémoire d'une instance : avec plusieurs instances sans affinité
+ * de session, utiliser cart.store=jpa.
+ */
+@Component
+@Primary
+@ConditionalOnProperty(name = "cart.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryCartStore implements CartStore {
+    
+    private static final Logger log = LoggerFactory.getLogger(InMemoryCartStore.class);
+    
+    @Autowired
+    private JpaCartStore persistence;
+    
+    private final ConcurrentHashMap<Long, CartEntry> carts = new ConcurrentHashMap<>();
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+    private final ReentrantLock[] stripes;
+    // Sérialise les écritures en base et les évictions (tâche planifiée, arrêt)
+    private final ReentrantLock flushLock = new ReentrantLock();
+    
+    private final long ttlNanos;
+    private final int maxCarts;
+    private final int flushBatchSize;
+    
+    public InMemoryCartStore(@Value("${cart.store.ttl-ms:1800000}") long ttlMs,
+                             @Value("${cart.store.max-carts:100000}") int maxCarts,
+                             @Value("${cart.store.flush-batch-size:200}") int flushBatchSize,
+                             @Value("${cart.store.lock-stripes:64}") int lockStripes) {
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMs);
+        this.maxCarts = maxCarts;
+        this.flushBatchSize = flushBatchSize;
+        this.stripes = new ReentrantLock[lockStripes];
+        for (int i = 0; i < lockStripes; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+    
+    @Override
+    public Map<Long, Integer> getLines(Long userId) {
+        CartEntry entry = carts.get(userId);
+        if (entry == null) {
+            ReentrantLock lock = lockFor(userId);
+            lock.lock();
+            try {
+                entry = loadIfAbsent(userId);
+            } finally {
+                lock.unlock();
+            }
+        }
+        entry.lastAccess = System.nanoTime();
+        return entry.lines;
+    }
+    
+    @Override
+    public <T> T mutate(Long userId, Function<Map<Long, Integer>, T> mutation) {
+        ReentrantLock lock = lockFor(userId);
+        lock.lock();
+        try {
+            CartEntry entry = loadIfAbsent(userId);
+            Map<Long, Integer> working = new LinkedHashMap<>(entry.lines);
+            T result = mutation.apply(working);
+            working.values().removeIf(quantite -> quantite == null || quantite <= 0);
+            if (!working.equals(entry.lines)) {
+                entry.lines = Collections.unmodifiableMap(working);
+                dirty.add(userId);
+            }
+            entry.lastAccess = System.nanoTime();
+            return result;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${cart.store.flush-interval-ms:2000}")
+    public void flushAndEvict() {
+        flush();
+        evictIdle();
+    }
+    
+    /**
+     * Écrit en base tous les paniers modifiés, par lots. Un lot en échec est remis à écrire.
+     */
+    public void flush() {
+        flushLock.lock();
+        try {
+            List<Long> pending = new ArrayList<>(dirty);
+            dirty.removeAll(pending);
+            for (int from = 0; from < pending.size(); from += flushBatchSize) {
+                List<Long> batch = pending.subList(from, Math.min(from + flushBatchSize, pending.size()));
+                Map<Long, Map<Long, Integer>> snapshot = new LinkedHashMap<>();
+                for (Long userId : batch) {
+                    CartEntry entry = carts.get(userId);
+                    if (entry != null) {
+                        snapshot.put(userId, entry.lines);
+                    }
+                }
+                try {
+                    persistence.replaceLines(snapshot);
+                } catch (RuntimeException e) {
+                    log.warn("Écriture différée de {} paniers en échec, nouvel essai au prochain passage: {}",
+                            snapshot.size(), e.getMessage());
+                    dirty.addAll(batch);
+                }
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+    
+    public int size() {
+        return carts.size();
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+    
+    // Retire les paniers inactifs puis, au-delà de max-carts, les moins récemment utilisés ;
+    // un panier pas encore écrit reste en mémoire
+    private void evictIdle() {
+        flushLock.lock();
+        try {
+            long now = System.nanoTime();
+            carts.forEach((userId, entry) -> {
+                if (now - entry.lastAccess > ttlNanos) {
+                    evict(userId, entry);
+                }
+            });
+            int excess = carts.size() - maxCarts;
+            if (excess > 0) {
+                carts.entrySet().stream()
+                        .sorted(Comparator.comparingLong(e -> e.getValue().lastAccess))
+                        .limit(excess)
+                        .toList()
+                        .forEach(e -> evict(e.getKey(), e.getValue()));
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+    
+    private void evict(Long userId, CartEntry entry) {
+        ReentrantLock lock = lockFor(userId);
+        lock.lock();
+        try {
+            if (!dirty.contains(userId)) {
+                carts.remove(userId, entry);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    // Appelé sous le verrou de l'utilisateur
+    private CartEntry loadIfAbsent(Long userId) {
+        CartEntry entry = carts.get(userId);
+        if (entry == null) {
+            entry = new CartEntry(persistence.getLines(userId));
+            carts.put(userId, entry);
+        }
+        return entry;
+    }
+    
+    private ReentrantLock lockFor(Long userId) {
+        return stripes[Math.floorMod(userId.hashCode(), stripes.length)];
+    }
+    
+    private static final class CartEntry {
+        // Toujours une map non modifiable, remplacée en bloc à chaque modification
+        private volatile Map<Long, Integer> lines;
+        private volatile long lastAccess = System.nanoTime();
+        
+        private CartEntry(Map<Long, Integer> lines) {
+            this.lines = lines;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.shopie.backend.cart;
+
+import com.shopie.backend.model.CartItem;
+import com.shopie.backend.model.Product;
+import com.shopie.backend.model.User;
+import com.shopie.backend.repository.CartItemRepository;
+import com.shopie.backend.repository.ProductRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Paniers lus et écrits directement dans cart_items (cart.store=jpa), et couche de persistance
+ * de InMemoryCartStore (chargement d'un panier, écriture différée par lots).
+ */
+@Component
+public class JpaCartStore implements CartStore {
+    
+    @Autowired
+    private CartItemRepository cartItemRepository;
+    
+    @Autowired
+    private ProductRepository productRepository;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Override
+    @Transactional(readOnly = true)
+    public Map<Long, Integer> getLines(Long userId) {
+        Map<Long, Integer> lines = new LinkedHashMap<>();
+        for (CartLine line : cartItemRepository.findLinesByUserId(userId)) {
+            lines.put(line.productId(), line.quantite());
+        }
+        return Collections.unmodifiableMap(lines);
+    }
+    
+    // REQUIRES_NEW : la modification est validée même appelée après le commit d'une autre transaction
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public <T> T mutate(Long userId, Function<Map<Long, Integer>, T> mutation) {
+        List<CartItem> items = cartItemRepository.findByUserId(userId);
+        Map<Long, Integer> lines = new LinkedHashMap<>();
+        for (CartItem item : items) {
+            lines.put(item.getProduct().getId(), item.getQuantite());
+        }
+        
+        T result = mutation.apply(lines);
+        
+        for (CartItem item : items) {
+            Integer quantite = lines.remove(item.getProduct().getId());
+            if (quantite == null || quantite <= 0) {
+                cartItemRepository.delete(item);
+            } else if (!quantite.equals(item.getQuantite())) {
+                item.setQuantite(quantite);
+            }
+        }
+        List<CartItem> added = new ArrayList<>();
+        lines.forEach((productId, quantite) -> {
+            if (quantite > 0) {
+                added.add(newItem(userId, productId, quantite));
+            }
+        });
+        cartItemRepository.saveAll(added);
+        return result;
+    }
+    
+    /**
+     * Remplace en une transaction le contenu de plusieurs paniers : un DELETE groupé puis des
+     * INSERT batchés. Les lignes dont le produit a été supprimé entre-temps sont ignorées.
+     */
+    @Transactional
+    public void replaceLines(Map<Long, Map<Long, Integer>> carts) {
+        if (carts.isEmpty()) {
+            return;
+        }
+        Set<Long> productIds = new HashSet<>();
+        carts.values().forEach(lines -> productIds.addAll(lines.keySet()));
+        Set<Long> existing = productIds.isEmpty()
+                ? Set.of()
+                : new HashSet<>(productRepository.findExistingIds(productIds));
+        
+        cartItemRepository.deleteByUserIdIn(carts.keySet());
+        
+        List<CartItem> items = new ArrayList<>();
+        carts.forEach((userId, lines) -> lines.forEach((productId, quantite) -> {
+            if (quantite > 0 && existing.contains(productId)) {
+                items.add(newItem(userId, productId, quantite));
+            }
+        }));
+        cartItemRepository.saveAll(items);
+    }
+    
+    private CartItem newItem(Long userId, Long productId, Integer quantite) {
+        CartItem item = new CartItem();
+        item.setUser(entityManager.getReference(User.class, userId));
+        item.setProduct(entityManager.getReference(Product.class, productId));
+        item.setQuantite(quantite);
+        return item;
+    }
+}
@@ -0,0 +1,25 @@
+package com.shopie.backend.config;
+
+import com.shopie.backend.service.AnalyticsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reprise des agrégats analytiques au démarrage :
+ * {@code java -jar shopie-backend.jar --analytics.rebuild-on-startup=true}
+ */
+@Component
+@ConditionalOnProperty(name = "analytics.rebuild-on-startup", havingValue = "true")
+public class AnalyticsRebuildRunner implements ApplicationRunner {
+    
+    @Autowired
+    private AnalyticsService analyticsService;
+    
+    @Override
+    public void run(ApplicationArguments args) {
+        analyticsService.rebuild();
+    }
+}
@@ -1,11 +1,16 @@
 package com.shopie.backend.config;
 
+import com.shopie.backend.controller.SparseFieldset;
+import com.shopie.backend.controller.SparseFieldsetAdvice;
 import io.swagger.v3.oas.models.Components;
 import io.swagger.v3.oas.models.OpenAPI;
 import io.swagger.v3.oas.models.info.Info;
 import io.swagger.v3.oas.models.info.License;
+import io.swagger.v3.oas.models.media.StringSchema;
+import io.swagger.v3.oas.models.parameters.QueryParameter;
 import io.swagger.v3.oas.models.security.SecurityRequirement;
 import io.swagger.v3.oas.models.security.SecurityScheme;
+import org.springdoc.core.customizers.OperationCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -28,4 +33,19 @@ public class OpenApiConfig {
                                         .scheme("bearer")
                                         .bearerFormat("JWT")));
     }
+    
+    // Paramètre fields des listes annotées @SparseFieldset, appliqué hors signature des méthodes
+    @Bean
+    public OperationCustomizer sparseFieldsetParameter() {
+        return (operation, handlerMethod) -> {
+            if (handlerMethod.hasMethodAnnotation(SparseFieldset.class)) {
+                operation.addParametersItem(new QueryParameter()
+                        .name(SparseFieldsetAdvice.PARAMETER)
+                        .required(false)
+                        .description("Champs à renvoyer pour chaque élément, séparés par des virgules (ex. id,nom,prix)")
+                        .schema(new StringSchema()));
+            }
+            return operation;
+        };
+    }
 }
\ No newline at end of file
@@ -0,0 +1,72 @@
+package com.shopie.backend.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Borne le nombre de requêtes traitées simultanément. Avec les threads virtuels, Tomcat
+ * n'impose plus de limite : sans ce filtre, un pic de trafic s'accumule dans la file
+ * d'attente du pool JDBC au lieu d'être refusé rapidement (503 + Retry-After).
+ */
+public class RequestBulkheadFilter extends OncePerRequestFilter {
+    
+    private final Semaphore permits;
+    private final long maxWaitMs;
+    
+    public RequestBulkheadFilter(int maxConcurrentRequests, long maxWaitMs) {
+        this.permits = new Semaphore(maxConcurrentRequests);
+        this.maxWaitMs = maxWaitMs;
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(maxWaitMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            reject(request, response);
+            return;
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            permits.release();
+        }
+    }
+    
+    public int availablePermits() {
+        return permits.availablePermits();
+    }
+    
+    private void reject(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        
+        final Map<String, Object> body = new HashMap<>();
+        body.put("status", HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        body.put("error", "Service Unavailable");
+        body.put("message", "Serveur saturé, veuillez réessayer");
+        body.put("path", request.getServletPath());
+        
+        final ObjectMapper mapper = new ObjectMapper();
+        mapper.writeValue(response.getOutputStream(), body);
+    }
+}
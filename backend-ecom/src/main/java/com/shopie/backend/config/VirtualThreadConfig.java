@@ -0,0 +1,79 @@
+package com.shopie.backend.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+
+/**
+ * Mode d'exécution sur threads virtuels (spring.threads.virtual.enabled=true) : Tomcat traite
+ * chaque requête, et donc les appels @Transactional qu'elle fait, sur un thread virtuel.
+ * Le nombre de requêtes simultanées est alors borné ici plutôt que par le pool de threads.
+ */
+@Configuration
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadConfig {
+    
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadConfig.class);
+    
+    // JEP 491 (JDK 24) : un thread virtuel bloqué dans un bloc synchronized ne monopolise plus son porteur
+    private static final int JDK_WITHOUT_SYNCHRONIZED_PINNING = 24;
+    // Connector/J 9 a remplacé ses blocs synchronized par des verrous java.util.concurrent
+    private static final int MYSQL_DRIVER_WITHOUT_SYNCHRONIZED = 9;
+    
+    @Bean
+    public FilterRegistrationBean<RequestBulkheadFilter> requestBulkheadFilter(
+            @Value("${app.bulkhead.max-concurrent-requests:400}") int maxConcurrentRequests,
+            @Value("${app.bulkhead.max-wait-ms:500}") long maxWaitMs) {
+        FilterRegistrationBean<RequestBulkheadFilter> registration =
+                new FilterRegistrationBean<>(new RequestBulkheadFilter(maxConcurrentRequests, maxWaitMs));
+        // Avant la sécurité : une requête refusée ne coûte ni décodage JWT ni requête SQL
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+    
+    /**
+     * Refuse de démarrer si le pilote JDBC bloque les threads virtuels sur leur thread porteur
+     * (blocs synchronized autour des I/O) : sous charge, quelques requêtes SQL lentes suffiraient
+     * à geler tous les porteurs. app.virtual-threads.allow-pinning=true rétrograde en avertissement.
+     */
+    @Bean
+    public SmartInitializingSingleton jdbcPinningGuard(DataSource dataSource,
+                                                       @Value("${app.virtual-threads.allow-pinning:false}") boolean allowPinning) {
+        return () -> {
+            if (Runtime.version().feature() >= JDK_WITHOUT_SYNCHRONIZED_PINNING) {
+                return;
+            }
+            String driver;
+            int majorVersion;
+            try (Connection connection = dataSource.getConnection()) {
+                DatabaseMetaData metaData = connection.getMetaData();
+                driver = metaData.getDriverName() + " " + metaData.getDriverVersion();
+                majorVersion = metaData.getDriverMajorVersion();
+                if (!metaData.getDriverName().startsWith("MySQL") || majorVersion >= MYSQL_DRIVER_WITHOUT_SYNCHRONIZED) {
+                    return;
+                }
+            } catch (SQLException e) {
+                log.warn("Impossible de vérifier la compatibilité du pilote JDBC avec les threads virtuels: {}", e.getMessage());
+                return;
+            }
+            String message = "Le pilote " + driver + " épingle les threads virtuels sur JDK " + Runtime.version().feature()
+                    + " : utiliser Connector/J " + MYSQL_DRIVER_WITHOUT_SYNCHRONIZED + "+ ou JDK "
+                    + JDK_WITHOUT_SYNCHRONIZED_PINNING + "+";
+            if (!allowPinning) {
+                throw new IllegalStateException(message + " (ou app.virtual-threads.allow-pinning=true)");
+            }
+            log.warn(message);
+        };
+    }
+}
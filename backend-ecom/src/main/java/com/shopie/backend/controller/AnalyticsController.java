@@ -0,0 +1,62 @@
+package com.shopie.backend.controller;
+
+import com.shopie.backend.dto.ProductSalesView;
+import com.shopie.backend.model.DailyRevenue;
+import com.shopie.backend.model.OrderStatusCount;
+import com.shopie.backend.model.PaymentMethodStats;
+import com.shopie.backend.service.AnalyticsService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@RequestMapping("/analytics/admin")
+@PreAuthorize("hasRole('ADMIN')")
+@SecurityRequirement(name = "bearerAuth")
+@Tag(name = "Analytics", description = "API des indicateurs de vente (Admin uniquement)")
+public class AnalyticsController {
+    
+    @Autowired
+    private AnalyticsService analyticsService;
+    
+    @GetMapping("/revenue")
+    @Operation(summary = "Chiffre d'affaires par jour", description = "Nombre de commandes et chiffre d'affaires par jour sur [from, to) (30 derniers jours par défaut, 366 jours au plus)")
+    public ResponseEntity<List<DailyRevenue>> getDailyRevenue(@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                              @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(analyticsService.getDailyRevenue(from, to));
+    }
+    
+    @GetMapping("/products/top")
+    @Operation(summary = "Meilleures ventes", description = "Produits les plus vendus en unités, avec le chiffre d'affaires associé")
+    public ResponseEntity<List<ProductSalesView>> getTopProducts(@RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(analyticsService.getTopProducts(limit));
+    }
+    
+    @GetMapping("/orders/status")
+    @Operation(summary = "Commandes par statut", description = "Nombre de commandes dans chaque statut")
+    public ResponseEntity<List<OrderStatusCount>> getOrderStatusCounts() {
+        return ResponseEntity.ok(analyticsService.getOrderStatusCounts());
+    }
+    
+    @GetMapping("/payments/methods")
+    @Operation(summary = "Paiements par méthode", description = "Nombre de paiements par méthode et par statut, montants total et encaissé")
+    public ResponseEntity<List<PaymentMethodStats>> getPaymentMethodStats() {
+        return ResponseEntity.ok(analyticsService.getPaymentMethodStats());
+    }
+    
+    @PostMapping("/rebuild")
+    @Operation(summary = "Recalculer les indicateurs", description = "Recalcule tous les agrégats depuis l'historique des commandes et paiements (reprise, correction d'écart)")
+    public ResponseEntity<?> rebuild() {
+        analyticsService.rebuild();
+        return ResponseEntity.ok().build();
+    }
+}
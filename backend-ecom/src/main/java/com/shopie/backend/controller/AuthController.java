@@ -3,12 +3,15 @@ package com.shopie.backend.controller;
 import com.shopie.backend.dto.AuthRequest;
 import com.shopie.backend.dto.AuthResponse;
 import com.shopie.backend.dto.RegisterRequest;
+import com.shopie.backend.security.PasswordHashingExecutor;
 import com.shopie.backend.service.AuthService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 @CrossOrigin(origins = "*", maxAge = 3600)
@@ -20,6 +23,9 @@ public class AuthController {
     @Autowired
     AuthService authService;
     
+    @Autowired
+    PasswordHashingExecutor hashingExecutor;
+    
     @PostMapping("/login")
     @Operation(summary = "Connexion utilisateur", description = "Authentifie un utilisateur et retourne un token JWT")
     public ResponseEntity<AuthResponse> authenticateUser(@Valid @RequestBody AuthRequest loginRequest) {
@@ -33,4 +39,12 @@ public class AuthController {
         AuthResponse response = authService.registerUser(signUpRequest);
         return ResponseEntity.ok(response);
     }
+    
+    @GetMapping("/admin/hashing/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    @SecurityRequirement(name = "bearerAuth")
+    @Operation(summary = "Statistiques du pool de hachage", description = "Threads, tâches actives, profondeur de file et refus du pool BCrypt (Admin uniquement)")
+    public ResponseEntity<PasswordHashingExecutor.HashingStats> getHashingStats() {
+        return ResponseEntity.ok(hashingExecutor.stats());
+    }
 }
\ No newline at end of file
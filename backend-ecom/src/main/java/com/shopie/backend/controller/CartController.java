@@ -1,7 +1,10 @@
 package com.shopie.backend.controller;
 
+import com.shopie.backend.dto.CartBatchRequest;
+import com.shopie.backend.dto.CartBatchResponse;
 import com.shopie.backend.dto.CartItemRequest;
-import com.shopie.backend.model.CartItem;
+import com.shopie.backend.dto.CartLineView;
+import com.shopie.backend.dto.CartView;
 import com.shopie.backend.model.User;
 import com.shopie.backend.service.CartService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -13,8 +16,6 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
-
 @CrossOrigin(origins = "*", maxAge = 3600)
 @RestController
 @RequestMapping("/cart")
@@ -27,35 +28,43 @@ public class CartController {
     
     @GetMapping
     @Operation(summary = "Voir le panier", description = "Récupère les articles du panier de l'utilisateur connecté")
-    public ResponseEntity<List<CartItem>> getCartItems(Authentication authentication) {
+    public ResponseEntity<CartView> getCartItems(Authentication authentication) {
         User user = (User) authentication.getPrincipal();
-        List<CartItem> cartItems = cartService.getCartItems(user);
-        return ResponseEntity.ok(cartItems);
+        CartView cart = cartService.getCartView(user);
+        return ResponseEntity.ok(cart);
     }
     
     @PostMapping
     @Operation(summary = "Ajouter au panier", description = "Ajoute un produit au panier")
-    public ResponseEntity<CartItem> addToCart(Authentication authentication, @Valid @RequestBody CartItemRequest request) {
+    public ResponseEntity<CartLineView> addToCart(Authentication authentication, @Valid @RequestBody CartItemRequest request) {
+        User user = (User) authentication.getPrincipal();
+        CartLineView line = cartService.addToCart(user, request);
+        return ResponseEntity.ok(line);
+    }
+    
+    @PostMapping("/batch")
+    @Operation(summary = "Modifier le panier par lot", description = "Applique une liste d'ajouts, modifications et suppressions en une seule requête ; renvoie un résultat par opération et le panier final")
+    public ResponseEntity<CartBatchResponse> applyBatch(Authentication authentication, @Valid @RequestBody CartBatchRequest request) {
         User user = (User) authentication.getPrincipal();
-        CartItem cartItem = cartService.addToCart(user, request);
-        return ResponseEntity.ok(cartItem);
+        CartBatchResponse response = cartService.applyBatch(user, request);
+        return ResponseEntity.ok(response);
     }
     
-    @PutMapping("/{cartItemId}")
-    @Operation(summary = "Modifier la quantité", description = "Modifie la quantité d'un article dans le panier")
-    public ResponseEntity<CartItem> updateCartItem(Authentication authentication, 
-                                                   @PathVariable Long cartItemId, 
-                                                   @RequestParam Integer quantite) {
+    @PutMapping("/{productId}")
+    @Operation(summary = "Modifier la quantité", description = "Modifie la quantité d'un article dans le panier (identifiant de ligne = identifiant du produit)")
+    public ResponseEntity<CartLineView> updateCartItem(Authentication authentication, 
+                                                       @PathVariable Long productId, 
+                                                       @RequestParam Integer quantite) {
         User user = (User) authentication.getPrincipal();
-        CartItem cartItem = cartService.updateCartItem(user, cartItemId, quantite);
-        return ResponseEntity.ok(cartItem);
+        CartLineView line = cartService.updateCartItem(user, productId, quantite);
+        return ResponseEntity.ok(line);
     }
     
-    @DeleteMapping("/{cartItemId}")
-    @Operation(summary = "Supprimer du panier", description = "Supprime un article du panier")
-    public ResponseEntity<?> removeFromCart(Authentication authentication, @PathVariable Long cartItemId) {
+    @DeleteMapping("/{productId}")
+    @Operation(summary = "Supprimer du panier", description = "Supprime un article du panier (identifiant de ligne = identifiant du produit)")
+    public ResponseEntity<?> removeFromCart(Authentication authentication, @PathVariable Long productId) {
         User user = (User) authentication.getPrincipal();
-        cartService.removeFromCart(user, cartItemId);
+        cartService.removeFromCart(user, productId);
         return ResponseEntity.ok().build();
     }
     
@@ -1,18 +1,32 @@
 package com.shopie.backend.controller;
 
+import com.shopie.backend.dto.CursorPage;
+import com.shopie.backend.dto.ExportFormat;
+import com.shopie.backend.dto.OrderDetail;
+import com.shopie.backend.dto.OrderSummary;
+import com.shopie.backend.dto.PageResponse;
+import com.shopie.backend.dto.ReservationView;
 import com.shopie.backend.model.Order;
 import com.shopie.backend.model.User;
+import com.shopie.backend.service.CheckoutBatcher;
+import com.shopie.backend.service.ExportService;
+import com.shopie.backend.service.InventoryReservationService;
 import com.shopie.backend.service.OrderService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 
 @CrossOrigin(origins = "*", maxAge = 3600)
 @RestController
@@ -24,50 +38,103 @@ public class OrderController {
     @Autowired
     private OrderService orderService;
     
+    @Autowired
+    private ExportService exportService;
+    
+    @Autowired
+    private InventoryReservationService reservationService;
+    
+    @Autowired
+    private CheckoutBatcher checkoutBatcher;
+    
     @GetMapping
-    @Operation(summary = "Mes commandes", description = "Récupère les commandes de l'utilisateur connecté")
-    public ResponseEntity<List<Order>> getUserOrders(Authentication authentication) {
+    @SparseFieldset
+    @Operation(summary = "Mes commandes", description = "Récupère les commandes de l'utilisateur connecté, des plus récentes aux plus anciennes, par pages de curseur")
+    public ResponseEntity<CursorPage<OrderSummary>> getUserOrders(Authentication authentication,
+                                                                  @RequestParam(required = false) String cursor,
+                                                                  @RequestParam(required = false) Integer limit) {
         User user = (User) authentication.getPrincipal();
-        List<Order> orders = orderService.getUserOrders(user);
+        CursorPage<OrderSummary> orders = orderService.getUserOrders(user, cursor, limit);
         return ResponseEntity.ok(orders);
     }
     
     @GetMapping("/{id}")
     @Operation(summary = "Détails d'une commande", description = "Récupère les détails d'une commande")
-    public ResponseEntity<Order> getOrderById(@PathVariable Long id) {
-        Order order = orderService.getOrderById(id);
+    public ResponseEntity<OrderDetail> getOrderById(@PathVariable Long id) {
+        OrderDetail order = orderService.getOrderDetail(id);
         return ResponseEntity.ok(order);
     }
     
     @PostMapping
     @Operation(summary = "Créer une commande", description = "Crée une commande à partir du panier")
-    public ResponseEntity<Order> createOrder(Authentication authentication) {
+    public ResponseEntity<OrderDetail> createOrder(Authentication authentication) {
         User user = (User) authentication.getPrincipal();
-        Order order = orderService.createOrderFromCart(user);
-        return ResponseEntity.ok(order);
+        Order order = checkoutBatcher.checkout(user);
+        return ResponseEntity.ok(OrderDetail.from(order));
+    }
+    
+    @PostMapping("/checkout")
+    @Operation(summary = "Commencer le paiement", description = "Réserve le stock du panier pour une durée limitée ; la commande créée ensuite consomme la réservation")
+    public ResponseEntity<ReservationView> startCheckout(Authentication authentication) {
+        User user = (User) authentication.getPrincipal();
+        ReservationView reservation = reservationService.reserveCart(user);
+        return ResponseEntity.ok(reservation);
+    }
+    
+    @DeleteMapping("/checkout")
+    @Operation(summary = "Abandonner le paiement", description = "Libère le stock réservé pour le panier")
+    public ResponseEntity<?> cancelCheckout(Authentication authentication) {
+        User user = (User) authentication.getPrincipal();
+        reservationService.releaseReservation(user);
+        return ResponseEntity.ok().build();
     }
     
     @GetMapping("/admin/all")
+    @SparseFieldset
     @PreAuthorize("hasRole('ADMIN')")
-    @Operation(summary = "Toutes les commandes", description = "Récupère toutes les commandes (Admin uniquement)")
-    public ResponseEntity<List<Order>> getAllOrders() {
-        List<Order> orders = orderService.getAllOrders();
+    @Operation(summary = "Toutes les commandes", description = "Récupère les commandes par page, des plus récentes aux plus anciennes, filtrées par date [from, to) (Admin uniquement)")
+    public ResponseEntity<PageResponse<OrderSummary>> getAllOrders(@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                                   @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                                                   @RequestParam(required = false) Integer page,
+                                                                   @RequestParam(required = false) Integer size) {
+        PageResponse<OrderSummary> orders = orderService.getAllOrders(from, to, page, size);
         return ResponseEntity.ok(orders);
     }
     
+    @GetMapping("/admin/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Exporter les commandes", description = "Exporte les commandes en flux NDJSON ou CSV, filtrées par date [from, to) et reprenant après la ligne (afterDate, afterId), sans les lignes de la dernière minute (Admin uniquement)")
+    public void exportOrders(@RequestParam(defaultValue = "NDJSON") ExportFormat format,
+                             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime afterDate,
+                             @RequestParam(required = false) Long afterId,
+                             HttpServletResponse response) throws IOException {
+        response.setContentType(format.getContentType());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"orders." + format.getExtension() + "\"");
+        exportService.exportOrders(from, to, afterDate, afterId, format, response.getWriter());
+    }
+    
     @PutMapping("/admin/{id}/status")
     @PreAuthorize("hasRole('ADMIN')")
     @Operation(summary = "Modifier le statut", description = "Modifie le statut d'une commande (Admin uniquement)")
-    public ResponseEntity<Order> updateOrderStatus(@PathVariable Long id, @RequestParam Order.Statut statut) {
-        Order order = orderService.updateOrderStatus(id, statut);
+    public ResponseEntity<OrderDetail> updateOrderStatus(@PathVariable Long id, @RequestParam Order.Statut statut) {
+        orderService.updateOrderStatus(id, statut);
+        OrderDetail order = orderService.getOrderDetail(id);
         return ResponseEntity.ok(order);
     }
     
     @GetMapping("/admin/status/{statut}")
+    @SparseFieldset
     @PreAuthorize("hasRole('ADMIN')")
-    @Operation(summary = "Commandes par statut", description = "Récupère les commandes par statut (Admin uniquement)")
-    public ResponseEntity<List<Order>> getOrdersByStatus(@PathVariable Order.Statut statut) {
-        List<Order> orders = orderService.getOrdersByStatus(statut);
+    @Operation(summary = "Commandes par statut", description = "Récupère les commandes d'un statut par page, filtrées par date [from, to) (Admin uniquement)")
+    public ResponseEntity<PageResponse<OrderSummary>> getOrdersByStatus(@PathVariable Order.Statut statut,
+                                                                        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                                        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                                                        @RequestParam(required = false) Integer page,
+                                                                        @RequestParam(required = false) Integer size) {
+        PageResponse<OrderSummary> orders = orderService.getOrdersByStatus(statut, from, to, page, size);
         return ResponseEntity.ok(orders);
     }
 }
\ No newline at end of file
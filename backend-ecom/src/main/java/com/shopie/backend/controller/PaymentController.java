@@ -1,18 +1,27 @@
 package com.shopie.backend.controller;
 
+import com.shopie.backend.dto.ExportFormat;
+import com.shopie.backend.dto.PageResponse;
 import com.shopie.backend.dto.PaymentRequest;
+import com.shopie.backend.dto.PaymentSummary;
 import com.shopie.backend.model.Payment;
+import com.shopie.backend.service.ExportService;
 import com.shopie.backend.service.PaymentService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 
 @CrossOrigin(origins = "*", maxAge = 3600)
 @RestController
@@ -24,49 +33,79 @@ public class PaymentController {
     @Autowired
     private PaymentService paymentService;
     
+    @Autowired
+    private ExportService exportService;
+    
     @PostMapping
     @Operation(summary = "Créer un paiement", description = "Crée un nouveau paiement pour une commande")
-    public ResponseEntity<Payment> createPayment(@Valid @RequestBody PaymentRequest request) {
+    public ResponseEntity<PaymentSummary> createPayment(@Valid @RequestBody PaymentRequest request) {
         Payment payment = paymentService.createPayment(request);
-        return ResponseEntity.ok(payment);
+        return ResponseEntity.ok(PaymentSummary.from(payment));
     }
     
     @PostMapping("/{id}/process")
-    @Operation(summary = "Traiter un paiement", description = "Traite un paiement en attente")
-    public ResponseEntity<Payment> processPayment(@PathVariable Long id) {
-        Payment payment = paymentService.processPayment(id);
+    @Operation(summary = "Traiter un paiement", description = "Accepte un paiement en attente pour traitement asynchrone (202) ; idempotent, retourne 200 si le paiement est déjà finalisé")
+    public ResponseEntity<PaymentSummary> processPayment(@PathVariable Long id) {
+        PaymentSummary payment = paymentService.processPayment(id);
+        if (payment.getStatut() == Payment.Statut.PENDING) {
+            return ResponseEntity.accepted().body(payment);
+        }
         return ResponseEntity.ok(payment);
     }
     
     @GetMapping("/admin/all")
+    @SparseFieldset
     @PreAuthorize("hasRole('ADMIN')")
-    @Operation(summary = "Tous les paiements", description = "Récupère tous les paiements (Admin uniquement)")
-    public ResponseEntity<List<Payment>> getAllPayments() {
-        List<Payment> payments = paymentService.getAllPayments();
+    @Operation(summary = "Tous les paiements", description = "Récupère les paiements par page, des plus récents aux plus anciens, filtrés par date [from, to) (Admin uniquement)")
+    public ResponseEntity<PageResponse<PaymentSummary>> getAllPayments(@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                                       @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                                                       @RequestParam(required = false) Integer page,
+                                                                       @RequestParam(required = false) Integer size) {
+        PageResponse<PaymentSummary> payments = paymentService.getAllPayments(from, to, page, size);
         return ResponseEntity.ok(payments);
     }
     
+    @GetMapping("/admin/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Exporter les paiements", description = "Exporte les paiements en flux NDJSON ou CSV, filtrés par date [from, to) et reprenant après la ligne (afterDate, afterId), sans les lignes de la dernière minute (Admin uniquement)")
+    public void exportPayments(@RequestParam(defaultValue = "NDJSON") ExportFormat format,
+                               @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                               @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                               @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime afterDate,
+                               @RequestParam(required = false) Long afterId,
+                               HttpServletResponse response) throws IOException {
+        response.setContentType(format.getContentType());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"payments." + format.getExtension() + "\"");
+        exportService.exportPayments(from, to, afterDate, afterId, format, response.getWriter());
+    }
+    
     @GetMapping("/admin/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     @Operation(summary = "Détails d'un paiement", description = "Récupère les détails d'un paiement (Admin uniquement)")
-    public ResponseEntity<Payment> getPaymentById(@PathVariable Long id) {
+    public ResponseEntity<PaymentSummary> getPaymentById(@PathVariable Long id) {
         Payment payment = paymentService.getPaymentById(id);
-        return ResponseEntity.ok(payment);
+        return ResponseEntity.ok(PaymentSummary.from(payment));
     }
     
     @PutMapping("/admin/{id}/status")
     @PreAuthorize("hasRole('ADMIN')")
     @Operation(summary = "Modifier le statut", description = "Modifie le statut d'un paiement (Admin uniquement)")
-    public ResponseEntity<Payment> updatePaymentStatus(@PathVariable Long id, @RequestParam Payment.Statut statut) {
+    public ResponseEntity<PaymentSummary> updatePaymentStatus(@PathVariable Long id, @RequestParam Payment.Statut statut) {
         Payment payment = paymentService.updatePaymentStatus(id, statut);
-        return ResponseEntity.ok(payment);
+        return ResponseEntity.ok(PaymentSummary.from(payment));
     }
     
     @GetMapping("/admin/status/{statut}")
+    @SparseFieldset
     @PreAuthorize("hasRole('ADMIN')")
-    @Operation(summary = "Paiements par statut", description = "Récupère les paiements par statut (Admin uniquement)")
-    public ResponseEntity<List<Payment>> getPaymentsByStatus(@PathVariable Payment.Statut statut) {
-        List<Payment> payments = paymentService.getPaymentsByStatus(statut);
+    @Operation(summary = "Paiements par statut", description = "Récupère les paiements d'un statut par page, filtrés par date [from, to) (Admin uniquement)")
+    public ResponseEntity<PageResponse<PaymentSummary>> getPaymentsByStatus(@PathVariable Payment.Statut statut,
+                                                                            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                                            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                                                            @RequestParam(required = false) Integer page,
+                                                                            @RequestParam(required = false) Integer size) {
+        PageResponse<PaymentSummary> payments = paymentService.getPaymentsByStatus(statut, from, to, page, size);
         return ResponseEntity.ok(payments);
     }
 }
\ No newline at end of file
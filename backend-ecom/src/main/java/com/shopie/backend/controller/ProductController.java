@@ -1,16 +1,31 @@
 package com.shopie.backend.controller;
 
+import com.shopie.backend.cache.BoundedTtlCache;
+import com.shopie.backend.dto.CursorPage;
+import com.shopie.backend.dto.ExportFormat;
+import com.shopie.backend.dto.ImportReport;
+import com.shopie.backend.dto.PageResponse;
+import com.shopie.backend.dto.ProductSort;
+import com.shopie.backend.dto.ProductSummary;
+import com.shopie.backend.dto.ProductView;
 import com.shopie.backend.model.Product;
+import com.shopie.backend.service.ProductImportService;
 import com.shopie.backend.service.ProductService;
+import com.shopie.backend.service.ShardedStockService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.IOException;
+import java.time.ZoneId;
 import java.util.List;
 
 @CrossOrigin(origins = "*", maxAge = 3600)
@@ -22,31 +37,61 @@ public class ProductController {
     @Autowired
     private ProductService productService;
     
+    @Autowired
+    private ProductImportService productImportService;
+    
+    @Autowired
+    private ShardedStockService shardedStockService;
+    
     @GetMapping
-    @Operation(summary = "Lister tous les produits", description = "Récupère la liste de tous les produits")
-    public ResponseEntity<List<Product>> getAllProducts() {
-        List<Product> products = productService.getAllProducts();
-        return ResponseEntity.ok(products);
+    @SparseFieldset
+    @Operation(summary = "Lister tous les produits", description = "Récupère une page de produits (pagination par curseur), réduits aux champs listés dans fields si précisé. Répond 304 si le catalogue n'a pas changé (If-None-Match / If-Modified-Since)")
+    public ResponseEntity<CursorPage<ProductSummary>> getAllProducts(@RequestParam(required = false) String cursor,
+                                                                     @RequestParam(required = false) Integer limit,
+                                                                     @RequestParam(defaultValue = "ID_ASC") ProductSort sort,
+                                                                     WebRequest webRequest) {
+        if (webRequest.checkNotModified(productService.getCatalogEtag(), productService.getCatalogLastModified())) {
+            return null;
+        }
+        CursorPage<ProductSummary> page = productService.getProductsPage(cursor, limit, sort, false);
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(page);
     }
     
     @GetMapping("/available")
-    @Operation(summary = "Lister les produits disponibles", description = "Récupère la liste des produits en stock")
-    public ResponseEntity<List<Product>> getAvailableProducts() {
-        List<Product> products = productService.getAvailableProducts();
-        return ResponseEntity.ok(products);
+    @SparseFieldset
+    @Operation(summary = "Lister les produits disponibles", description = "Récupère une page de produits en stock (pagination par curseur). Répond 304 si le catalogue n'a pas changé")
+    public ResponseEntity<CursorPage<ProductSummary>> getAvailableProducts(@RequestParam(required = false) String cursor,
+                                                                           @RequestParam(required = false) Integer limit,
+                                                                           @RequestParam(defaultValue = "ID_ASC") ProductSort sort,
+                                                                           WebRequest webRequest) {
+        if (webRequest.checkNotModified(productService.getCatalogEtag(), productService.getCatalogLastModified())) {
+            return null;
+        }
+        CursorPage<ProductSummary> page = productService.getProductsPage(cursor, limit, sort, true);
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(page);
     }
     
     @GetMapping("/{id}")
-    @Operation(summary = "Récupérer un produit", description = "Récupère un produit par son ID")
-    public ResponseEntity<Product> getProductById(@PathVariable Long id) {
+    @Operation(summary = "Récupérer un produit", description = "Récupère un produit par son ID. Répond 304 si le produit n'a pas changé (If-None-Match / If-Modified-Since)")
+    public ResponseEntity<ProductView> getProductById(@PathVariable Long id, WebRequest webRequest) {
         Product product = productService.getProductById(id);
-        return ResponseEntity.ok(product);
+        String etag = "\"product-" + product.getId() + "-" + product.getVersion() + "\"";
+        long lastModified = product.getUpdatedAt() != null
+                ? product.getUpdatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()
+                : -1;
+        if (webRequest.checkNotModified(etag, lastModified)) {
+            return null;
+        }
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(ProductView.from(product));
     }
     
     @GetMapping("/search")
-    @Operation(summary = "Rechercher des produits", description = "Recherche des produits par nom")
-    public ResponseEntity<List<Product>> searchProducts(@RequestParam String nom) {
-        List<Product> products = productService.searchProducts(nom);
+    @SparseFieldset
+    @Operation(summary = "Rechercher des produits", description = "Recherche plein texte (nom et description), par préfixe et tolérante aux fautes, triée par pertinence")
+    public ResponseEntity<PageResponse<ProductSummary>> searchProducts(@RequestParam String nom,
+                                                                       @RequestParam(required = false) Integer page,
+                                                                       @RequestParam(required = false) Integer size) {
+        PageResponse<ProductSummary> products = productService.searchProducts(nom, page, size);
         return ResponseEntity.ok(products);
     }
     
@@ -54,18 +99,18 @@ public class ProductController {
     @PreAuthorize("hasRole('ADMIN')")
     @SecurityRequirement(name = "bearerAuth")
     @Operation(summary = "Créer un produit", description = "Crée un nouveau produit (Admin uniquement)")
-    public ResponseEntity<Product> createProduct(@Valid @RequestBody Product product) {
+    public ResponseEntity<ProductView> createProduct(@Valid @RequestBody Product product) {
         Product createdProduct = productService.createProduct(product);
-        return ResponseEntity.ok(createdProduct);
+        return ResponseEntity.ok(ProductView.from(createdProduct));
     }
     
     @PutMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     @SecurityRequirement(name = "bearerAuth")
     @Operation(summary = "Modifier un produit", description = "Modifie un produit existant (Admin uniquement)")
-    public ResponseEntity<Product> updateProduct(@PathVariable Long id, @Valid @RequestBody Product productDetails) {
+    public ResponseEntity<ProductView> updateProduct(@PathVariable Long id, @Valid @RequestBody Product productDetails) {
         Product updatedProduct = productService.updateProduct(id, productDetails);
-        return ResponseEntity.ok(updatedProduct);
+        return ResponseEntity.ok(ProductView.from(updatedProduct));
     }
     
     @DeleteMapping("/{id}")
@@ -76,4 +121,56 @@ public class ProductController {
         productService.deleteProduct(id);
         return ResponseEntity.ok().build();
     }
+    
+    @PostMapping("/admin/import")
+    @PreAuthorize("hasRole('ADMIN')")
+    @SecurityRequirement(name = "bearerAuth")
+    @Operation(summary = "Importer des produits", description = "Importe en masse un flux CSV (avec en-tête) ou NDJSON envoyé dans le corps de la requête ; crée ou met à jour les produits par référence (Admin uniquement)")
+    public ResponseEntity<ImportReport> importProducts(@RequestParam(defaultValue = "NDJSON") ExportFormat format,
+                                                       HttpServletRequest request) throws IOException {
+        ImportReport report = productImportService.importProducts(request.getInputStream(), format);
+        return ResponseEntity.ok(report);
+    }
+    
+    @GetMapping("/admin/imports")
+    @PreAuthorize("hasRole('ADMIN')")
+    @SecurityRequirement(name = "bearerAuth")
+    @Operation(summary = "Suivre les imports", description = "Avancement des imports en cours et des derniers imports terminés (Admin uniquement)")
+    public ResponseEntity<List<ImportReport>> getImports() {
+        return ResponseEntity.ok(productImportService.getImports());
+    }
+    
+    @GetMapping("/admin/imports/{id}")
+    @PreAuthorize("hasRole('ADMIN')")
+    @SecurityRequirement(name = "bearerAuth")
+    @Operation(summary = "Détail d'un import", description = "Compteurs, débit et erreurs par ligne d'un import (Admin uniquement)")
+    public ResponseEntity<ImportReport> getImport(@PathVariable String id) {
+        return ResponseEntity.ok(productImportService.getImport(id));
+    }
+    
+    @PutMapping("/admin/{id}/stock-shards")
+    @PreAuthorize("hasRole('ADMIN')")
+    @SecurityRequirement(name = "bearerAuth")
+    @Operation(summary = "Partitionner le stock", description = "Répartit le stock d'un produit très demandé sur plusieurs compteurs pour les ventes flash (Admin uniquement)")
+    public ResponseEntity<?> enableStockShards(@PathVariable Long id, @RequestParam(defaultValue = "8") int shards) {
+        shardedStockService.enable(id, shards);
+        return ResponseEntity.ok().build();
+    }
+    
+    @DeleteMapping("/admin/{id}/stock-shards")
+    @PreAuthorize("hasRole('ADMIN')")
+    @SecurityRequirement(name = "bearerAuth")
+    @Operation(summary = "Regrouper le stock", description = "Regroupe les compteurs de stock dans la fiche produit (Admin uniquement)")
+    public ResponseEntity<?> disableStockShards(@PathVariable Long id) {
+        shardedStockService.disable(id);
+        return ResponseEntity.ok().build();
+    }
+    
+    @GetMapping("/admin/cache/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    @SecurityRequirement(name = "bearerAuth")
+    @Operation(summary = "Statistiques du cache produits", description = "Succès, échecs, évictions et taille du cache produits (Admin uniquement)")
+    public ResponseEntity<BoundedTtlCache.CacheStats> getCacheStats() {
+        return ResponseEntity.ok(productService.getCacheStats());
+    }
 }
\ No newline at end of file
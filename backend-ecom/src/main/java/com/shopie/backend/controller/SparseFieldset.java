@@ -0,0 +1,17 @@
+package com.shopie.backend.controller;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Point d'entrée de liste acceptant le paramètre fields=champ1,champ2 : seuls ces champs
+ * de chaque élément sont renvoyés (voir SparseFieldsetAdvice).
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface SparseFieldset {
+}
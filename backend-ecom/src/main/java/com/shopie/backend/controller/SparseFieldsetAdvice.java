@@ -0,0 +1,118 @@
+package com.shopie.backend.controller;
+
+import com.shopie.backend.dto.CursorPage;
+import com.shopie.backend.dto.PageResponse;
+import com.shopie.backend.exception.BadRequestException;
+import org.springframework.beans.BeanUtils;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Applique le paramètre fields des points d'entrée annotés @SparseFieldset : les éléments de la
+ * liste (ou de la page) sont remplacés par des objets ne contenant que les champs demandés,
+ * dans l'ordre demandé. Un champ inconnu est refusé (400) avec la liste des champs possibles.
+ */
+@RestControllerAdvice
+public class SparseFieldsetAdvice implements ResponseBodyAdvice<Object> {
+    
+    public static final String PARAMETER = "fields";
+    
+    // Accesseurs des propriétés lisibles de chaque type d'élément, par nom
+    private final Map<Class<?>, Map<String, Method>> readers = new ConcurrentHashMap<>();
+    
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return returnType.hasMethodAnnotation(SparseFieldset.class);
+    }
+    
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (!(request instanceof ServletServerHttpRequest servletRequest)) {
+            return body;
+        }
+        return apply(body, servletRequest.getServletRequest().getParameter(PARAMETER));
+    }
+    
+    // Corps réduit aux champs listés (séparés par des virgules) ; inchangé si fields ne liste aucun champ
+    public Object apply(Object body, String fields) {
+        if (body == null || fields == null || fields.isBlank()) {
+            return body;
+        }
+        Set<String> selected = new LinkedHashSet<>();
+        Arrays.stream(fields.split(","))
+                .map(String::trim)
+                .filter(field -> !field.isEmpty())
+                .forEach(selected::add);
+        if (selected.isEmpty()) {
+            return body;
+        }
+        
+        if (body instanceof CursorPage<?> page) {
+            return new CursorPage<>(select(page.getItems(), selected), page.getNextCursor(), page.isHasMore());
+        }
+        if (body instanceof PageResponse<?> page) {
+            return new PageResponse<>(select(page.getItems(), selected), page.getPage(), page.getSize(), page.getTotal());
+        }
+        if (body instanceof List<?> items) {
+            return select(items, selected);
+        }
+        return body;
+    }
+    
+    private List<Map<String, Object>> select(List<?> items, Set<String> fields) {
+        if (items.isEmpty()) {
+            return List.of();
+        }
+        Map<String, Method> available = readers.computeIfAbsent(items.get(0).getClass(), SparseFieldsetAdvice::readersOf);
+        for (String field : fields) {
+            if (!available.containsKey(field)) {
+                throw new BadRequestException("Champ inconnu dans fields: " + field
+                        + " (champs possibles : " + String.join(", ", available.keySet()) + ")");
+            }
+        }
+        return items.stream().map(item -> {
+            Map<String, Object> values = new LinkedHashMap<>();
+            for (String field : fields) {
+                values.put(field, read(available.get(field), item));
+            }
+            return values;
+        }).toList();
+    }
+    
+    private static Map<String, Method> readersOf(Class<?> type) {
+        Map<String, Method> readers = new LinkedHashMap<>();
+        for (PropertyDescriptor property : BeanUtils.getPropertyDescriptors(type)) {
+            if (property.getReadMethod() != null && !"class".equals(property.getName())) {
+                readers.put(property.getName(), property.getReadMethod());
+            }
+        }
+        return readers;
+    }
+    
+    private static Object read(Method reader, Object item) {
+        try {
+            return reader.invoke(item);
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException("Lecture du champ " + reader.getName() + " impossible", e);
+        }
+    }
+}
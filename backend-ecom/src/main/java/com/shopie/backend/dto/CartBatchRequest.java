@@ -0,0 +1,48 @@
+package com.shopie.backend.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Lot d'opérations sur le panier, appliquées dans l'ordre en une seule fois.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CartBatchRequest {
+    
+    public static final int MAX_OPERATIONS = 200;
+    
+    @NotEmpty(message = "Le lot doit contenir au moins une opération")
+    @Size(max = MAX_OPERATIONS, message = "Le lot ne peut pas dépasser " + MAX_OPERATIONS + " opérations")
+    private List<@Valid Operation> operations;
+    
+    public enum Action {
+        ADD,     // ajoute la quantité à la ligne existante (ou crée la ligne)
+        UPDATE,  // remplace la quantité d'une ligne existante
+        REMOVE   // supprime la ligne
+    }
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Operation {
+        
+        @NotNull(message = "L'action est obligatoire")
+        private Action action;
+        
+        @NotNull(message = "L'ID du produit est obligatoire")
+        private Long productId;
+        
+        @Min(value = 1, message = "La quantité doit être au moins 1")
+        private Integer quantite;
+    }
+}
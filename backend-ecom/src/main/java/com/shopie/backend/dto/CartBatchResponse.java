@@ -0,0 +1,38 @@
+package com.shopie.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Résultat d'un lot : un résultat par opération, dans l'ordre de la requête, et le panier final.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CartBatchResponse {
+    private List<LineResult> results;
+    private CartView cart;
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class LineResult {
+        private int index;
+        private CartBatchRequest.Action action;
+        private Long productId;
+        private boolean success;
+        private Integer quantite;
+        private String message;
+        
+        public static LineResult ok(int index, CartBatchRequest.Operation operation, Integer quantite) {
+            return new LineResult(index, operation.getAction(), operation.getProductId(), true, quantite, null);
+        }
+        
+        public static LineResult failed(int index, CartBatchRequest.Operation operation, String message) {
+            return new LineResult(index, operation.getAction(), operation.getProductId(), false, null, message);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.shopie.backend.dto;
+
+import com.shopie.backend.model.Product;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Ligne du panier. Une ligne par produit : son identifiant est celui du produit.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CartLineView {
+    private Long id;
+    private ProductSummary product;
+    private Integer quantite;
+    private BigDecimal sousTotal;
+    
+    public static CartLineView of(Product product, int quantite) {
+        BigDecimal sousTotal = product.getPrix().multiply(BigDecimal.valueOf(quantite));
+        return new CartLineView(product.getId(), ProductSummary.from(product), quantite, sousTotal);
+    }
+}
@@ -0,0 +1,30 @@
+package com.shopie.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Panier de l'utilisateur : lignes du panier et produits associés.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CartView {
+    private List<CartLineView> items;
+    private Integer nombreArticles;
+    private BigDecimal total;
+    
+    public static CartView of(List<CartLineView> items) {
+        int nombreArticles = 0;
+        BigDecimal total = BigDecimal.ZERO;
+        for (CartLineView item : items) {
+            nombreArticles += item.getQuantite();
+            total = total.add(item.getSousTotal());
+        }
+        return new CartView(items, nombreArticles, total);
+    }
+}
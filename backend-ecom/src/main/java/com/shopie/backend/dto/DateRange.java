@@ -0,0 +1,23 @@
+package com.shopie.backend.dto;
+
+import com.shopie.backend.exception.BadRequestException;
+
+import java.time.LocalDateTime;
+
+/**
+ * Intervalle de dates [from, to) des filtres admin ; une borne absente est remplacée
+ * par une date extrême pour que les requêtes gardent une forme unique (et leur index).
+ */
+public record DateRange(LocalDateTime from, LocalDateTime to) {
+    
+    public static final LocalDateTime MIN_DATE = LocalDateTime.of(1970, 1, 1, 0, 0);
+    public static final LocalDateTime MAX_DATE = LocalDateTime.of(9999, 12, 31, 0, 0);
+    
+    public static DateRange of(LocalDateTime from, LocalDateTime to) {
+        DateRange range = new DateRange(from != null ? from : MIN_DATE, to != null ? to : MAX_DATE);
+        if (!range.from().isBefore(range.to())) {
+            throw new BadRequestException("La date de début doit précéder la date de fin");
+        }
+        return range;
+    }
+}
@@ -0,0 +1,36 @@
+package com.shopie.backend.dto;
+
+import com.shopie.backend.model.Order;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Détail d'une commande. L'entité source doit avoir été chargée avec son utilisateur,
+ * son paiement et ses lignes/produits (voir OrderRepository.findDetailById).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderDetail {
+    private Long id;
+    private Long userId;
+    private String userNom;
+    private String userEmail;
+    private LocalDateTime date;
+    private Order.Statut statut;
+    private BigDecimal total;
+    private List<OrderLineView> items;
+    private PaymentSummary payment;
+    
+    public static OrderDetail from(Order order) {
+        List<OrderLineView> items = order.getOrderItems().stream().map(OrderLineView::from).toList();
+        PaymentSummary payment = order.getPayment() != null ? PaymentSummary.from(order.getPayment()) : null;
+        return new OrderDetail(order.getId(), order.getUser().getId(), order.getUser().getNom(), order.getUser().getEmail(),
+                order.getDate(), order.getStatut(), order.getTotal(), items, payment);
+    }
+}
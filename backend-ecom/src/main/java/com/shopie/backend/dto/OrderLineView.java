@@ -0,0 +1,27 @@
+package com.shopie.backend.dto;
+
+import com.shopie.backend.model.OrderItem;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderLineView {
+    private Long id;
+    private Long productId;
+    private String productNom;
+    private String imageUrl;
+    private Integer quantite;
+    private BigDecimal prix;
+    private BigDecimal sousTotal;
+    
+    public static OrderLineView from(OrderItem orderItem) {
+        return new OrderLineView(orderItem.getId(), orderItem.getProduct().getId(), orderItem.getProduct().getNom(),
+                orderItem.getProduct().getImageUrl(), orderItem.getQuantite(), orderItem.getPrix(),
+                orderItem.getPrix().multiply(BigDecimal.valueOf(orderItem.getQuantite())));
+    }
+}
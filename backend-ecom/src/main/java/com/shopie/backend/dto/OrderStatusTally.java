@@ -0,0 +1,17 @@
+package com.shopie.backend.dto;
+
+import com.shopie.backend.model.Order;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Nombre de commandes d'un lot par statut, relevé avant un changement de statut en masse.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderStatusTally {
+    private Order.Statut statut;
+    private Long count;
+}
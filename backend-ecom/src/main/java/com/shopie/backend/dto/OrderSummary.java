@@ -0,0 +1,29 @@
+package com.shopie.backend.dto;
+
+import com.shopie.backend.model.Order;
+import com.shopie.backend.model.Payment;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Ligne d'historique de commandes, projetée depuis la table order_summaries (aucune entité chargée).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderSummary {
+    private Long id;
+    private Long userId;
+    private String userNom;
+    private LocalDateTime date;
+    private Order.Statut statut;
+    private BigDecimal total;
+    private Long itemCount;
+    private Payment.Statut paymentStatut;
+    private String firstProductNom;
+    private String firstProductImageUrl;
+}
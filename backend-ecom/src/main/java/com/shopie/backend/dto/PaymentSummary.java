@@ -0,0 +1,26 @@
+package com.shopie.backend.dto;
+
+import com.shopie.backend.model.Payment;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaymentSummary {
+    private Long id;
+    private Long orderId;
+    private BigDecimal montant;
+    private String methode;
+    private Payment.Statut statut;
+    private LocalDateTime date;
+    
+    public static PaymentSummary from(Payment payment) {
+        return new PaymentSummary(payment.getId(), payment.getOrder().getId(), payment.getMontant(),
+                payment.getMethode(), payment.getStatut(), payment.getDate());
+    }
+}
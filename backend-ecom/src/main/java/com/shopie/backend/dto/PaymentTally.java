@@ -0,0 +1,21 @@
+package com.shopie.backend.dto;
+
+import com.shopie.backend.model.Payment;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Paiements d'un lot par méthode et statut, relevés avant un changement de statut en masse.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaymentTally {
+    private String methode;
+    private Payment.Statut statut;
+    private Long count;
+    private BigDecimal montant;
+}
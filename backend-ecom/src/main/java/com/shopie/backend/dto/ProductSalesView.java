@@ -0,0 +1,17 @@
+package com.shopie.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSalesView {
+    private Long productId;
+    private String nom;
+    private Long units;
+    private BigDecimal revenue;
+}
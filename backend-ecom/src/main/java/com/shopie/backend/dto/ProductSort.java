@@ -0,0 +1,5 @@
+package com.shopie.backend.dto;
+
+public enum ProductSort {
+    ID_ASC, ID_DESC, PRIX_ASC, PRIX_DESC
+}
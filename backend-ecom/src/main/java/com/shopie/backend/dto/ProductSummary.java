@@ -0,0 +1,26 @@
+package com.shopie.backend.dto;
+
+import com.shopie.backend.model.Product;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Projection légère d'un produit pour les listes (sans la description TEXT).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSummary {
+    private Long id;
+    private String nom;
+    private BigDecimal prix;
+    private String imageUrl;
+    private Integer stock;
+    
+    public static ProductSummary from(Product product) {
+        return new ProductSummary(product.getId(), product.getNom(), product.getPrix(), product.getImageUrl(), product.getStock());
+    }
+}
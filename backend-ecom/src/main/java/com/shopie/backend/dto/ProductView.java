@@ -0,0 +1,33 @@
+package com.shopie.backend.dto;
+
+import com.shopie.backend.model.Product;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Fiche produit renvoyée par l'API : champs publics de l'entité, sans ses associations
+ * ni les compteurs internes (réservations, partitions du stock).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductView {
+    private Long id;
+    private String reference;
+    private String nom;
+    private String description;
+    private BigDecimal prix;
+    private String imageUrl;
+    private Integer stock;
+    private Long version;
+    private LocalDateTime updatedAt;
+    
+    public static ProductView from(Product product) {
+        return new ProductView(product.getId(), product.getReference(), product.getNom(), product.getDescription(),
+                product.getPrix(), product.getImageUrl(), product.getStock(), product.getVersion(), product.getUpdatedAt());
+    }
+}
@@ -0,0 +1,27 @@
+package com.shopie.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Stock réservé pour le paiement du panier, jusqu'à expiresAt.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservationView {
+    private LocalDateTime expiresAt;
+    private List<Line> items;
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Line {
+        private Long productId;
+        private Integer quantite;
+    }
+}
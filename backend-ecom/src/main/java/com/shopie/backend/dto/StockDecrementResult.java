@@ -0,0 +1,17 @@
+package com.shopie.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Résultat de la décrémentation atomique du stock pour une ligne de commande.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockDecrementResult {
+    private Long productId;
+    private Integer quantite;
+    private boolean success;
+}
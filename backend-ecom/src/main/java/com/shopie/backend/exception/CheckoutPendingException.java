@@ -0,0 +1,11 @@
+package com.shopie.backend.exception;
+
+/**
+ * Commande dont l'issue n'est pas encore connue : elle peut encore être validée.
+ * Le client doit consulter ses commandes plutôt que renvoyer la demande.
+ */
+public class CheckoutPendingException extends RuntimeException {
+    public CheckoutPendingException(String message) {
+        super(message);
+    }
+}
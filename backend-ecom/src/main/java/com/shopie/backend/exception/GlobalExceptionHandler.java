@@ -1,5 +1,9 @@
 package com.shopie.backend.exception;
 
+import com.shopie.backend.dto.StockDecrementResult;
+import jakarta.persistence.OptimisticLockException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.BadCredentialsException;
@@ -10,6 +14,7 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 
 import java.time.LocalDateTime;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @ControllerAdvice
@@ -35,6 +40,51 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
     }
     
+    @ExceptionHandler(InsufficientStockException.class)
+    public ResponseEntity<StockErrorResponse> handleInsufficientStockException(InsufficientStockException ex) {
+        StockErrorResponse error = new StockErrorResponse(
+            HttpStatus.BAD_REQUEST.value(),
+            ex.getMessage(),
+            LocalDateTime.now(),
+            ex.getFailures()
+        );
+        return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
+    }
+    
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<ErrorResponse> handleTooManyRequestsException(TooManyRequestsException ex) {
+        ErrorResponse error = new ErrorResponse(
+            HttpStatus.TOO_MANY_REQUESTS.value(),
+            ex.getMessage(),
+            LocalDateTime.now()
+        );
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(error);
+    }
+    
+    // Issue inconnue (délai d'attente du lot dépassé) : 202 sans Retry-After, le client consulte ses commandes
+    @ExceptionHandler(CheckoutPendingException.class)
+    public ResponseEntity<ErrorResponse> handleCheckoutPendingException(CheckoutPendingException ex) {
+        ErrorResponse error = new ErrorResponse(
+            HttpStatus.ACCEPTED.value(),
+            ex.getMessage(),
+            LocalDateTime.now()
+        );
+        return new ResponseEntity<>(error, HttpStatus.ACCEPTED);
+    }
+    
+    // Produit modifié entre sa lecture et l'écriture (réservation de checkout, autre admin, import)
+    @ExceptionHandler({OptimisticLockingFailureException.class, OptimisticLockException.class})
+    public ResponseEntity<ErrorResponse> handleOptimisticLockingFailure(Exception ex) {
+        ErrorResponse error = new ErrorResponse(
+            HttpStatus.CONFLICT.value(),
+            "La ressource a été modifiée entre-temps, veuillez recharger puis réessayer",
+            LocalDateTime.now()
+        );
+        return new ResponseEntity<>(error, HttpStatus.CONFLICT);
+    }
+    
     @ExceptionHandler(BadCredentialsException.class)
     public ResponseEntity<ErrorResponse> handleBadCredentialsException(BadCredentialsException ex) {
         ErrorResponse error = new ErrorResponse(
@@ -100,4 +150,15 @@ public class GlobalExceptionHandler {
         
         public Map<String, String> getErrors() { return errors; }
     }
+    
+    public static class StockErrorResponse extends ErrorResponse {
+        private List<StockDecrementResult> failures;
+        
+        public StockErrorResponse(int status, String message, LocalDateTime timestamp, List<StockDecrementResult> failures) {
+            super(status, message, timestamp);
+            this.failures = failures;
+        }
+        
+        public List<StockDecrementResult> getFailures() { return failures; }
+    }
 }
\ No newline at end of file
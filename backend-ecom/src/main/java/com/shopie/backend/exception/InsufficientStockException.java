@@ -0,0 +1,19 @@
+package com.shopie.backend.exception;
+
+import com.shopie.backend.dto.StockDecrementResult;
+
+import java.util.List;
+
+public class InsufficientStockException extends BadRequestException {
+    
+    private final List<StockDecrementResult> failures;
+    
+    public InsufficientStockException(String message, List<StockDecrementResult> failures) {
+        super(message);
+        this.failures = failures;
+    }
+    
+    public List<StockDecrementResult> getFailures() {
+        return failures;
+    }
+}
@@ -0,0 +1,116 @@
+package com.shopie.backend.importer;
+
+import com.shopie.backend.exception.BadRequestException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * CSV (RFC 4180) avec ligne d'en-tête : colonnes reconnues par leur nom, dans n'importe quel ordre,
+ * champs entre guillemets pouvant contenir virgules et retours à la ligne.
+ */
+class CsvProductRowReader implements ProductRowReader {
+    
+    private final BufferedReader reader;
+    private final Map<String, Integer> columns = new HashMap<>();
+    private long lineNumber = 1;
+    
+    CsvProductRowReader(BufferedReader reader) throws IOException {
+        this.reader = reader;
+        List<String> header = readRecord();
+        if (header == null) {
+            throw new BadRequestException("Fichier CSV vide");
+        }
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().toLowerCase(Locale.ROOT).replace("_", ""), i);
+        }
+        if (!columns.containsKey("nom") || !columns.containsKey("prix")) {
+            throw new BadRequestException("En-tête CSV invalide : les colonnes nom et prix sont obligatoires");
+        }
+    }
+    
+    @Override
+    public ImportRow next() throws IOException {
+        List<String> record;
+        long recordLine;
+        do {
+            recordLine = lineNumber;
+            record = readRecord();
+            if (record == null) {
+                return null;
+            }
+        } while (record.size() == 1 && record.get(0).isBlank());
+        
+        return new ImportRow(recordLine,
+                field(record, "reference"),
+                field(record, "nom"),
+                field(record, "description"),
+                field(record, "prix"),
+                field(record, "imageurl"),
+                field(record, "stock"),
+                null);
+    }
+    
+    private String field(List<String> record, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= record.size()) {
+            return null;
+        }
+        String value = record.get(index);
+        return value.isEmpty() ? null : value;
+    }
+    
+    // Un enregistrement peut couvrir plusieurs lignes physiques (retour à la ligne entre guillemets)
+    private List<String> readRecord() throws IOException {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean any = false;
+        int c;
+        while ((c = reader.read()) != -1) {
+            any = true;
+            char ch = (char) c;
+            if (quoted) {
+                if (ch == '"') {
+                    reader.mark(1);
+                    if (reader.read() == '"') {
+                        field.append('"');
+                    } else {
+                        reader.reset();
+                        quoted = false;
+                    }
+                } else {
+                    if (ch == '\n') {
+                        lineNumber++;
+                    }
+                    field.append(ch);
+                }
+            } else if (ch == '"') {
+                quoted = true;
+            } else if (ch == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (ch == '\n') {
+                lineNumber++;
+                break;
+            } else if (ch != '\r') {
+                field.append(ch);
+            }
+        }
+        if (!any) {
+            return null;
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+    
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
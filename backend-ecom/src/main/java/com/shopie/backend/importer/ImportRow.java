@@ -0,0 +1,19 @@
+package com.shopie.backend.importer;
+
+/**
+ * Ligne brute d'un fichier d'import : valeurs textuelles telles que lues, converties et validées
+ * par le service d'import. {@code error} est renseigné si la ligne n'a pas pu être lue.
+ */
+public record ImportRow(long line,
+                        String reference,
+                        String nom,
+                        String description,
+                        String prix,
+                        String imageUrl,
+                        String stock,
+                        String error) {
+    
+    public static ImportRow unreadable(long line, String error) {
+        return new ImportRow(line, null, null, null, null, null, null, error);
+    }
+}
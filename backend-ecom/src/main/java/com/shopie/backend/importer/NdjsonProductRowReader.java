@@ -0,0 +1,61 @@
+package com.shopie.backend.importer;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+
+/**
+ * Un objet JSON par ligne ; une ligne mal formée est signalée sans interrompre la lecture.
+ */
+class NdjsonProductRowReader implements ProductRowReader {
+    
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final BufferedReader reader;
+    private long lineNumber;
+    
+    NdjsonProductRowReader(BufferedReader reader) {
+        this.reader = reader;
+    }
+    
+    @Override
+    public ImportRow next() throws IOException {
+        String line;
+        do {
+            line = reader.readLine();
+            if (line == null) {
+                return null;
+            }
+            lineNumber++;
+        } while (line.isBlank());
+        
+        try {
+            JsonNode node = objectMapper.readTree(line);
+            if (!node.isObject()) {
+                return ImportRow.unreadable(lineNumber, "Objet JSON attendu");
+            }
+            return new ImportRow(lineNumber,
+                    text(node, "reference"),
+                    text(node, "nom"),
+                    text(node, "description"),
+                    text(node, "prix"),
+                    text(node, "imageUrl"),
+                    text(node, "stock"),
+                    null);
+        } catch (JsonProcessingException e) {
+            return ImportRow.unreadable(lineNumber, "JSON invalide: " + e.getOriginalMessage());
+        }
+    }
+    
+    private static String text(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+    
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
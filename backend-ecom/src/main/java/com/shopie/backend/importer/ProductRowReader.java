@@ -0,0 +1,22 @@
+package com.shopie.backend.importer;
+
+import com.shopie.backend.dto.ExportFormat;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Lecture incrémentale d'un fichier de produits : une ligne à la fois, sans charger le fichier.
+ */
+public interface ProductRowReader extends Closeable {
+    
+    // null en fin de fichier
+    ImportRow next() throws IOException;
+    
+    static ProductRowReader open(ExportFormat format, BufferedReader reader) throws IOException {
+        return format == ExportFormat.CSV
+                ? new CsvProductRowReader(reader)
+                : new NdjsonProductRowReader(reader);
+    }
+}
@@ -0,0 +1,42 @@
+package com.shopie.backend.metrics;
+
+import com.shopie.backend.service.CartService;
+import com.shopie.backend.service.OrderService;
+import com.shopie.backend.service.PaymentService;
+import com.shopie.backend.service.ProductService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.StaticMethodMatcherPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Set;
+
+@Configuration
+public class MetricsConfig {
+    
+    private static final Set<Class<?>> TIMED_SERVICES = Set.of(
+            CartService.class, OrderService.class, PaymentService.class, ProductService.class);
+    
+    // Advisor d'infrastructure : appliqué par le même auto-proxy que @Transactional, sans AspectJ
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    static Advisor serviceTimingAdvisor(ObjectProvider<MeterRegistry> registryProvider) {
+        StaticMethodMatcherPointcut pointcut = new StaticMethodMatcherPointcut() {
+            @Override
+            public boolean matches(Method method, Class<?> targetClass) {
+                return TIMED_SERVICES.contains(targetClass)
+                        && Modifier.isPublic(method.getModifiers())
+                        && method.getDeclaringClass() != Object.class;
+            }
+        };
+        pointcut.setClassFilter(TIMED_SERVICES::contains);
+        return new DefaultPointcutAdvisor(pointcut, new ServiceTimingInterceptor(registryProvider));
+    }
+}
@@ -0,0 +1,82 @@
+package com.shopie.backend.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Nombre de requêtes SQL et d'entités chargées par requête HTTP, par endpoint (méthode + motif d'URI).
+ * Placé avant la chaîne de sécurité : le chargement de l'utilisateur authentifié est compté.
+ * Les compteurs d'un thread sont réutilisés d'une requête à l'autre et les distributions sont
+ * mises en cache par endpoint : aucune allocation par requête une fois l'endpoint rencontré.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class RequestMetricsFilter extends OncePerRequestFilter {
+    
+    private static final String UNKNOWN_URI = "UNKNOWN";
+    
+    private static final ThreadLocal<long[]> THREAD_COUNTERS = ThreadLocal.withInitial(() -> new long[2]);
+    
+    private final MeterRegistry registry;
+    
+    // méthode HTTP -> motif d'URI -> distributions ; les motifs sont des constantes du mapping
+    private final Map<String, Map<String, Summaries>> summaries = new ConcurrentHashMap<>();
+    
+    public RequestMetricsFilter(MeterRegistry registry) {
+        this.registry = registry;
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long[] counters = THREAD_COUNTERS.get();
+        RequestQueryCounter.start(counters);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestQueryCounter.stop();
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            Summaries endpoint = summariesFor(request.getMethod(), pattern instanceof String uri ? uri : UNKNOWN_URI);
+            endpoint.statements.record(RequestQueryCounter.statements(counters));
+            endpoint.entityLoads.record(RequestQueryCounter.entityLoads(counters));
+        }
+    }
+    
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        // Le scraping des métriques ne doit pas apparaître dans ses propres mesures
+        return request.getRequestURI().contains("/actuator/");
+    }
+    
+    private Summaries summariesFor(String method, String uri) {
+        return summaries
+                .computeIfAbsent(method, key -> new ConcurrentHashMap<>())
+                .computeIfAbsent(uri, key -> new Summaries(
+                        DistributionSummary.builder("hibernate.request.statements")
+                                .description("Requêtes SQL préparées par requête HTTP")
+                                .tag("method", method)
+                                .tag("uri", uri)
+                                .register(registry),
+                        DistributionSummary.builder("hibernate.request.entity.loads")
+                                .description("Entités chargées par requête HTTP")
+                                .tag("method", method)
+                                .tag("uri", uri)
+                                .register(registry)));
+    }
+    
+    private record Summaries(DistributionSummary statements, DistributionSummary entityLoads) {
+    }
+}
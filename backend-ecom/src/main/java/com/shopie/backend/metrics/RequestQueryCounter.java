@@ -0,0 +1,55 @@
+package com.shopie.backend.metrics;
+
+import org.hibernate.Interceptor;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.type.Type;
+
+/**
+ * Compte les requêtes SQL préparées et les entités chargées par Hibernate pour la requête HTTP
+ * en cours. Déclaré dans application.properties comme StatementInspector et Interceptor de la
+ * SessionFactory ; les compteurs sont portés par le thread de la requête (RequestMetricsFilter).
+ * Hors requête HTTP (tâches planifiées, workers), l'enregistrement est ignoré.
+ */
+public class RequestQueryCounter implements StatementInspector, Interceptor {
+    
+    private static final int STATEMENTS = 0;
+    private static final int ENTITY_LOADS = 1;
+    
+    private static final ThreadLocal<long[]> COUNTERS = new ThreadLocal<>();
+    
+    static void start(long[] counters) {
+        counters[STATEMENTS] = 0;
+        counters[ENTITY_LOADS] = 0;
+        COUNTERS.set(counters);
+    }
+    
+    static void stop() {
+        COUNTERS.remove();
+    }
+    
+    static long statements(long[] counters) {
+        return counters[STATEMENTS];
+    }
+    
+    static long entityLoads(long[] counters) {
+        return counters[ENTITY_LOADS];
+    }
+    
+    @Override
+    public String inspect(String sql) {
+        long[] counters = COUNTERS.get();
+        if (counters != null) {
+            counters[STATEMENTS]++;
+        }
+        return sql;
+    }
+    
+    @Override
+    public boolean onLoad(Object entity, Object id, Object[] state, String[] propertyNames, Type[] types) {
+        long[] counters = COUNTERS.get();
+        if (counters != null) {
+            counters[ENTITY_LOADS]++;
+        }
+        return false;
+    }
+}
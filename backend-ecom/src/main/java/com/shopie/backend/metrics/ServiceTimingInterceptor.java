@@ -0,0 +1,49 @@
+package com.shopie.backend.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Chronomètre les méthodes publiques des services (timer "service.method", tags class et method).
+ * Un timer par méthode, créé au premier appel puis retrouvé par l'objet Method : la mesure
+ * n'alloue rien (deux lectures de System.nanoTime et un enregistrement).
+ */
+public class ServiceTimingInterceptor implements MethodInterceptor {
+    
+    private final ObjectProvider<MeterRegistry> registryProvider;
+    private final Map<Method, Timer> timers = new ConcurrentHashMap<>();
+    
+    public ServiceTimingInterceptor(ObjectProvider<MeterRegistry> registryProvider) {
+        this.registryProvider = registryProvider;
+    }
+    
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Timer timer = timers.get(invocation.getMethod());
+        if (timer == null) {
+            timer = timers.computeIfAbsent(invocation.getMethod(), this::createTimer);
+        }
+        long start = System.nanoTime();
+        try {
+            return invocation.proceed();
+        } finally {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+    
+    private Timer createTimer(Method method) {
+        return Timer.builder("service.method")
+                .description("Durée des appels aux méthodes des services")
+                .tag("class", method.getDeclaringClass().getSimpleName())
+                .tag("method", method.getName())
+                .register(registryProvider.getObject());
+    }
+}
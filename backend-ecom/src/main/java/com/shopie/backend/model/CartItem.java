@@ -1,6 +1,6 @@
 package com.shopie.backend.model;
 
-import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
@@ -16,19 +16,20 @@ import lombok.NoArgsConstructor;
 public class CartItem {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "cart_item_seq")
+    @SequenceGenerator(name = "cart_item_seq", sequenceName = "cart_items_seq", allocationSize = 50)
     private Long id;
     
     @NotNull(message = "L'utilisateur est obligatoire")
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
-    @JsonIgnoreProperties({"cartItems", "orders", "motDePasse"})
+    @JsonIgnore
     private User user;
     
     @NotNull(message = "Le produit est obligatoire")
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "product_id", nullable = false)
-    @JsonIgnoreProperties({"cartItems", "orderItems"})
+    @JsonIgnore
     private Product product;
     
     @Min(value = 1, message = "La quantité doit être au moins 1")
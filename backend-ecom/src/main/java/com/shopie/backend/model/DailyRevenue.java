@@ -0,0 +1,29 @@
+package com.shopie.backend.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Agrégat analytique : commandes et chiffre d'affaires par jour de commande.
+ */
+@Entity
+@Table(name = "analytics_daily_revenue")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailyRevenue {
+    
+    @Id
+    private LocalDate jour;
+    
+    @Column(nullable = false)
+    private Long orderCount;
+    
+    @Column(nullable = false, precision = 14, scale = 2)
+    private BigDecimal revenue;
+}
@@ -9,17 +9,24 @@ import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+    @Index(name = "idx_orders_user_date", columnList = "user_id, date"),
+    @Index(name = "idx_orders_statut_date", columnList = "statut, date"),
+    @Index(name = "idx_orders_date", columnList = "date")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Order {
     
+    // Identifiants alloués par blocs (pooled) : contrairement à IDENTITY, permet le batching JDBC des insertions
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_seq")
+    @SequenceGenerator(name = "order_seq", sequenceName = "orders_seq", allocationSize = 50)
     private Long id;
     
     @NotNull(message = "L'utilisateur est obligatoire")
@@ -40,7 +47,7 @@ public class Order {
     private Statut statut = Statut.PENDING;
     
     @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
-    private List<OrderItem> orderItems;
+    private List<OrderItem> orderItems = new ArrayList<>();
     
     @OneToOne(mappedBy = "order", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private Payment payment;
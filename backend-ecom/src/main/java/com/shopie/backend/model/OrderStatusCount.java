@@ -0,0 +1,24 @@
+package com.shopie.backend.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Agrégat analytique : nombre de commandes par statut.
+ */
+@Entity
+@Table(name = "analytics_order_status")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderStatusCount {
+    
+    @Id
+    @Enumerated(EnumType.STRING)
+    private Order.Statut statut;
+    
+    @Column(nullable = false)
+    private Long orderCount;
+}
@@ -0,0 +1,64 @@
+package com.shopie.backend.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Ligne de l'historique des commandes, dénormalisée : écrite dans la transaction qui crée la
+ * commande, puis mise à jour avec les statuts de la commande et de son paiement. Les listes de
+ * commandes ne lisent que cette table, sans jointure ni chargement des lignes de commande.
+ */
+@Entity
+@Table(name = "order_summaries", indexes = {
+    @Index(name = "idx_order_summaries_user_date", columnList = "user_id, date"),
+    @Index(name = "idx_order_summaries_statut_date", columnList = "statut, date"),
+    @Index(name = "idx_order_summaries_date", columnList = "date")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderSummaryRow {
+    
+    @Id
+    private Long orderId;
+    
+    @Column(nullable = false)
+    private Long userId;
+    
+    private String userNom;
+    
+    @Column(nullable = false)
+    private LocalDateTime date;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Order.Statut statut;
+    
+    @Column(nullable = false, precision = 10, scale = 2)
+    private BigDecimal total;
+    
+    @Column(nullable = false)
+    private Long itemCount;
+    
+    // Premier article de la commande : vignette de l'historique
+    private String firstProductNom;
+    
+    @Column(length = 500)
+    private String firstProductImageUrl;
+    
+    @Enumerated(EnumType.STRING)
+    private Payment.Statut paymentStatut;
+    
+    public static OrderSummaryRow from(Order order) {
+        Product first = order.getOrderItems().isEmpty() ? null : order.getOrderItems().get(0).getProduct();
+        return new OrderSummaryRow(order.getId(), order.getUser().getId(), order.getUser().getNom(), order.getDate(),
+                order.getStatut(), order.getTotal(), (long) order.getOrderItems().size(),
+                first != null ? first.getNom() : null, first != null ? first.getImageUrl() : null,
+                order.getPayment() != null ? order.getPayment().getStatut() : null);
+    }
+}
@@ -12,14 +12,18 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "payments")
+@Table(name = "payments", indexes = {
+    @Index(name = "idx_payments_statut_date", columnList = "statut, date"),
+    @Index(name = "idx_payments_date", columnList = "date")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Payment {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "payment_seq")
+    @SequenceGenerator(name = "payment_seq", sequenceName = "payments_seq", allocationSize = 50)
     private Long id;
     
     @NotNull(message = "La commande est obligatoire")
@@ -0,0 +1,40 @@
+package com.shopie.backend.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Agrégat analytique : paiements par méthode, répartis par statut, montants total et encaissé.
+ */
+@Entity
+@Table(name = "analytics_payment_method")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaymentMethodStats {
+    
+    @Id
+    private String methode;
+    
+    @Column(nullable = false)
+    private Long paymentCount;
+    
+    @Column(nullable = false)
+    private Long pendingCount;
+    
+    @Column(nullable = false)
+    private Long paidCount;
+    
+    @Column(nullable = false)
+    private Long failedCount;
+    
+    @Column(nullable = false, precision = 14, scale = 2)
+    private BigDecimal amountTotal;
+    
+    @Column(nullable = false, precision = 14, scale = 2)
+    private BigDecimal amountPaid;
+}
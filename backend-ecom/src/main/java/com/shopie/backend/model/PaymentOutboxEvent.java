@@ -0,0 +1,89 @@
+package com.shopie.backend.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Demande de débit en attente d'envoi à la passerelle de paiement (outbox transactionnelle).
+ * Enregistrée dans la même transaction que l'acceptation du paiement, traitée ensuite
+ * par PaymentOutboxWorker ; la clé d'idempotence reste la même d'une tentative à l'autre.
+ */
+@Entity
+@Table(name = "payment_outbox", indexes = {
+    @Index(name = "idx_payment_outbox_statut_next", columnList = "statut, next_attempt_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaymentOutboxEvent {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "payment_outbox_seq")
+    @SequenceGenerator(name = "payment_outbox_seq", sequenceName = "payment_outbox_seq", allocationSize = 50)
+    private Long id;
+    
+    @Column(nullable = false, unique = true)
+    private Long paymentId;
+    
+    @Column(nullable = false)
+    private Long orderId;
+    
+    @Column(nullable = false, precision = 10, scale = 2)
+    private BigDecimal montant;
+    
+    @Column(nullable = false, length = 50)
+    private String methode;
+    
+    @Column(nullable = false, unique = true, length = 64)
+    private String idempotencyKey;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Statut statut = Statut.PENDING;
+    
+    @Column(nullable = false)
+    private Integer attempts = 0;
+    
+    @Column(nullable = false)
+    private LocalDateTime nextAttemptAt;
+    
+    private LocalDateTime claimedAt;
+    
+    @Column(length = 500)
+    private String lastError;
+    
+    @Column(length = 100)
+    private String gatewayReference;
+    
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+    
+    private LocalDateTime processedAt;
+    
+    // Incrémentée à chaque prise en charge : un worker dont le bail a expiré ne peut plus enregistrer son résultat
+    @Version
+    private Long version;
+    
+    public static PaymentOutboxEvent forPayment(Payment payment) {
+        PaymentOutboxEvent event = new PaymentOutboxEvent();
+        event.setPaymentId(payment.getId());
+        event.setOrderId(payment.getOrder().getId());
+        event.setMontant(payment.getMontant());
+        event.setMethode(payment.getMethode());
+        event.setIdempotencyKey(UUID.randomUUID().toString());
+        LocalDateTime now = LocalDateTime.now();
+        event.setCreatedAt(now);
+        event.setNextAttemptAt(now);
+        return event;
+    }
+    
+    public enum Statut {
+        PENDING, PROCESSING, DONE, FAILED
+    }
+}
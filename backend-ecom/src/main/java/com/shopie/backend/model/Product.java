@@ -1,29 +1,44 @@
 package com.shopie.backend.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "products")
+@Table(name = "products", indexes = {
+    @Index(name = "idx_stock", columnList = "stock"),
+    @Index(name = "idx_prix_id", columnList = "prix, id")
+}, uniqueConstraints = {
+    @UniqueConstraint(name = "uk_products_reference", columnNames = "reference")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Product {
     
+    // Identifiants alloués par blocs : les insertions en masse (import) sont batchées par JDBC
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_seq")
+    @SequenceGenerator(name = "product_seq", sequenceName = "products_seq", allocationSize = 50)
     private Long id;
     
+    // Référence fournisseur, clé des mises à jour par import
+    @Size(max = 64, message = "La référence ne peut pas dépasser 64 caractères")
+    @Column(length = 64)
+    private String reference;
+    
     @NotBlank(message = "Le nom du produit est obligatoire")
     @Column(nullable = false)
     private String nom;
@@ -42,6 +57,34 @@ public class Product {
     @Column(nullable = false)
     private Integer stock = 0;
     
+    // Quantité retenue par les réservations actives (StockReservation) : disponible = stock - reserved.
+    // Modifiée uniquement par des mises à jour conditionnelles qui incrémentent aussi la version
+    @JsonIgnore
+    @Column(nullable = false)
+    private Integer reserved = 0;
+    
+    // Nombre de compteurs de stock (ProductStockShard) d'un produit très demandé, 0 si le stock est
+    // tenu dans cette ligne. Produit partitionné : stock n'est qu'une copie de la somme des compteurs
+    @JsonIgnore
+    @Column(nullable = false)
+    private Integer stockShards = 0;
+    
+    // Version et date de modification : ETag et Last-Modified des réponses catalogue
+    @Version
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Column(nullable = false)
+    private Long version;
+    
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+    
+    // Dernière modification du contenu (création, modification, import), sans les mouvements de stock :
+    // filigrane de l'instantané de l'index de recherche
+    @JsonIgnore
+    @Column(nullable = false)
+    private LocalDateTime contentUpdatedAt;
+    
     @JsonIgnore
     @OneToMany(mappedBy = "product", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<CartItem> cartItems;
@@ -49,4 +92,21 @@ public class Product {
     @JsonIgnore
     @OneToMany(mappedBy = "product", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<OrderItem> orderItems;
+    
+    public void markContentChanged() {
+        contentUpdatedAt = LocalDateTime.now();
+    }
+    
+    @PrePersist
+    void touchOnCreate() {
+        touch();
+        if (contentUpdatedAt == null) {
+            contentUpdatedAt = updatedAt;
+        }
+    }
+    
+    @PreUpdate
+    void touch() {
+        updatedAt = LocalDateTime.now();
+    }
 }
\ No newline at end of file
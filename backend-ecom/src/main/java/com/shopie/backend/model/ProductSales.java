@@ -0,0 +1,30 @@
+package com.shopie.backend.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Agrégat analytique : unités vendues et chiffre d'affaires par produit.
+ */
+@Entity
+@Table(name = "analytics_product_sales", indexes = {
+    @Index(name = "idx_product_sales_units", columnList = "units")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSales {
+    
+    @Id
+    private Long productId;
+    
+    @Column(nullable = false)
+    private Long units;
+    
+    @Column(nullable = false, precision = 14, scale = 2)
+    private BigDecimal revenue;
+}
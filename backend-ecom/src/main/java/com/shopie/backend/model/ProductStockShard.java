@@ -0,0 +1,39 @@
+package com.shopie.backend.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * Compteur partiel du stock d'un produit partitionné : le stock est la somme des compteurs
+ * du produit. Les ventes concurrentes se répartissent sur plusieurs lignes au lieu de se
+ * disputer le verrou de la ligne du produit.
+ */
+@Entity
+@Table(name = "product_stock_shards")
+@IdClass(ProductStockShard.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductStockShard {
+    
+    @Id
+    private Long productId;
+    
+    @Id
+    private Integer shard;
+    
+    @Column(nullable = false)
+    private Integer stock = 0;
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long productId;
+        private Integer shard;
+    }
+}
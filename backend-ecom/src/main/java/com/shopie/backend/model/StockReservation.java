@@ -0,0 +1,48 @@
+package com.shopie.backend.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Réservation de stock prise au début du paiement d'un panier, une ligne par produit.
+ * La quantité est comptée dans Product.reserved jusqu'à la commande, la libération
+ * par l'utilisateur ou l'expiration (StockReservationSweeper).
+ */
+@Entity
+@Table(name = "stock_reservations", indexes = {
+    @Index(name = "idx_stock_reservations_user", columnList = "user_id"),
+    @Index(name = "idx_stock_reservations_expires", columnList = "expires_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockReservation {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "stock_reservations_seq")
+    @SequenceGenerator(name = "stock_reservations_seq", sequenceName = "stock_reservations_seq", allocationSize = 50)
+    private Long id;
+    
+    @Column(nullable = false)
+    private Long userId;
+    
+    @Column(nullable = false)
+    private Long productId;
+    
+    @Column(nullable = false)
+    private Integer quantite;
+    
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+    
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+    
+    public static StockReservation of(Long userId, Long productId, int quantite, LocalDateTime now, LocalDateTime expiresAt) {
+        return new StockReservation(null, userId, productId, quantite, now, expiresAt);
+    }
+}
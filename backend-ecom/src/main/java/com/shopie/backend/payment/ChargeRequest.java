@@ -0,0 +1,6 @@
+package com.shopie.backend.payment;
+
+import java.math.BigDecimal;
+
+public record ChargeRequest(String idempotencyKey, Long paymentId, BigDecimal montant, String methode) {
+}
@@ -0,0 +1,12 @@
+package com.shopie.backend.payment;
+
+public record ChargeResult(boolean approved, String reference, String message) {
+    
+    public static ChargeResult approved(String reference) {
+        return new ChargeResult(true, reference, null);
+    }
+    
+    public static ChargeResult declined(String message) {
+        return new ChargeResult(false, null, message);
+    }
+}
@@ -0,0 +1,13 @@
+package com.shopie.backend.payment;
+
+/**
+ * Passerelle de paiement externe (Stripe, PayPal...). Appelée hors transaction par le worker de l'outbox.
+ *
+ * Un refus définitif est rendu dans le résultat ; une erreur transitoire (réseau, indisponibilité)
+ * lève PaymentGatewayException et la demande est retentée avec la même clé d'idempotence,
+ * que la passerelle doit utiliser pour ne jamais débiter deux fois.
+ */
+public interface PaymentGateway {
+    
+    ChargeResult charge(ChargeRequest request) throws PaymentGatewayException;
+}
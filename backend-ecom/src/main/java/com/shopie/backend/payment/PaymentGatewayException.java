@@ -0,0 +1,14 @@
+package com.shopie.backend.payment;
+
+/**
+ * Erreur transitoire de la passerelle : la demande de débit sera retentée.
+ */
+public class PaymentGatewayException extends Exception {
+    public PaymentGatewayException(String message) {
+        super(message);
+    }
+    
+    public PaymentGatewayException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,118 @@
+package com.shopie.backend.payment;
+
+import com.shopie.backend.model.PaymentOutboxEvent;
+import com.shopie.backend.service.PaymentOutboxService;
+import com.shopie.backend.service.PaymentOutboxService.ChargeOutcome;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Traite l'outbox des paiements par lots : prise en charge d'un lot (transaction courte),
+ * appels concurrents à la passerelle sans transaction, puis enregistrement groupé des résultats.
+ * Un lot interrompu (arrêt, crash) est repris à l'expiration du bail.
+ */
+@Component
+public class PaymentOutboxWorker {
+    
+    private static final Logger log = LoggerFactory.getLogger(PaymentOutboxWorker.class);
+    
+    @Autowired
+    private PaymentOutboxService outboxService;
+    
+    @Autowired
+    private PaymentGateway gateway;
+    
+    private final boolean enabled;
+    private final int batchSize;
+    private final ExecutorService executor;
+    
+    public PaymentOutboxWorker(@Value("${payments.outbox.worker-enabled:true}") boolean enabled,
+                               @Value("${payments.outbox.batch-size:50}") int batchSize,
+                               @Value("${payments.outbox.worker-threads:16}") int threads) {
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "payment-gateway-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    @Scheduled(fixedDelayString = "${payments.outbox.poll-interval-ms:500}")
+    public void poll() {
+        if (!enabled) {
+            return;
+        }
+        // Enchaîne les lots tant que la file est pleine, puis attend le prochain déclenchement
+        while (processBatch() == batchSize) {
+            if (Thread.currentThread().isInterrupted()) {
+                return;
+            }
+        }
+    }
+    
+    /**
+     * Traite au plus un lot et retourne le nombre d'événements pris en charge.
+     */
+    public int processBatch() {
+        List<PaymentOutboxEvent> batch = outboxService.claimBatch(batchSize);
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        
+        List<Future<ChargeOutcome>> pending = new ArrayList<>(batch.size());
+        for (PaymentOutboxEvent event : batch) {
+            pending.add(executor.submit(() -> charge(event)));
+        }
+        
+        List<ChargeOutcome> outcomes = new ArrayList<>(batch.size());
+        for (int i = 0; i < pending.size(); i++) {
+            try {
+                outcomes.add(pending.get(i).get());
+            } catch (InterruptedException e) {
+                // Les événements non enregistrés seront repris à l'expiration du bail
+                Thread.currentThread().interrupt();
+                break;
+            } catch (ExecutionException e) {
+                outcomes.add(ChargeOutcome.retry(batch.get(i), String.valueOf(e.getCause())));
+            }
+        }
+        
+        outboxService.recordOutcomes(outcomes);
+        return batch.size();
+    }
+    
+    private ChargeOutcome charge(PaymentOutboxEvent event) {
+        ChargeRequest request = new ChargeRequest(event.getIdempotencyKey(), event.getPaymentId(),
+                event.getMontant(), event.getMethode());
+        try {
+            return ChargeOutcome.of(event, gateway.charge(request));
+        } catch (PaymentGatewayException e) {
+            log.warn("Paiement {} : erreur de la passerelle (tentative {}): {}",
+                    event.getPaymentId(), event.getAttempts(), e.getMessage());
+            return ChargeOutcome.retry(event, e.getMessage());
+        } catch (RuntimeException e) {
+            log.warn("Paiement {} : erreur inattendue (tentative {})", event.getPaymentId(), event.getAttempts(), e);
+            return ChargeOutcome.retry(event, e.toString());
+        }
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,38 @@
+package com.shopie.backend.payment;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Passerelle locale (développement, tests) : approuve tout paiement après une latence simulée.
+ * Un même idempotencyKey renvoie toujours la même référence, comme une passerelle réelle.
+ */
+@Component
+@ConditionalOnProperty(name = "payments.gateway", havingValue = "stub", matchIfMissing = true)
+public class StubPaymentGateway implements PaymentGateway {
+    
+    private final long latencyMs;
+    private final Map<String, ChargeResult> charges = new ConcurrentHashMap<>();
+    
+    public StubPaymentGateway(@Value("${payments.gateway.stub.latency-ms:0}") long latencyMs) {
+        this.latencyMs = latencyMs;
+    }
+    
+    @Override
+    public ChargeResult charge(ChargeRequest request) throws PaymentGatewayException {
+        if (latencyMs > 0) {
+            try {
+                Thread.sleep(latencyMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new PaymentGatewayException("Appel à la passerelle interrompu", e);
+            }
+        }
+        return charges.computeIfAbsent(request.idempotencyKey(),
+                key -> ChargeResult.approved("stub-" + request.paymentId() + "-" + key.substring(0, 8)));
+    }
+}
@@ -1,17 +1,29 @@
 package com.shopie.backend.repository;
 
+import com.shopie.backend.cart.CartLine;
 import com.shopie.backend.model.CartItem;
-import com.shopie.backend.model.Product;
-import com.shopie.backend.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
-import java.util.Optional;
 
 @Repository
 public interface CartItemRepository extends JpaRepository<CartItem, Long> {
-    List<CartItem> findByUser(User user);
-    Optional<CartItem> findByUserAndProduct(User user, Product product);
-    void deleteByUser(User user);
+    
+    @Query("SELECT c FROM CartItem c WHERE c.user.id = :userId ORDER BY c.id")
+    List<CartItem> findByUserId(@Param("userId") Long userId);
+    
+    // Lignes brutes (sans charger produits ni utilisateurs) pour le chargement du cache des paniers
+    @Query("SELECT new com.shopie.backend.cart.CartLine(c.user.id, c.product.id, c.quantite) " +
+            "FROM CartItem c WHERE c.user.id = :userId ORDER BY c.id")
+    List<CartLine> findLinesByUserId(@Param("userId") Long userId);
+    
+    // Une seule requête DELETE pour tous les paniers réécrits par un lot d'écriture différée
+    @Modifying
+    @Query("DELETE FROM CartItem c WHERE c.user.id IN :userIds")
+    void deleteByUserIdIn(@Param("userIds") Collection<Long> userIds);
 }
\ No newline at end of file
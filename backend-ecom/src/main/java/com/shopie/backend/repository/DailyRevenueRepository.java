@@ -0,0 +1,31 @@
+package com.shopie.backend.repository;
+
+import com.shopie.backend.model.DailyRevenue;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface DailyRevenueRepository extends JpaRepository<DailyRevenue, LocalDate> {
+    
+    List<DailyRevenue> findByJourGreaterThanEqualAndJourLessThanOrderByJourAsc(LocalDate from, LocalDate to);
+    
+    // Incrément atomique : la ligne du jour est créée au premier appel
+    @Modifying
+    @Query(value = "INSERT INTO analytics_daily_revenue (jour, order_count, revenue) VALUES (:jour, :orders, :revenue) " +
+            "ON DUPLICATE KEY UPDATE order_count = order_count + :orders, revenue = revenue + :revenue",
+            nativeQuery = true)
+    int increment(@Param("jour") LocalDate jour, @Param("orders") long orders, @Param("revenue") BigDecimal revenue);
+    
+    @Modifying
+    @Query(value = "INSERT INTO analytics_daily_revenue (jour, order_count, revenue) " +
+            "SELECT CAST(o.date AS DATE), COUNT(*), SUM(o.total) FROM orders o GROUP BY CAST(o.date AS DATE)",
+            nativeQuery = true)
+    int rebuildFromOrders();
+}
@@ -1,18 +1,30 @@
 package com.shopie.backend.repository;
 
+import com.shopie.backend.dto.OrderStatusTally;
 import com.shopie.backend.model.Order;
-import com.shopie.backend.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
-    List<Order> findByUserOrderByDateDesc(User user);
-    List<Order> findByStatut(Order.Statut statut);
     
-    @Query("SELECT o FROM Order o ORDER BY o.date DESC")
-    List<Order> findAllOrderByDateDesc();
+    // Les commandes déjà au statut demandé ne sont pas modifiées (ni comptées par les agrégats)
+    @Modifying
+    @Query("UPDATE Order o SET o.statut = :statut WHERE o.id IN :ids AND o.statut <> :statut")
+    int updateStatut(@Param("ids") Collection<Long> ids, @Param("statut") Order.Statut statut);
+    
+    @Query("SELECT new com.shopie.backend.dto.OrderStatusTally(o.statut, COUNT(o)) FROM Order o " +
+            "WHERE o.id IN :ids AND o.statut <> :statut GROUP BY o.statut")
+    List<OrderStatusTally> tallyStatutsOtherThan(@Param("ids") Collection<Long> ids, @Param("statut") Order.Statut statut);
+    
+    @Query("SELECT DISTINCT o FROM Order o JOIN FETCH o.user LEFT JOIN FETCH o.payment " +
+            "LEFT JOIN FETCH o.orderItems i LEFT JOIN FETCH i.product WHERE o.id = :id")
+    Optional<Order> findDetailById(@Param("id") Long id);
 }
\ No newline at end of file
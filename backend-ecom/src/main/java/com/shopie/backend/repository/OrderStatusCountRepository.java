@@ -0,0 +1,25 @@
+package com.shopie.backend.repository;
+
+import com.shopie.backend.model.Order;
+import com.shopie.backend.model.OrderStatusCount;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface OrderStatusCountRepository extends JpaRepository<OrderStatusCount, Order.Statut> {
+    
+    @Modifying
+    @Query(value = "INSERT INTO analytics_order_status (statut, order_count) VALUES (:statut, :delta) " +
+            "ON DUPLICATE KEY UPDATE order_count = order_count + :delta",
+            nativeQuery = true)
+    int increment(@Param("statut") String statut, @Param("delta") long delta);
+    
+    @Modifying
+    @Query(value = "INSERT INTO analytics_order_status (statut, order_count) " +
+            "SELECT o.statut, COUNT(*) FROM orders o GROUP BY o.statut",
+            nativeQuery = true)
+    int rebuildFromOrders();
+}
@@ -0,0 +1,75 @@
+package com.shopie.backend.repository;
+
+import com.shopie.backend.dto.OrderSummary;
+import com.shopie.backend.model.Order;
+import com.shopie.backend.model.OrderSummaryRow;
+import com.shopie.backend.model.Payment;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+@Repository
+public interface OrderSummaryRepository extends JpaRepository<OrderSummaryRow, Long> {
+    
+    // Une seule table : ni jointure, ni comptage des lignes de commande
+    String SUMMARY_SELECT = "SELECT new com.shopie.backend.dto.OrderSummary(s.orderId, s.userId, s.userNom, s.date, " +
+            "s.statut, s.total, s.itemCount, s.paymentStatut, s.firstProductNom, s.firstProductImageUrl) " +
+            "FROM OrderSummaryRow s ";
+    
+    // Historique d'un client par curseur (date, id) décroissant, servi par idx_order_summaries_user_date
+    // (InnoDB ajoute la clé primaire order_id à l'index secondaire : le départage par id ne trie rien)
+    @Query(SUMMARY_SELECT + "WHERE s.userId = :userId ORDER BY s.date DESC, s.orderId DESC")
+    List<OrderSummary> findSummariesByUserId(@Param("userId") Long userId, Pageable pageable);
+    
+    @Query(SUMMARY_SELECT + "WHERE s.userId = :userId AND (s.date < :date OR (s.date = :date AND s.orderId < :orderId)) " +
+            "ORDER BY s.date DESC, s.orderId DESC")
+    List<OrderSummary> findSummariesByUserIdBefore(@Param("userId") Long userId,
+                                                   @Param("date") LocalDateTime date,
+                                                   @Param("orderId") Long orderId,
+                                                   Pageable pageable);
+    
+    // Listes admin paginées : filtres (statut, date) servis par idx_order_summaries_statut_date / idx_order_summaries_date
+    @Query(value = SUMMARY_SELECT + "WHERE s.date >= :from AND s.date < :to ORDER BY s.date DESC",
+           countQuery = "SELECT COUNT(s) FROM OrderSummaryRow s WHERE s.date >= :from AND s.date < :to")
+    Page<OrderSummary> findSummariesByDateRange(@Param("from") LocalDateTime from,
+                                                @Param("to") LocalDateTime to,
+                                                Pageable pageable);
+    
+    @Query(value = SUMMARY_SELECT + "WHERE s.statut = :statut AND s.date >= :from AND s.date < :to ORDER BY s.date DESC",
+           countQuery = "SELECT COUNT(s) FROM OrderSummaryRow s WHERE s.statut = :statut AND s.date >= :from AND s.date < :to")
+    Page<OrderSummary> findSummariesByStatutAndDateRange(@Param("statut") Order.Statut statut,
+                                                         @Param("from") LocalDateTime from,
+                                                         @Param("to") LocalDateTime to,
+                                                         Pageable pageable);
+    
+    // Export en flux : parcours par (date, id) croissant, reprise après la dernière ligne reçue, avec un curseur JDBC.
+    // Servi par idx_order_summaries_date (InnoDB y ajoute la clé primaire order_id)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(SUMMARY_SELECT + "WHERE (s.date > :afterDate OR (s.date = :afterDate AND s.orderId > :afterId)) " +
+            "AND s.date >= :from AND s.date < :to ORDER BY s.date ASC, s.orderId ASC")
+    Stream<OrderSummary> streamSummariesForExport(@Param("afterDate") LocalDateTime afterDate,
+                                                  @Param("afterId") Long afterId,
+                                                  @Param("from") LocalDateTime from,
+                                                  @Param("to") LocalDateTime to);
+    
+    // Mises à jour dans la transaction qui modifie la commande ou le paiement
+    @Modifying
+    @Query("UPDATE OrderSummaryRow s SET s.statut = :statut WHERE s.orderId IN :orderIds")
+    int updateStatut(@Param("orderIds") Collection<Long> orderIds, @Param("statut") Order.Statut statut);
+    
+    @Modifying
+    @Query("UPDATE OrderSummaryRow s SET s.paymentStatut = :statut WHERE s.orderId IN :orderIds")
+    int updatePaymentStatut(@Param("orderIds") Collection<Long> orderIds, @Param("statut") Payment.Statut statut);
+}
@@ -0,0 +1,39 @@
+package com.shopie.backend.repository;
+
+import com.shopie.backend.model.PaymentMethodStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+
+@Repository
+public interface PaymentMethodStatsRepository extends JpaRepository<PaymentMethodStats, String> {
+    
+    // Deltas appliqués en une instruction : création d'un paiement ou changement de statut
+    @Modifying
+    @Query(value = "INSERT INTO analytics_payment_method " +
+            "(methode, payment_count, pending_count, paid_count, failed_count, amount_total, amount_paid) " +
+            "VALUES (:methode, :payments, :pending, :paid, :failed, :amountTotal, :amountPaid) " +
+            "ON DUPLICATE KEY UPDATE payment_count = payment_count + :payments, pending_count = pending_count + :pending, " +
+            "paid_count = paid_count + :paid, failed_count = failed_count + :failed, " +
+            "amount_total = amount_total + :amountTotal, amount_paid = amount_paid + :amountPaid",
+            nativeQuery = true)
+    int increment(@Param("methode") String methode, @Param("payments") long payments,
+                  @Param("pending") long pending, @Param("paid") long paid, @Param("failed") long failed,
+                  @Param("amountTotal") BigDecimal amountTotal, @Param("amountPaid") BigDecimal amountPaid);
+    
+    @Modifying
+    @Query(value = "INSERT INTO analytics_payment_method " +
+            "(methode, payment_count, pending_count, paid_count, failed_count, amount_total, amount_paid) " +
+            "SELECT p.methode, COUNT(*), " +
+            "SUM(CASE WHEN p.statut = 'PENDING' THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN p.statut = 'PAID' THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN p.statut = 'FAILED' THEN 1 ELSE 0 END), " +
+            "SUM(p.montant), SUM(CASE WHEN p.statut = 'PAID' THEN p.montant ELSE 0 END) " +
+            "FROM payments p GROUP BY p.methode",
+            nativeQuery = true)
+    int rebuildFromPayments();
+}
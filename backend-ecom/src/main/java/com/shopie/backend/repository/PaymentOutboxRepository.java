@@ -0,0 +1,34 @@
+package com.shopie.backend.repository;
+
+import com.shopie.backend.model.PaymentOutboxEvent;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface PaymentOutboxRepository extends JpaRepository<PaymentOutboxEvent, Long> {
+    
+    Optional<PaymentOutboxEvent> findByPaymentId(Long paymentId);
+    
+    // Événements à traiter : échéance atteinte, ou traitement abandonné (bail expiré après un arrêt du worker).
+    // SKIP LOCKED (timeout -2) : plusieurs instances se partagent les lots sans s'attendre
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT e FROM PaymentOutboxEvent e " +
+            "WHERE (e.statut = com.shopie.backend.model.PaymentOutboxEvent.Statut.PENDING AND e.nextAttemptAt <= :now) " +
+            "OR (e.statut = com.shopie.backend.model.PaymentOutboxEvent.Statut.PROCESSING AND e.claimedAt < :leaseExpiredBefore) " +
+            "ORDER BY e.id ASC")
+    List<PaymentOutboxEvent> findClaimable(@Param("now") LocalDateTime now,
+                                           @Param("leaseExpiredBefore") LocalDateTime leaseExpiredBefore,
+                                           Pageable pageable);
+}
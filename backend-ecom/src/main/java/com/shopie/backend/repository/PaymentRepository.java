@@ -1,19 +1,62 @@
 package com.shopie.backend.repository;
 
+import com.shopie.backend.dto.PaymentSummary;
+import com.shopie.backend.dto.PaymentTally;
 import com.shopie.backend.model.Order;
 import com.shopie.backend.model.Payment;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface PaymentRepository extends JpaRepository<Payment, Long> {
+    
+    String SUMMARY_SELECT = "SELECT new com.shopie.backend.dto.PaymentSummary(p.id, p.order.id, p.montant, p.methode, p.statut, p.date) " +
+            "FROM Payment p ";
+    
     Optional<Payment> findByOrder(Order order);
-    List<Payment> findByStatut(Payment.Statut statut);
     
-    @Query("SELECT p FROM Payment p ORDER BY p.date DESC")
-    List<Payment> findAllOrderByDateDesc();
+    @Modifying
+    @Query("UPDATE Payment p SET p.statut = :statut WHERE p.id IN :ids AND p.statut <> :statut")
+    int updateStatut(@Param("ids") Collection<Long> ids, @Param("statut") Payment.Statut statut);
+    
+    @Query("SELECT new com.shopie.backend.dto.PaymentTally(p.methode, p.statut, COUNT(p), SUM(p.montant)) FROM Payment p " +
+            "WHERE p.id IN :ids AND p.statut <> :statut GROUP BY p.methode, p.statut")
+    List<PaymentTally> tallyStatutsOtherThan(@Param("ids") Collection<Long> ids, @Param("statut") Payment.Statut statut);
+    
+    // Listes admin paginées : filtres (statut, date) servis par idx_payments_statut_date / idx_payments_date
+    @Query(value = SUMMARY_SELECT + "WHERE p.date >= :from AND p.date < :to ORDER BY p.date DESC",
+           countQuery = "SELECT COUNT(p) FROM Payment p WHERE p.date >= :from AND p.date < :to")
+    Page<PaymentSummary> findSummariesByDateRange(@Param("from") LocalDateTime from,
+                                                  @Param("to") LocalDateTime to,
+                                                  Pageable pageable);
+    
+    @Query(value = SUMMARY_SELECT + "WHERE p.statut = :statut AND p.date >= :from AND p.date < :to ORDER BY p.date DESC",
+           countQuery = "SELECT COUNT(p) FROM Payment p WHERE p.statut = :statut AND p.date >= :from AND p.date < :to")
+    Page<PaymentSummary> findSummariesByStatutAndDateRange(@Param("statut") Payment.Statut statut,
+                                                           @Param("from") LocalDateTime from,
+                                                           @Param("to") LocalDateTime to,
+                                                           Pageable pageable);
+    
+    // Export en flux par (date, id) croissant, servi par idx_payments_date
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(SUMMARY_SELECT + "WHERE (p.date > :afterDate OR (p.date = :afterDate AND p.id > :afterId)) " +
+            "AND p.date >= :from AND p.date < :to ORDER BY p.date ASC, p.id ASC")
+    Stream<PaymentSummary> streamSummariesForExport(@Param("afterDate") LocalDateTime afterDate,
+                                                    @Param("afterId") Long afterId,
+                                                    @Param("from") LocalDateTime from,
+                                                    @Param("to") LocalDateTime to);
 }
\ No newline at end of file
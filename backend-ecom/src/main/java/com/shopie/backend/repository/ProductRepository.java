@@ -1,17 +1,108 @@
 package com.shopie.backend.repository;
 
+import com.shopie.backend.dto.ProductSummary;
 import com.shopie.backend.model.Product;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long> {
+    
+    String SUMMARY_SELECT = "SELECT new com.shopie.backend.dto.ProductSummary(p.id, p.nom, p.prix, p.imageUrl, p.stock) " +
+            "FROM Product p ";
+    // Stock disponible : somme des compteurs pour un produit partitionné, sinon stock moins réservations
+    String AVAILABLE_STOCK = "CASE WHEN p.stockShards > 0 " +
+            "THEN CAST(COALESCE((SELECT SUM(s.stock) FROM ProductStockShard s WHERE s.productId = p.id), 0) AS Integer) " +
+            "ELSE p.stock - p.reserved END";
+    // Un produit entièrement retenu par des réservations de checkout actives n'est plus disponible
+    String AVAILABLE_FILTER = " AND (:availableOnly = false OR " + AVAILABLE_STOCK + " > 0)";
+    
     List<Product> findByNomContainingIgnoreCase(String nom);
     List<Product> findByStockGreaterThan(Integer stock);
     
     @Query("SELECT p FROM Product p WHERE p.stock > 0")
     List<Product> findAvailableProducts();
-}
\ No newline at end of file
+    
+    List<Product> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+    
+    List<Product> findByReferenceIn(Collection<String> references);
+    
+    @Query("SELECT MAX(p.id) FROM Product p")
+    Long findMaxId();
+    
+    @Query("SELECT MAX(p.contentUpdatedAt) FROM Product p")
+    LocalDateTime findMaxContentUpdatedAt();
+    
+    @Query("SELECT p.id FROM Product p WHERE p.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+    
+    @Query("SELECT p.id FROM Product p WHERE p.stockShards > 0")
+    List<Long> findShardedIds();
+    
+    // Stock disponible lu en base, indépendamment du cache produit
+    @Query("SELECT " + AVAILABLE_STOCK + " FROM Product p WHERE p.id = :id")
+    Optional<Integer> findAvailableById(@Param("id") Long id);
+    
+    @Query("SELECT new com.shopie.backend.dto.ProductSummary(p.id, p.nom, p.prix, p.imageUrl, " + AVAILABLE_STOCK + ") " +
+            "FROM Product p WHERE p.id IN :ids")
+    List<ProductSummary> findAvailableByIdIn(@Param("ids") Collection<Long> ids);
+    
+    // Décrémentation conditionnelle : 0 ligne modifiée si le stock disponible est insuffisant
+    // ou si le produit est partitionné (son stock est dans ProductStockShard).
+    // released est la quantité réservée par l'acheteur pour ce produit : rendue aux réservations
+    // et comptée comme disponible pour lui. Une requête en masse ne passe pas par l'entité :
+    // version et date de modification sont mises à jour ici
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Product p SET p.stock = p.stock - :quantite, p.reserved = p.reserved - :released, " +
+            "p.version = p.version + 1, p.updatedAt = :now " +
+            "WHERE p.id = :id AND p.stockShards = 0 AND p.stock - p.reserved + :released >= :quantite")
+    int decrementStock(@Param("id") Long id, @Param("quantite") int quantite, @Param("released") int released,
+                       @Param("now") LocalDateTime now);
+    
+    // Réservation conditionnelle, même principe. L'incrément de version fait échouer (verrouillage
+    // optimiste) toute écriture d'entité lue avant : elle écraserait sinon la colonne reserved
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Product p SET p.reserved = p.reserved + :quantite, p.version = p.version + 1, p.updatedAt = :now " +
+            "WHERE p.id = :id AND p.stockShards = 0 AND p.stock - p.reserved >= :quantite")
+    int reserveStock(@Param("id") Long id, @Param("quantite") int quantite, @Param("now") LocalDateTime now);
+    
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Product p SET p.reserved = p.reserved - :quantite, p.version = p.version + 1, p.updatedAt = :now " +
+            "WHERE p.id = :id")
+    int releaseReserved(@Param("id") Long id, @Param("quantite") int quantite, @Param("now") LocalDateTime now);
+    
+    // Pagination par clé (keyset) : le pageable ne sert qu'à limiter le nombre de lignes
+    @Query(SUMMARY_SELECT + "WHERE p.id > :afterId" + AVAILABLE_FILTER + " ORDER BY p.id ASC")
+    List<ProductSummary> findSummariesByIdAsc(@Param("afterId") Long afterId,
+                                              @Param("availableOnly") boolean availableOnly,
+                                              Pageable pageable);
+    
+    @Query(SUMMARY_SELECT + "WHERE p.id < :beforeId" + AVAILABLE_FILTER + " ORDER BY p.id DESC")
+    List<ProductSummary> findSummariesByIdDesc(@Param("beforeId") Long beforeId,
+                                               @Param("availableOnly") boolean availableOnly,
+                                               Pageable pageable);
+    
+    @Query(SUMMARY_SELECT + "WHERE (p.prix > :prix OR (p.prix = :prix AND p.id > :id))" + AVAILABLE_FILTER +
+            " ORDER BY p.prix ASC, p.id ASC")
+    List<ProductSummary> findSummariesByPrixAsc(@Param("prix") BigDecimal prix,
+                                                @Param("id") Long id,
+                                                @Param("availableOnly") boolean availableOnly,
+                                                Pageable pageable);
+    
+    @Query(SUMMARY_SELECT + "WHERE (p.prix < :prix OR (p.prix = :prix AND p.id < :id))" + AVAILABLE_FILTER +
+            " ORDER BY p.prix DESC, p.id DESC")
+    List<ProductSummary> findSummariesByPrixDesc(@Param("prix") BigDecimal prix,
+                                                 @Param("id") Long id,
+                                                 @Param("availableOnly") boolean availableOnly,
+                                                 Pageable pageable);
+}
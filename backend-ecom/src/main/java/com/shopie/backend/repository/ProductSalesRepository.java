@@ -0,0 +1,31 @@
+package com.shopie.backend.repository;
+
+import com.shopie.backend.model.ProductSales;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Repository
+public interface ProductSalesRepository extends JpaRepository<ProductSales, Long> {
+    
+    // Meilleures ventes : parcours de idx_product_sales_units, limité à la page demandée
+    List<ProductSales> findAllByOrderByUnitsDesc(Pageable pageable);
+    
+    @Modifying
+    @Query(value = "INSERT INTO analytics_product_sales (product_id, units, revenue) VALUES (:productId, :units, :revenue) " +
+            "ON DUPLICATE KEY UPDATE units = units + :units, revenue = revenue + :revenue",
+            nativeQuery = true)
+    int increment(@Param("productId") Long productId, @Param("units") long units, @Param("revenue") BigDecimal revenue);
+    
+    @Modifying
+    @Query(value = "INSERT INTO analytics_product_sales (product_id, units, revenue) " +
+            "SELECT oi.product_id, SUM(oi.quantite), SUM(oi.quantite * oi.prix) FROM order_items oi GROUP BY oi.product_id",
+            nativeQuery = true)
+    int rebuildFromOrderItems();
+}
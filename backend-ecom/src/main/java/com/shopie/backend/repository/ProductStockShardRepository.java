@@ -0,0 +1,45 @@
+package com.shopie.backend.repository;
+
+import com.shopie.backend.model.ProductStockShard;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ProductStockShardRepository extends JpaRepository<ProductStockShard, ProductStockShard.Key> {
+    
+    // Stocks des compteurs, indexés par numéro de compteur ; lecture sans verrou ni entités gérées
+    @Query("SELECT s.stock FROM ProductStockShard s WHERE s.productId = :productId ORDER BY s.shard ASC")
+    List<Integer> findStocks(@Param("productId") Long productId);
+    
+    // Compteurs verrouillés : redistribution ou suppression sans prélèvement concurrent
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM ProductStockShard s WHERE s.productId = :productId ORDER BY s.shard ASC")
+    List<ProductStockShard> lockByProductId(@Param("productId") Long productId);
+    
+    // Décrémentation conditionnelle d'un compteur : 0 ligne modifiée s'il ne contient pas assez
+    @Modifying
+    @Query("UPDATE ProductStockShard s SET s.stock = s.stock - :quantite " +
+            "WHERE s.productId = :productId AND s.shard = :shard AND s.stock >= :quantite")
+    int take(@Param("productId") Long productId, @Param("shard") int shard, @Param("quantite") int quantite);
+    
+    @Modifying
+    @Query("UPDATE ProductStockShard s SET s.stock = s.stock + :quantite WHERE s.productId = :productId AND s.shard = :shard")
+    int give(@Param("productId") Long productId, @Param("shard") int shard, @Param("quantite") int quantite);
+    
+    @Modifying
+    @Query("DELETE FROM ProductStockShard s WHERE s.productId = :productId")
+    int deleteByProductId(@Param("productId") Long productId);
+    
+    // Copie de la somme des compteurs dans products.stock (affichage, listes, filtres)
+    @Modifying
+    @Query("UPDATE Product p SET p.stock = (SELECT COALESCE(SUM(s.stock), 0) FROM ProductStockShard s WHERE s.productId = p.id) " +
+            "WHERE p.stockShards > 0")
+    int copyTotalsToProducts();
+}
@@ -0,0 +1,27 @@
+package com.shopie.backend.repository;
+
+import com.shopie.backend.model.StockReservation;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface StockReservationRepository extends JpaRepository<StockReservation, Long> {
+    
+    List<StockReservation> findByUserId(Long userId);
+    
+    @Query("SELECT r FROM StockReservation r WHERE r.expiresAt <= :now ORDER BY r.expiresAt ASC")
+    List<StockReservation> findExpired(@Param("now") LocalDateTime now, Pageable pageable);
+    
+    // Suppression unitaire : 0 si la réservation a déjà été consommée ou libérée par une autre transaction,
+    // ce qui garantit que la quantité n'est rendue qu'une seule fois
+    @Modifying
+    @Query("DELETE FROM StockReservation r WHERE r.id = :id")
+    int deleteHold(@Param("id") Long id);
+}
@@ -0,0 +1,373 @@
+package com.shopie.backend.search;
+
+import com.shopie.backend.model.Product;
+import com.shopie.backend.repository.ProductRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.*;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Index inversé en mémoire sur le nom et la description des produits.
+ * Recherche par préfixe et tolérante aux fautes de frappe, avec un classement BM25.
+ * L'index est sauvegardé sur disque pour éviter de le reconstruire depuis MySQL à chaque démarrage.
+ */
+@Component
+public class ProductSearchIndex implements SmartInitializingSingleton {
+    
+    private static final Logger log = LoggerFactory.getLogger(ProductSearchIndex.class);
+    
+    private static final int SNAPSHOT_MAGIC = 0x53485049; // "SHPI"
+    private static final int SNAPSHOT_VERSION = 3;
+    private static final int REBUILD_BATCH_SIZE = 1000;
+    
+    // Poids des champs et facteurs de correspondance
+    private static final int NOM_WEIGHT = 3;
+    private static final int DESCRIPTION_WEIGHT = 1;
+    private static final double PREFIX_FACTOR = 0.7;
+    private static final double FUZZY_FACTOR = 0.4;
+    private static final double BM25_K1 = 1.2;
+    private static final double BM25_B = 0.75;
+    
+    @Autowired
+    private ProductRepository productRepository;
+    
+    @Value("${search.index.snapshot-path:data/product-search-index.bin}")
+    private String snapshotPath;
+    
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, IndexedDocument> documents = new HashMap<>();
+    private final TreeMap<String, Map<Long, Integer>> postings = new TreeMap<>();
+    private long totalLength;
+    
+    private final AtomicBoolean dirty = new AtomicBoolean(false);
+    
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!loadSnapshot()) {
+            rebuild();
+        }
+    }
+    
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            documents.clear();
+            postings.clear();
+            totalLength = 0;
+            
+            long afterId = 0;
+            List<Product> batch;
+            do {
+                batch = productRepository.findByIdGreaterThanOrderByIdAsc(afterId, PageRequest.of(0, REBUILD_BATCH_SIZE));
+                for (Product product : batch) {
+                    addDocument(product.getId(), analyze(product));
+                    afterId = product.getId();
+                }
+            } while (batch.size() == REBUILD_BATCH_SIZE);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        dirty.set(true);
+        log.info("Index de recherche reconstruit depuis la base: {} produits en {} ms",
+                documents.size(), System.currentTimeMillis() - start);
+        saveSnapshot();
+    }
+    
+    public void index(Product product) {
+        Map<String, Integer> terms = analyze(product);
+        lock.writeLock().lock();
+        try {
+            removeDocument(product.getId());
+            addDocument(product.getId(), terms);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        dirty.set(true);
+    }
+    
+    public void remove(Long productId) {
+        lock.writeLock().lock();
+        try {
+            removeDocument(productId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        dirty.set(true);
+    }
+    
+    public SearchHits search(String query, int page, int size) {
+        List<String> queryTerms = new ArrayList<>(new LinkedHashSet<>(SearchTokenizer.tokenize(query)));
+        if (queryTerms.isEmpty()) {
+            return new SearchHits(List.of(), 0);
+        }
+        
+        Map<Long, Double> scores = new HashMap<>();
+        Map<Long, Integer> matchedTerms = new HashMap<>();
+        
+        lock.readLock().lock();
+        try {
+            if (documents.isEmpty()) {
+                return new SearchHits(List.of(), 0);
+            }
+            double averageLength = (double) totalLength / documents.size();
+            for (String queryTerm : queryTerms) {
+                Map<Long, Double> termScores = scoreQueryTerm(queryTerm, averageLength);
+                termScores.forEach((id, score) -> {
+                    scores.merge(id, score, Double::sum);
+                    matchedTerms.merge(id, 1, Integer::sum);
+                });
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        
+        // Facteur de coordination : un produit qui couvre tous les termes passe devant
+        int termCount = queryTerms.size();
+        List<Map.Entry<Long, Double>> ranked = new ArrayList<>(scores.size());
+        for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+            double coordination = (double) matchedTerms.get(entry.getKey()) / termCount;
+            ranked.add(Map.entry(entry.getKey(), entry.getValue() * coordination));
+        }
+        ranked.sort(Map.Entry.<Long, Double>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()));
+        
+        int from = Math.min(page * size, ranked.size());
+        int to = Math.min(from + size, ranked.size());
+        List<Long> ids = new ArrayList<>(to - from);
+        for (Map.Entry<Long, Double> entry : ranked.subList(from, to)) {
+            ids.add(entry.getKey());
+        }
+        return new SearchHits(ids, ranked.size());
+    }
+    
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${search.index.snapshot-interval-ms:60000}")
+    public void snapshotIfDirty() {
+        if (dirty.get()) {
+            saveSnapshot();
+        }
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        snapshotIfDirty();
+    }
+    
+    // Meilleure contribution par produit pour un terme de la requête : exact, puis préfixe, puis approché
+    private Map<Long, Double> scoreQueryTerm(String queryTerm, double averageLength) {
+        Map<Long, Double> best = new HashMap<>();
+        
+        SortedMap<String, Map<Long, Integer>> prefixMatches = postings.subMap(queryTerm, queryTerm + Character.MAX_VALUE);
+        for (Map.Entry<String, Map<Long, Integer>> entry : prefixMatches.entrySet()) {
+            double factor = entry.getKey().equals(queryTerm) ? 1.0 : PREFIX_FACTOR;
+            accumulate(best, entry.getValue(), factor, averageLength);
+        }
+        
+        if (queryTerm.length() >= 4) {
+            int maxEdits = queryTerm.length() >= 8 ? 2 : 1;
+            String first = queryTerm.substring(0, 1);
+            SortedMap<String, Map<Long, Integer>> candidates = postings.subMap(first, first + Character.MAX_VALUE);
+            for (Map.Entry<String, Map<Long, Integer>> entry : candidates.entrySet()) {
+                String term = entry.getKey();
+                if (term.startsWith(queryTerm)) {
+                    continue;
+                }
+                if (SearchTokenizer.boundedEditDistance(queryTerm, term, maxEdits) <= maxEdits) {
+                    accumulate(best, entry.getValue(), FUZZY_FACTOR, averageLength);
+                }
+            }
+        }
+        return best;
+    }
+    
+    private void accumulate(Map<Long, Double> best, Map<Long, Integer> posting, double factor, double averageLength) {
+        double idf = Math.log(1 + (documents.size() - posting.size() + 0.5) / (posting.size() + 0.5));
+        for (Map.Entry<Long, Integer> entry : posting.entrySet()) {
+            int weight = entry.getValue();
+            int length = documents.get(entry.getKey()).length();
+            double tf = weight * (BM25_K1 + 1) / (weight + BM25_K1 * (1 - BM25_B + BM25_B * length / averageLength));
+            best.merge(entry.getKey(), factor * idf * tf, Math::max);
+        }
+    }
+    
+    private Map<String, Integer> analyze(Product product) {
+        Map<String, Integer> terms = new HashMap<>();
+        for (String token : SearchTokenizer.tokenize(product.getNom())) {
+            terms.merge(token, NOM_WEIGHT, Integer::sum);
+        }
+        for (String token : SearchTokenizer.tokenize(product.getDescription())) {
+            terms.merge(token, DESCRIPTION_WEIGHT, Integer::sum);
+        }
+        return terms;
+    }
+    
+    // Appelé sous verrou d'écriture
+    private void addDocument(Long id, Map<String, Integer> terms) {
+        int length = 0;
+        for (Map.Entry<String, Integer> term : terms.entrySet()) {
+            postings.computeIfAbsent(term.getKey(), k -> new HashMap<>()).put(id, term.getValue());
+            length += term.getValue();
+        }
+        documents.put(id, new IndexedDocument(terms, length));
+        totalLength += length;
+    }
+    
+    // Appelé sous verrou d'écriture
+    private void removeDocument(Long id) {
+        IndexedDocument previous = documents.remove(id);
+        if (previous == null) {
+            return;
+        }
+        for (String term : previous.terms().keySet()) {
+            Map<Long, Integer> posting = postings.get(term);
+            if (posting != null) {
+                posting.remove(id);
+                if (posting.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+        totalLength -= previous.length();
+    }
+    
+    // Le filigrane est lu après la remise à zéro de dirty : une indexation qui suit repasse l'index à sauvegarder
+    private synchronized void saveSnapshot() {
+        Path target = Paths.get(snapshotPath);
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        dirty.set(false);
+        String watermark;
+        try {
+            watermark = watermark();
+        } catch (DataAccessException e) {
+            dirty.set(true);
+            log.warn("Impossible de lire le filigrane de l'index de recherche: {}", e.getMessage());
+            return;
+        }
+        lock.readLock().lock();
+        try {
+            if (target.getParent() != null) {
+                Files.createDirectories(target.getParent());
+            }
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(SNAPSHOT_MAGIC);
+                out.writeInt(SNAPSHOT_VERSION);
+                out.writeInt(documents.size());
+                out.writeLong(documents.keySet().stream().mapToLong(Long::longValue).max().orElse(0));
+                out.writeUTF(watermark);
+                for (Map.Entry<Long, IndexedDocument> document : documents.entrySet()) {
+                    out.writeLong(document.getKey());
+                    out.writeInt(document.getValue().terms().size());
+                    for (Map.Entry<String, Integer> term : document.getValue().terms().entrySet()) {
+                        out.writeUTF(term.getKey());
+                        out.writeInt(term.getValue());
+                    }
+                }
+            }
+        } catch (IOException e) {
+            dirty.set(true);
+            log.warn("Impossible d'écrire l'instantané de l'index de recherche: {}", e.getMessage());
+            return;
+        } finally {
+            lock.readLock().unlock();
+        }
+        try {
+            try {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            dirty.set(true);
+            log.warn("Impossible de publier l'instantané de l'index de recherche: {}", e.getMessage());
+        }
+    }
+    
+    /**
+     * L'instantané n'est réutilisé que s'il couvre le même nombre de produits et le même identifiant maximal qu'en base,
+     * et si aucun contenu de produit n'a été modifié depuis son écriture (contentUpdatedAt le plus récent inchangé).
+     * Les ventes et réservations ne touchent que le stock : elles n'invalident pas l'instantané.
+     * Une suppression change le nombre de produits ; une création ou un import qui le rétablirait change le filigrane.
+     */
+    boolean loadSnapshot() {
+        Path path = Paths.get(snapshotPath);
+        if (!Files.isReadable(path)) {
+            return false;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != SNAPSHOT_MAGIC || in.readInt() != SNAPSHOT_VERSION) {
+                log.info("Instantané de l'index de recherche dans un format inconnu, reconstruction");
+                return false;
+            }
+            int documentCount = in.readInt();
+            long maxId = in.readLong();
+            String watermark = in.readUTF();
+            Long databaseMaxId = productRepository.findMaxId();
+            if (documentCount != productRepository.count() || maxId != (databaseMaxId != null ? databaseMaxId : 0)
+                    || !watermark.equals(watermark())) {
+                log.info("Instantané de l'index de recherche périmé, reconstruction");
+                return false;
+            }
+            
+            lock.writeLock().lock();
+            try {
+                documents.clear();
+                postings.clear();
+                totalLength = 0;
+                for (int i = 0; i < documentCount; i++) {
+                    long id = in.readLong();
+                    int termCount = in.readInt();
+                    Map<String, Integer> terms = new HashMap<>(termCount * 2);
+                    for (int t = 0; t < termCount; t++) {
+                        terms.put(in.readUTF(), in.readInt());
+                    }
+                    addDocument(id, terms);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.info("Index de recherche chargé depuis {}: {} produits", path, documentCount);
+            return true;
+        } catch (IOException e) {
+            log.warn("Instantané de l'index de recherche illisible ({}), reconstruction", e.getMessage());
+            return false;
+        }
+    }
+    
+    // Date de la dernière modification de contenu du catalogue, vide s'il n'y a aucun produit
+    private String watermark() {
+        LocalDateTime maxContentUpdatedAt = productRepository.findMaxContentUpdatedAt();
+        return maxContentUpdatedAt != null ? maxContentUpdatedAt.toString() : "";
+    }
+    
+    private record IndexedDocument(Map<String, Integer> terms, int length) {
+    }
+    
+    public record SearchHits(List<Long> ids, long total) {
+    }
+}
@@ -1,6 +1,8 @@
 package com.shopie.backend.security;
 
+import com.shopie.backend.model.User;
 import com.shopie.backend.service.UserDetailsServiceImpl;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -8,7 +10,6 @@ import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -23,17 +24,19 @@ public class JwtAuthTokenFilter extends OncePerRequestFilter {
     @Autowired
     private UserDetailsServiceImpl userDetailsService;
     
+    @Autowired
+    private UserPrincipalCache principalCache;
+    
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
                                     FilterChain filterChain) throws ServletException, IOException {
         try {
             String jwt = parseJwt(request);
-            if (jwt != null && jwtUtils.validateJwtToken(jwt)) {
-                String username = jwtUtils.getUserNameFromJwtToken(jwt);
-                
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+            Claims claims = jwt != null ? jwtUtils.parseValidClaims(jwt) : null;
+            User user = claims != null ? resolveUser(claims) : null;
+            if (user != null) {
                 UsernamePasswordAuthenticationToken authentication = 
-                    new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+                    new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
                 authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 
                 SecurityContextHolder.getContext().setAuthentication(authentication);
@@ -45,6 +48,32 @@ public class JwtAuthTokenFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
     
+    // Le rôle porté par le token sert de contrôle de fraîcheur. S'il diffère de la copie en cache,
+    // celle-ci n'est rechargée que si elle est antérieure au token (rôle modifié depuis, sur une
+    // autre instance par exemple). Sinon c'est le token qui est périmé : il est refusé (401)
+    // jusqu'à une nouvelle connexion, sans requête SQL à chaque appel
+    private User resolveUser(Claims claims) {
+        String username = claims.getSubject();
+        String role = claims.get(JwtUtils.CLAIM_ROLE, String.class);
+        
+        UserPrincipalCache.Snapshot principal = principalCache.get(username);
+        if (principal == null || (!matches(principal, role) && principal.loadedBefore(claims.getIssuedAt()))) {
+            principal = principalCache.put((User) userDetailsService.loadUserByUsername(username));
+        }
+        if (!matches(principal, role)) {
+            // Le logger commons-logging du filtre n'a pas de message paramétré : pas de concaténation hors debug
+            if (logger.isDebugEnabled()) {
+                logger.debug("Token refusé : rôle " + role + " périmé pour " + username);
+            }
+            return null;
+        }
+        return principal.toUser();
+    }
+    
+    private static boolean matches(UserPrincipalCache.Snapshot principal, String role) {
+        return role == null || role.equals(principal.role().name());
+    }
+    
     private String parseJwt(HttpServletRequest request) {
         String headerAuth = request.getHeader("Authorization");
         
@@ -54,4 +83,4 @@ public class JwtAuthTokenFilter extends OncePerRequestFilter {
         
         return null;
     }
-}
\ No newline at end of file
+}
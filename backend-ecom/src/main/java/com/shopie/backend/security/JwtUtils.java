@@ -1,32 +1,117 @@
 package com.shopie.backend.security;
 
+import com.shopie.backend.model.User;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 @Component
 public class JwtUtils {
     
+    private static final Logger logger = LoggerFactory.getLogger(JwtUtils.class);
+    
+    public static final String CLAIM_USER_ID = "id";
+    public static final String CLAIM_ROLE = "role";
+    
     @Value("${jwt.secret}")
     private String jwtSecret;
     
+    @Value("${jwt.key-id:current}")
+    private String jwtKeyId;
+    
+    // Ancienne clé encore acceptée en vérification pendant une rotation
+    @Value("${jwt.previous-secret:}")
+    private String previousJwtSecret;
+    
+    @Value("${jwt.previous-key-id:previous}")
+    private String previousJwtKeyId;
+    
     @Value("${jwt.expiration}")
     private int jwtExpirationMs;
     
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    // Durée de vérification (signature + expiration) d'un token, par résultat
+    private Timer validVerifyTimer;
+    private Timer invalidVerifyTimer;
+    
+    // Clés et parser construits une seule fois au démarrage : immuables et thread-safe
+    private SecretKey signingKey;
+    private Map<String, SecretKey> verificationKeys;
+    private JwtParser jwtParser;
+    
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        
+        Map<String, SecretKey> keys = new HashMap<>();
+        keys.put(jwtKeyId, signingKey);
+        if (StringUtils.hasText(previousJwtSecret)) {
+            if (previousJwtKeyId.equals(jwtKeyId)) {
+                throw new IllegalStateException("jwt.previous-key-id doit être différent de jwt.key-id");
+            }
+            keys.put(previousJwtKeyId, Keys.hmacShaKeyFor(previousJwtSecret.getBytes(StandardCharsets.UTF_8)));
+        }
+        verificationKeys = Map.copyOf(keys);
+        
+        validVerifyTimer = verifyTimer("valid");
+        invalidVerifyTimer = verifyTimer("invalid");
+        
+        jwtParser = Jwts.parser()
+                .keyLocator(new LocatorAdapter<Key>() {
+                    @Override
+                    protected Key locate(ProtectedHeader header) {
+                        return resolveVerificationKey(header.getKeyId());
+                    }
+                })
+                .build();
+    }
+    
+    private Timer verifyTimer(String outcome) {
+        return Timer.builder("jwt.verify")
+                .description("Vérification des tokens JWT")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+    
+    // Les tokens émis avant l'introduction du "kid" sont vérifiés avec la clé courante
+    private SecretKey resolveVerificationKey(String keyId) {
+        if (keyId == null) {
+            return signingKey;
+        }
+        SecretKey key = verificationKeys.get(keyId);
+        if (key == null) {
+            throw new UnsupportedJwtException("Identifiant de clé JWT inconnu: " + keyId);
+        }
+        return key;
     }
     
     public String generateJwtToken(UserDetails userPrincipal) {
-        return generateTokenFromUsername(userPrincipal.getUsername());
+        Map<String, Object> claims = new HashMap<>();
+        if (userPrincipal instanceof User user) {
+            claims.put(CLAIM_USER_ID, user.getId());
+            claims.put(CLAIM_ROLE, user.getRole().name());
+        }
+        return createToken(claims, userPrincipal.getUsername());
     }
     
     public String generateTokenFromUsername(String username) {
@@ -35,12 +120,14 @@ public class JwtUtils {
     }
     
     private String createToken(Map<String, Object> claims, String subject) {
+        long now = System.currentTimeMillis();
         return Jwts.builder()
+                .header().keyId(jwtKeyId).and()
                 .claims(claims)
                 .subject(subject)
-                .issuedAt(new Date(System.currentTimeMillis()))
-                .expiration(new Date(System.currentTimeMillis() + jwtExpirationMs))
-                .signWith(getSigningKey())
+                .issuedAt(new Date(now))
+                .expiration(new Date(now + jwtExpirationMs))
+                .signWith(signingKey)
                 .compact();
     }
     
@@ -58,11 +145,7 @@ public class JwtUtils {
     }
     
     private Claims getAllClaimsFromToken(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        return jwtParser.parseSignedClaims(token).getPayload();
     }
     
     private Boolean isTokenExpired(String token) {
@@ -76,18 +159,31 @@ public class JwtUtils {
     }
     
     public Boolean validateJwtToken(String authToken) {
+        return parseValidClaims(authToken) != null;
+    }
+    
+    /**
+     * Vérifie la signature et l'expiration en une seule analyse du token.
+     * Retourne les claims (sujet, id, rôle) ou null si le token est invalide.
+     */
+    public Claims parseValidClaims(String authToken) {
+        long start = System.nanoTime();
         try {
-            Jwts.parser().verifyWith(getSigningKey()).build().parseSignedClaims(authToken);
-            return true;
+            Claims claims = getAllClaimsFromToken(authToken);
+            validVerifyTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return claims;
         } catch (MalformedJwtException e) {
-            System.err.println("Invalid JWT token: " + e.getMessage());
+            logger.debug("Invalid JWT token: {}", e.getMessage());
         } catch (ExpiredJwtException e) {
-            System.err.println("JWT token is expired: " + e.getMessage());
+            logger.debug("JWT token is expired: {}", e.getMessage());
         } catch (UnsupportedJwtException e) {
-            System.err.println("JWT token is unsupported: " + e.getMessage());
+            logger.debug("JWT token is unsupported: {}", e.getMessage());
+        } catch (JwtException e) {
+            logger.debug("Invalid JWT signature: {}", e.getMessage());
         } catch (IllegalArgumentException e) {
-            System.err.println("JWT claims string is empty: " + e.getMessage());
+            logger.debug("JWT claims string is empty: {}", e.getMessage());
         }
-        return false;
+        invalidVerifyTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return null;
     }
-}
\ No newline at end of file
+}
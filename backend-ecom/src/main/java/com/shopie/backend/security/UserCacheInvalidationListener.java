@@ -0,0 +1,24 @@
+package com.shopie.backend.security;
+
+import com.shopie.backend.model.User;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Retire un utilisateur du cache des principaux dès qu'il est modifié (rôle, mot de passe...)
+ * ou supprimé via JPA, pour que le prochain appel authentifié recharge l'état à jour.
+ */
+@Component
+public class UserCacheInvalidationListener {
+    
+    @Autowired
+    private UserPrincipalCache principalCache;
+    
+    @PostUpdate
+    @PostRemove
+    public void evict(User user) {
+        principalCache.evict(user.getEmail());
+    }
+}
@@ -0,0 +1,68 @@
+package com.shopie.backend.security;
+
+import com.shopie.backend.cache.BoundedTtlCache;
+import com.shopie.backend.model.User;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+
+/**
+ * Cache des utilisateurs authentifiés, placé devant UserRepository.findByEmail
+ * pour éviter une requête SQL à chaque appel authentifié.
+ *
+ * Le cache garde une copie immuable des champs utiles (jamais l'entité, ses collections
+ * paresseuses ni son mot de passe) : chaque requête reçoit son propre objet User.
+ */
+@Component
+public class UserPrincipalCache {
+    
+    private final BoundedTtlCache<String, Snapshot> cache;
+    
+    public UserPrincipalCache(@Value("${security.principal-cache.max-size:10000}") int maxSize,
+                              @Value("${security.principal-cache.ttl-ms:60000}") long ttlMs) {
+        this.cache = new BoundedTtlCache<>(maxSize, ttlMs);
+    }
+    
+    public Snapshot get(String email) {
+        return cache.get(email);
+    }
+    
+    public Snapshot put(User user) {
+        Snapshot snapshot = new Snapshot(user.getId(), user.getNom(), user.getEmail(), user.getRole(),
+                System.currentTimeMillis());
+        cache.put(user.getEmail(), snapshot);
+        return snapshot;
+    }
+    
+    public void evict(String email) {
+        cache.invalidate(email);
+    }
+    
+    public void evictAll() {
+        cache.invalidateAll();
+    }
+    
+    public BoundedTtlCache.CacheStats stats() {
+        return cache.stats();
+    }
+    
+    public record Snapshot(Long id, String nom, String email, User.Role role, long loadedAtMillis) {
+        
+        // Lu en base avant l'émission du token (à la seconde près, précision de "iat") :
+        // le token peut porter un état plus récent que cette copie
+        public boolean loadedBefore(Date issuedAt) {
+            return issuedAt != null && loadedAtMillis < issuedAt.getTime() + 1000;
+        }
+        
+        // Principal propre à la requête, détaché et sans collections
+        public User toUser() {
+            User user = new User();
+            user.setId(id);
+            user.setNom(nom);
+            user.setEmail(email);
+            user.setRole(role);
+            return user;
+        }
+    }
+}
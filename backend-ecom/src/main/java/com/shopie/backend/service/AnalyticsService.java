@@ -0,0 +1,166 @@
+package com.shopie.backend.service;
+
+import com.shopie.backend.dto.OrderStatusTally;
+import com.shopie.backend.dto.PaymentTally;
+import com.shopie.backend.dto.ProductSalesView;
+import com.shopie.backend.exception.BadRequestException;
+import com.shopie.backend.model.*;
+import com.shopie.backend.repository.DailyRevenueRepository;
+import com.shopie.backend.repository.OrderStatusCountRepository;
+import com.shopie.backend.repository.PaymentMethodStatsRepository;
+import com.shopie.backend.repository.ProductSalesRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Agrégats analytiques tenus à jour de façon incrémentale : chiffre d'affaires par jour, ventes
+ * par produit, commandes par statut et paiements par méthode.
+ *
+ * Les incréments sont des upserts atomiques exécutés dans la transaction de l'opération métier :
+ * une commande annulée n'est pas comptée. Les lignes d'agrégat sont toujours modifiées dans le
+ * même ordre (jour, statut, produits par identifiant croissant) pour éviter les interblocages.
+ * Les lectures ne parcourent que les agrégats, jamais les commandes ou paiements.
+ */
+@Service
+public class AnalyticsService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(AnalyticsService.class);
+    
+    public static final int MAX_REVENUE_DAYS = 366;
+    public static final int MAX_TOP_PRODUCTS = 100;
+    
+    @Autowired
+    private DailyRevenueRepository dailyRevenueRepository;
+    
+    @Autowired
+    private ProductSalesRepository productSalesRepository;
+    
+    @Autowired
+    private OrderStatusCountRepository orderStatusCountRepository;
+    
+    @Autowired
+    private PaymentMethodStatsRepository paymentMethodStatsRepository;
+    
+    @Autowired
+    private ProductService productService;
+    
+    @Transactional
+    public void recordOrder(Order order) {
+        dailyRevenueRepository.increment(order.getDate().toLocalDate(), 1, order.getTotal());
+        orderStatusCountRepository.increment(order.getStatut().name(), 1);
+        
+        Map<Long, long[]> units = new TreeMap<>();
+        Map<Long, BigDecimal> revenue = new TreeMap<>();
+        for (OrderItem item : order.getOrderItems()) {
+            Long productId = item.getProduct().getId();
+            units.computeIfAbsent(productId, id -> new long[1])[0] += item.getQuantite();
+            revenue.merge(productId, item.getPrix().multiply(BigDecimal.valueOf(item.getQuantite())), BigDecimal::add);
+        }
+        units.forEach((productId, count) -> productSalesRepository.increment(productId, count[0], revenue.get(productId)));
+    }
+    
+    @Transactional
+    public void recordOrderStatusChanges(List<OrderStatusTally> previous, Order.Statut newStatus) {
+        Map<Order.Statut, Long> deltas = new TreeMap<>();
+        for (OrderStatusTally tally : previous) {
+            deltas.merge(tally.getStatut(), -tally.getCount(), Long::sum);
+            deltas.merge(newStatus, tally.getCount(), Long::sum);
+        }
+        deltas.forEach((statut, delta) -> {
+            if (delta != 0) {
+                orderStatusCountRepository.increment(statut.name(), delta);
+            }
+        });
+    }
+    
+    @Transactional
+    public void recordPayment(Payment payment) {
+        recordPaymentDelta(payment.getMethode(), payment.getStatut(), 1, payment.getMontant(), true);
+    }
+    
+    @Transactional
+    public void recordPaymentStatusChanges(List<PaymentTally> previous, Payment.Statut newStatus) {
+        for (PaymentTally tally : previous.stream().sorted(Comparator.comparing(PaymentTally::getMethode)).toList()) {
+            recordPaymentDelta(tally.getMethode(), tally.getStatut(), -tally.getCount(), tally.getMontant().negate(), false);
+            recordPaymentDelta(tally.getMethode(), newStatus, tally.getCount(), tally.getMontant(), false);
+        }
+    }
+    
+    // count et montant sont négatifs pour retirer des paiements d'un statut
+    private void recordPaymentDelta(String methode, Payment.Statut statut, long count, BigDecimal montant, boolean created) {
+        paymentMethodStatsRepository.increment(methode,
+                created ? count : 0,
+                statut == Payment.Statut.PENDING ? count : 0,
+                statut == Payment.Statut.PAID ? count : 0,
+                statut == Payment.Statut.FAILED ? count : 0,
+                created ? montant : BigDecimal.ZERO,
+                statut == Payment.Statut.PAID ? montant : BigDecimal.ZERO);
+    }
+    
+    public List<DailyRevenue> getDailyRevenue(LocalDate from, LocalDate to) {
+        LocalDate end = to != null ? to : LocalDate.now().plusDays(1);
+        LocalDate start = from != null ? from : end.minusDays(30);
+        if (!start.isBefore(end)) {
+            throw new BadRequestException("La date de début doit précéder la date de fin");
+        }
+        if (ChronoUnit.DAYS.between(start, end) > MAX_REVENUE_DAYS) {
+            throw new BadRequestException("La période ne peut pas dépasser " + MAX_REVENUE_DAYS + " jours");
+        }
+        return dailyRevenueRepository.findByJourGreaterThanEqualAndJourLessThanOrderByJourAsc(start, end);
+    }
+    
+    public List<ProductSalesView> getTopProducts(Integer limit) {
+        int size = limit == null ? ProductService.DEFAULT_PAGE_SIZE : Math.min(Math.max(limit, 1), MAX_TOP_PRODUCTS);
+        List<ProductSales> sales = productSalesRepository.findAllByOrderByUnitsDesc(PageRequest.of(0, size));
+        Map<Long, Product> products = productService.getProductsByIds(sales.stream().map(ProductSales::getProductId).toList());
+        return sales.stream()
+                .map(line -> {
+                    Product product = products.get(line.getProductId());
+                    return new ProductSalesView(line.getProductId(), product != null ? product.getNom() : null,
+                            line.getUnits(), line.getRevenue());
+                })
+                .toList();
+    }
+    
+    public List<OrderStatusCount> getOrderStatusCounts() {
+        return orderStatusCountRepository.findAll(Sort.by("statut"));
+    }
+    
+    public List<PaymentMethodStats> getPaymentMethodStats() {
+        return paymentMethodStatsRepository.findAll(Sort.by("methode"));
+    }
+    
+    /**
+     * Recalcule tous les agrégats depuis l'historique (reprise initiale ou correction d'écart).
+     * Une seule transaction : les lectures concurrentes voient les anciens agrégats jusqu'au commit.
+     * Les écritures de commandes et paiements sont bloquées pendant le recalcul : à lancer hors pointe.
+     */
+    @Transactional
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        dailyRevenueRepository.deleteAllInBatch();
+        productSalesRepository.deleteAllInBatch();
+        orderStatusCountRepository.deleteAllInBatch();
+        paymentMethodStatsRepository.deleteAllInBatch();
+        
+        int days = dailyRevenueRepository.rebuildFromOrders();
+        int products = productSalesRepository.rebuildFromOrderItems();
+        int statuses = orderStatusCountRepository.rebuildFromOrders();
+        int methods = paymentMethodStatsRepository.rebuildFromPayments();
+        logger.info("Agrégats analytiques recalculés en {} ms : {} jours, {} produits, {} statuts, {} méthodes de paiement",
+                System.currentTimeMillis() - start, days, products, statuses, methods);
+    }
+}
@@ -7,6 +7,8 @@ import com.shopie.backend.exception.BadRequestException;
 import com.shopie.backend.model.User;
 import com.shopie.backend.repository.UserRepository;
 import com.shopie.backend.security.JwtUtils;
+import com.shopie.backend.security.PasswordHashingExecutor;
+import com.shopie.backend.security.UserPrincipalCache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -31,14 +33,22 @@ public class AuthService {
     @Autowired
     JwtUtils jwtUtils;
     
+    @Autowired
+    UserPrincipalCache principalCache;
+    
+    @Autowired
+    PasswordHashingExecutor hashingExecutor;
+    
     public AuthResponse authenticateUser(AuthRequest loginRequest) {
-        Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(loginRequest.getEmail(), loginRequest.getMotDePasse()));
+        // Vérification BCrypt (et éventuelle mise à niveau du hash) sur le pool dédié
+        Authentication authentication = hashingExecutor.execute(() -> authenticationManager.authenticate(
+                new UsernamePasswordAuthenticationToken(loginRequest.getEmail(), loginRequest.getMotDePasse())));
         
         SecurityContextHolder.getContext().setAuthentication(authentication);
         String jwt = jwtUtils.generateJwtToken((UserDetails) authentication.getPrincipal());
         
         User user = (User) authentication.getPrincipal();
+        principalCache.put(user);
         
         return new AuthResponse(jwt, user.getId(), user.getNom(), user.getEmail(), user.getRole().name());
     }
@@ -52,16 +62,14 @@ public class AuthService {
         User user = new User();
         user.setNom(signUpRequest.getNom());
         user.setEmail(signUpRequest.getEmail());
-        user.setMotDePasse(encoder.encode(signUpRequest.getMotDePasse()));
+        user.setMotDePasse(hashingExecutor.execute(() -> encoder.encode(signUpRequest.getMotDePasse())));
         user.setRole(User.Role.USER);
         
-        userRepository.save(user);
-        
-        // Authentifier automatiquement l'utilisateur après inscription
-        Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(signUpRequest.getEmail(), signUpRequest.getMotDePasse()));
+        user = userRepository.save(user);
         
-        String jwt = jwtUtils.generateJwtToken((UserDetails) authentication.getPrincipal());
+        // Le mot de passe vient d'être haché : le token est émis directement, sans seconde vérification BCrypt
+        String jwt = jwtUtils.generateJwtToken(user);
+        principalCache.put(user);
         
         return new AuthResponse(jwt, user.getId(), user.getNom(), user.getEmail(), user.getRole().name());
     }
@@ -1,92 +1,198 @@
 package com.shopie.backend.service;
 
+import com.shopie.backend.cart.CartStore;
+import com.shopie.backend.dto.CartBatchRequest;
+import com.shopie.backend.dto.CartBatchResponse;
 import com.shopie.backend.dto.CartItemRequest;
+import com.shopie.backend.dto.CartLineView;
+import com.shopie.backend.dto.CartView;
 import com.shopie.backend.exception.BadRequestException;
 import com.shopie.backend.exception.ResourceNotFoundException;
-import com.shopie.backend.model.CartItem;
 import com.shopie.backend.model.Product;
 import com.shopie.backend.model.User;
-import com.shopie.backend.repository.CartItemRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 public class CartService {
     
     @Autowired
-    private CartItemRepository cartItemRepository;
+    private CartStore cartStore;
     
     @Autowired
     private ProductService productService;
     
-    public List<CartItem> getCartItems(User user) {
-        return cartItemRepository.findByUser(user);
+    // Lignes du panier : productId -> quantité
+    public Map<Long, Integer> getCartLines(User user) {
+        return cartStore.getLines(user.getId());
     }
     
-    @Transactional
-    public CartItem addToCart(User user, CartItemRequest request) {
+    // Panier et produits servis par les caches : aucune requête SQL quand ils sont en mémoire
+    public CartView getCartView(User user) {
+        Map<Long, Integer> lines = cartStore.getLines(user.getId());
+        Map<Long, Product> products = productService.getProductsByIds(lines.keySet());
+        List<CartLineView> items = lines.entrySet().stream()
+                .filter(line -> products.containsKey(line.getKey()))
+                .map(line -> CartLineView.of(products.get(line.getKey()), line.getValue()))
+                .toList();
+        return CartView.of(items);
+    }
+    
+    public CartLineView addToCart(User user, CartItemRequest request) {
+        // Produit servi par le cache, stock relu en base
         Product product = productService.getProductById(request.getProductId());
+        int stock = productService.getStock(product.getId());
         
-        if (product.getStock() < request.getQuantite()) {
-            throw new BadRequestException("Stock insuffisant pour ce produit");
+        int quantite = cartStore.mutate(user.getId(), lines -> {
+            Integer current = lines.get(product.getId());
+            int newQuantity = (current != null ? current : 0) + request.getQuantite();
+            if (stock < newQuantity) {
+                throw new BadRequestException(current == null
+                        ? "Stock insuffisant pour ce produit"
+                        : "Stock insuffisant pour cette quantité");
+            }
+            lines.put(product.getId(), newQuantity);
+            return newQuantity;
+        });
+        return CartLineView.of(product, quantite);
+    }
+    
+    public CartLineView updateCartItem(User user, Long productId, Integer quantite) {
+        if (quantite == null || quantite < 1) {
+            throw new BadRequestException("La quantité doit être au moins 1");
+        }
+        if (!cartStore.getLines(user.getId()).containsKey(productId)) {
+            throw new ResourceNotFoundException("Article du panier non trouvé");
+        }
+        Product product = productService.getProductById(productId);
+        if (productService.getStock(productId) < quantite) {
+            throw new BadRequestException("Stock insuffisant pour cette quantité");
         }
         
-        Optional<CartItem> existingCartItem = cartItemRepository.findByUserAndProduct(user, product);
+        cartStore.mutate(user.getId(), lines -> {
+            if (lines.replace(productId, quantite) == null) {
+                throw new ResourceNotFoundException("Article du panier non trouvé");
+            }
+            return null;
+        });
+        return CartLineView.of(product, quantite);
+    }
+    
+    public void removeFromCart(User user, Long productId) {
+        cartStore.mutate(user.getId(), lines -> {
+            if (lines.remove(productId) == null) {
+                throw new ResourceNotFoundException("Article du panier non trouvé");
+            }
+            return null;
+        });
+    }
+    
+    /**
+     * Applique un lot d'opérations en une seule modification du panier. Produits (cache) et stocks
+     * sont lus une fois pour tout le lot ; une opération invalide est signalée dans son résultat
+     * sans empêcher les autres.
+     */
+    public CartBatchResponse applyBatch(User user, CartBatchRequest request) {
+        List<CartBatchRequest.Operation> operations = request.getOperations();
+        Set<Long> productIds = operations.stream()
+                .map(CartBatchRequest.Operation::getProductId)
+                .collect(Collectors.toSet());
+        Map<Long, Product> products = productService.getProductsByIds(productIds);
+        Map<Long, Integer> stocks = productService.getStocks(products.keySet());
         
-        if (existingCartItem.isPresent()) {
-            CartItem cartItem = existingCartItem.get();
-            int newQuantity = cartItem.getQuantite() + request.getQuantite();
-            
-            if (product.getStock() < newQuantity) {
-                throw new BadRequestException("Stock insuffisant pour cette quantité");
+        BatchOutcome outcome = cartStore.mutate(user.getId(), lines -> {
+            List<CartBatchResponse.LineResult> results = new ArrayList<>(operations.size());
+            for (int i = 0; i < operations.size(); i++) {
+                results.add(applyOperation(i, operations.get(i), lines, stocks));
             }
-            
-            cartItem.setQuantite(newQuantity);
-            return cartItemRepository.save(cartItem);
-        } else {
-            CartItem cartItem = new CartItem();
-            cartItem.setUser(user);
-            cartItem.setProduct(product);
-            cartItem.setQuantite(request.getQuantite());
-            return cartItemRepository.save(cartItem);
-        }
+            return new BatchOutcome(results, Map.copyOf(lines));
+        });
+        
+        Map<Long, Product> cartProducts = productService.getProductsByIds(outcome.lines().keySet());
+        List<CartLineView> items = outcome.lines().entrySet().stream()
+                .filter(line -> cartProducts.containsKey(line.getKey()))
+                .map(line -> CartLineView.of(cartProducts.get(line.getKey()), line.getValue()))
+                .toList();
+        return new CartBatchResponse(outcome.results(), CartView.of(items));
     }
     
-    @Transactional
-    public CartItem updateCartItem(User user, Long cartItemId, Integer quantite) {
-        CartItem cartItem = cartItemRepository.findById(cartItemId)
-                .orElseThrow(() -> new ResourceNotFoundException("Article du panier non trouvé"));
+    private CartBatchResponse.LineResult applyOperation(int index, CartBatchRequest.Operation operation,
+                                                        Map<Long, Integer> lines, Map<Long, Integer> stocks) {
+        Long productId = operation.getProductId();
+        Integer current = lines.get(productId);
         
-        if (!cartItem.getUser().getId().equals(user.getId())) {
-            throw new BadRequestException("Vous n'êtes pas autorisé à modifier cet article");
+        if (operation.getAction() == CartBatchRequest.Action.REMOVE) {
+            if (current == null) {
+                return CartBatchResponse.LineResult.failed(index, operation, "Article du panier non trouvé");
+            }
+            lines.remove(productId);
+            return CartBatchResponse.LineResult.ok(index, operation, 0);
         }
         
-        if (cartItem.getProduct().getStock() < quantite) {
-            throw new BadRequestException("Stock insuffisant pour cette quantité");
+        if (operation.getQuantite() == null) {
+            return CartBatchResponse.LineResult.failed(index, operation, "La quantité est obligatoire");
+        }
+        Integer stock = stocks.get(productId);
+        if (stock == null) {
+            return CartBatchResponse.LineResult.failed(index, operation, "Produit non trouvé avec l'ID: " + productId);
         }
         
-        cartItem.setQuantite(quantite);
-        return cartItemRepository.save(cartItem);
+        int newQuantity;
+        if (operation.getAction() == CartBatchRequest.Action.ADD) {
+            newQuantity = (current != null ? current : 0) + operation.getQuantite();
+        } else {
+            if (current == null) {
+                return CartBatchResponse.LineResult.failed(index, operation, "Article du panier non trouvé");
+            }
+            newQuantity = operation.getQuantite();
+        }
+        if (stock < newQuantity) {
+            return CartBatchResponse.LineResult.failed(index, operation, current == null
+                    ? "Stock insuffisant pour ce produit"
+                    : "Stock insuffisant pour cette quantité");
+        }
+        lines.put(productId, newQuantity);
+        return CartBatchResponse.LineResult.ok(index, operation, newQuantity);
     }
     
-    @Transactional
-    public void removeFromCart(User user, Long cartItemId) {
-        CartItem cartItem = cartItemRepository.findById(cartItemId)
-                .orElseThrow(() -> new ResourceNotFoundException("Article du panier non trouvé"));
-        
-        if (!cartItem.getUser().getId().equals(user.getId())) {
-            throw new BadRequestException("Vous n'êtes pas autorisé à supprimer cet article");
+    public void clearCart(User user) {
+        cartStore.mutate(user.getId(), lines -> {
+            lines.clear();
+            return null;
+        });
+    }
+    
+    /**
+     * Retranche les quantités commandées du panier une fois la transaction de commande validée :
+     * une commande annulée laisse le panier intact, une quantité ajoutée pendant la commande est conservée
+     * et seules les lignes retombées à zéro disparaissent.
+     */
+    public void removeOrderedProducts(User user, Map<Long, Integer> orderedLines) {
+        Runnable removal = () -> cartStore.mutate(user.getId(), lines -> {
+            orderedLines.forEach((productId, quantite) ->
+                    lines.computeIfPresent(productId, (id, current) -> current > quantite ? current - quantite : null));
+            return null;
+        });
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    removal.run();
+                }
+            });
+        } else {
+            removal.run();
         }
-        
-        cartItemRepository.delete(cartItem);
     }
     
-    @Transactional
-    public void clearCart(User user) {
-        cartItemRepository.deleteByUser(user);
+    private record BatchOutcome(List<CartBatchResponse.LineResult> results, Map<Long, Integer> lines) {
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,230 @@
+package com.shopie.backend.service;
+
+import com.shopie.backend.exception.BadRequestException;
+import com.shopie.backend.exception.CheckoutPendingException;
+import com.shopie.backend.exception.TooManyRequestsException;
+import com.shopie.backend.model.Order;
+import com.shopie.backend.model.User;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Validation groupée des commandes (group commit), activée par orders.checkout.group-commit.enabled.
+ * Les demandes sont mises en file et un thread dédié les crée par lots, jusqu'à max-batch commandes
+ * ou max-delay-ms d'attente, dans une seule transaction : un seul commit (et un seul fsync MySQL)
+ * par lot au lieu d'un par commande.
+ *
+ * Chaque commande du lot est précédée d'un point de sauvegarde JDBC : une commande refusée (stock
+ * insuffisant, panier vide) est annulée seule et les autres sont validées. Sur une erreur inattendue,
+ * le lot entier est annulé puis chaque commande est rejouée dans sa propre transaction.
+ * Chaque appelant reçoit sa commande ou son exception une fois le lot validé.
+ */
+@Component
+public class CheckoutBatcher {
+    
+    private static final Logger log = LoggerFactory.getLogger(CheckoutBatcher.class);
+    
+    @Autowired
+    private OrderService orderService;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int maxBatch;
+    private final long maxDelayNanos;
+    private final long maxWaitMs;
+    private final BlockingQueue<PendingCheckout> queue;
+    
+    private DistributionSummary batchSizes;
+    private Thread dispatcher;
+    private volatile boolean running;
+    
+    public CheckoutBatcher(PlatformTransactionManager transactionManager,
+                           @Value("${orders.checkout.group-commit.enabled:false}") boolean enabled,
+                           @Value("${orders.checkout.group-commit.max-batch:64}") int maxBatch,
+                           @Value("${orders.checkout.group-commit.max-delay-ms:5}") long maxDelayMs,
+                           @Value("${orders.checkout.group-commit.queue-capacity:4096}") int queueCapacity,
+                           @Value("${orders.checkout.group-commit.max-wait-ms:10000}") long maxWaitMs) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.maxBatch = maxBatch;
+        this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(maxDelayMs);
+        this.maxWaitMs = maxWaitMs;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    }
+    
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        batchSizes = DistributionSummary.builder("orders.checkout.batch.size")
+                .description("Commandes validées par transaction (group commit)")
+                .register(meterRegistry);
+        running = true;
+        dispatcher = new Thread(this::dispatch, "checkout-batcher");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+    }
+    
+    /**
+     * Crée la commande du panier : par lot si le mode est activé, sinon directement.
+     * Les exceptions de la création (BadRequestException...) sont relancées telles quelles.
+     */
+    public Order checkout(User user) {
+        if (!enabled) {
+            return orderService.createOrderFromCart(user);
+        }
+        PendingCheckout pending = new PendingCheckout(user, new CompletableFuture<>());
+        if (!running || !queue.offer(pending)) {
+            throw new TooManyRequestsException("Trop de commandes en cours, veuillez réessayer");
+        }
+        try {
+            return pending.result().get(maxWaitMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // La commande peut encore être validée avec son lot : pas de 429, un nouvel essai la dupliquerait
+            throw new CheckoutPendingException("La commande est en cours de validation, vérifiez vos commandes avant de réessayer");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CheckoutPendingException("La commande est en cours de validation, vérifiez vos commandes avant de réessayer");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+    
+    private void dispatch() {
+        List<PendingCheckout> deferred = new ArrayList<>();
+        while (running) {
+            try {
+                List<PendingCheckout> batch = new ArrayList<>(deferred);
+                deferred.clear();
+                if (batch.isEmpty()) {
+                    PendingCheckout first = queue.poll(100, TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    batch.add(first);
+                }
+                long deadline = System.nanoTime() + maxDelayNanos;
+                while (batch.size() < maxBatch) {
+                    long remaining = deadline - System.nanoTime();
+                    PendingCheckout next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                process(batch, deferred);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                deferred.forEach(pending -> pending.result().completeExceptionally(
+                        new TooManyRequestsException("Service en cours d'arrêt, veuillez réessayer")));
+                return;
+            } catch (RuntimeException e) {
+                log.error("Erreur inattendue du lot de commandes", e);
+            }
+        }
+    }
+    
+    // Le panier n'est vidé qu'après le commit : une seconde commande du même utilisateur attend le lot suivant
+    private void process(List<PendingCheckout> batch, List<PendingCheckout> deferred) {
+        List<PendingCheckout> accepted = new ArrayList<>(batch.size());
+        Set<Long> userIds = new HashSet<>();
+        for (PendingCheckout pending : batch) {
+            if (userIds.add(pending.user().getId())) {
+                accepted.add(pending);
+            } else {
+                deferred.add(pending);
+            }
+        }
+        
+        List<Outcome> outcomes = new ArrayList<>(accepted.size());
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                Session session = entityManager.unwrap(Session.class);
+                for (PendingCheckout pending : accepted) {
+                    Savepoint savepoint = session.doReturningWork(Connection::setSavepoint);
+                    try {
+                        Order order = orderService.placeOrder(pending.user());
+                        entityManager.flush();
+                        outcomes.add(new Outcome(pending, order, null));
+                    } catch (BadRequestException e) {
+                        // Refus détecté avant toute insertion : seules les mises à jour SQL de la commande sont annulées
+                        session.doWork(connection -> connection.rollback(savepoint));
+                        outcomes.add(new Outcome(pending, null, e));
+                    }
+                }
+            });
+        } catch (RuntimeException e) {
+            log.warn("Lot de {} commandes annulé, commandes rejouées une à une", accepted.size(), e);
+            for (PendingCheckout pending : accepted) {
+                try {
+                    pending.result().complete(orderService.createOrderFromCart(pending.user()));
+                } catch (RuntimeException orderError) {
+                    pending.result().completeExceptionally(orderError);
+                }
+            }
+            return;
+        }
+        
+        batchSizes.record(accepted.size());
+        for (Outcome outcome : outcomes) {
+            if (outcome.error() != null) {
+                outcome.pending().result().completeExceptionally(outcome.error());
+            } else {
+                outcome.pending().result().complete(outcome.order());
+            }
+        }
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        if (dispatcher != null) {
+            dispatcher.interrupt();
+        }
+        PendingCheckout pending;
+        while ((pending = queue.poll()) != null) {
+            pending.result().completeExceptionally(new TooManyRequestsException("Service en cours d'arrêt, veuillez réessayer"));
+        }
+    }
+    
+    private record PendingCheckout(User user, CompletableFuture<Order> result) {
+    }
+    
+    private record Outcome(PendingCheckout pending, Order order, RuntimeException error) {
+    }
+}
@@ -0,0 +1,180 @@
+package com.shopie.backend.service;
+
+import com.shopie.backend.dto.DateRange;
+import com.shopie.backend.dto.ExportFormat;
+import com.shopie.backend.dto.OrderSummary;
+import com.shopie.backend.dto.PaymentSummary;
+import com.shopie.backend.exception.BadRequestException;
+import com.shopie.backend.repository.OrderSummaryRepository;
+import com.shopie.backend.repository.PaymentRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Export des commandes et paiements ligne par ligne depuis un curseur JDBC :
+ * la mémoire utilisée ne dépend pas du nombre de lignes exportées.
+ * <p>
+ * Les lignes sortent par (date, id) croissant et un export interrompu reprend après la date et l'identifiant
+ * de la dernière ligne reçue. Reprendre sur l'identifiant seul perdrait des lignes : les identifiants sont
+ * alloués par blocs et une transaction plus lente peut valider un identifiant inférieur après un export.
+ * Les lignes plus récentes que export.safety-lag-ms ne sont pas exportées, afin qu'une transaction encore
+ * ouverte ne valide pas ensuite une ligne antérieure au curseur. Limite : une transaction plus longue que ce
+ * délai peut encore être manquée par une reprise.
+ */
+@Service
+public class ExportService {
+    
+    private static final int FLUSH_EVERY = 1000;
+    
+    @Autowired
+    private OrderSummaryRepository orderSummaryRepository;
+    
+    @Autowired
+    private PaymentRepository paymentRepository;
+    
+    @Value("${export.safety-lag-ms:60000}")
+    private long safetyLagMs;
+    
+    @Transactional(readOnly = true)
+    public long exportOrders(LocalDateTime from, LocalDateTime to, LocalDateTime afterDate, Long afterId,
+                             ExportFormat format, Writer writer) throws IOException {
+        DateRange range = DateRange.of(from, to);
+        ExportPosition position = ExportPosition.of(afterDate, afterId);
+        if (format == ExportFormat.CSV) {
+            writer.write("id,userId,userNom,date,statut,total,itemCount,paymentStatut\n");
+        }
+        try (Stream<OrderSummary> rows = orderSummaryRepository.streamSummariesForExport(
+                position.date(), position.id(), range.from(), cutoff(range))) {
+            return writeRows(rows, writer, order -> format == ExportFormat.CSV
+                    ? csv(order.getId(), order.getUserId(), order.getUserNom(), order.getDate(), order.getStatut(),
+                          order.getTotal(), order.getItemCount(), order.getPaymentStatut())
+                    : "{\"id\":" + order.getId()
+                          + ",\"userId\":" + order.getUserId()
+                          + ",\"userNom\":" + json(order.getUserNom())
+                          + ",\"date\":" + json(order.getDate())
+                          + ",\"statut\":" + json(order.getStatut())
+                          + ",\"total\":" + order.getTotal().toPlainString()
+                          + ",\"itemCount\":" + order.getItemCount()
+                          + ",\"paymentStatut\":" + json(order.getPaymentStatut()) + "}\n");
+        }
+    }
+    
+    @Transactional(readOnly = true)
+    public long exportPayments(LocalDateTime from, LocalDateTime to, LocalDateTime afterDate, Long afterId,
+                               ExportFormat format, Writer writer) throws IOException {
+        DateRange range = DateRange.of(from, to);
+        ExportPosition position = ExportPosition.of(afterDate, afterId);
+        if (format == ExportFormat.CSV) {
+            writer.write("id,orderId,montant,methode,statut,date\n");
+        }
+        try (Stream<PaymentSummary> rows = paymentRepository.streamSummariesForExport(
+                position.date(), position.id(), range.from(), cutoff(range))) {
+            return writeRows(rows, writer, payment -> format == ExportFormat.CSV
+                    ? csv(payment.getId(), payment.getOrderId(), payment.getMontant(), payment.getMethode(),
+                          payment.getStatut(), payment.getDate())
+                    : "{\"id\":" + payment.getId()
+                          + ",\"orderId\":" + payment.getOrderId()
+                          + ",\"montant\":" + payment.getMontant().toPlainString()
+                          + ",\"methode\":" + json(payment.getMethode())
+                          + ",\"statut\":" + json(payment.getStatut())
+                          + ",\"date\":" + json(payment.getDate()) + "}\n");
+        }
+    }
+    
+    // Fin de l'intervalle exporté, ramenée avant le délai de sécurité
+    private LocalDateTime cutoff(DateRange range) {
+        LocalDateTime settled = LocalDateTime.now().minus(Duration.ofMillis(safetyLagMs));
+        return range.to().isBefore(settled) ? range.to() : settled;
+    }
+    
+    private <T> long writeRows(Stream<T> rows, Writer writer, Function<T, String> formatter) throws IOException {
+        long[] count = {0};
+        try {
+            rows.forEach(row -> {
+                try {
+                    writer.write(formatter.apply(row));
+                    if (++count[0] % FLUSH_EVERY == 0) {
+                        writer.flush();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+        return count[0];
+    }
+    
+    private static String json(Object value) {
+        if (value == null) {
+            return "null";
+        }
+        String text = value.toString();
+        StringBuilder out = new StringBuilder(text.length() + 2).append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '"' -> out.append("\\\"");
+                case '\\' -> out.append("\\\\");
+                case '\n' -> out.append("\\n");
+                case '\r' -> out.append("\\r");
+                case '\t' -> out.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        out.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+                }
+            }
+        }
+        return out.append('"').toString();
+    }
+    
+    private static String csv(Object... values) {
+        StringBuilder out = new StringBuilder();
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                out.append(',');
+            }
+            Object value = values[i];
+            if (value == null) {
+                continue;
+            }
+            String text = value instanceof BigDecimal decimal ? decimal.toPlainString() : value.toString();
+            if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+                out.append('"').append(text.replace("\"", "\"\"")).append('"');
+            } else {
+                out.append(text);
+            }
+        }
+        return out.append('\n').toString();
+    }
+    
+    // Position de reprise : date et identifiant de la dernière ligne reçue, toutes deux requises
+    private record ExportPosition(LocalDateTime date, Long id) {
+        
+        static ExportPosition of(LocalDateTime afterDate, Long afterId) {
+            if (afterDate == null && afterId == null) {
+                return new ExportPosition(DateRange.MIN_DATE, 0L);
+            }
+            if (afterDate == null || afterId == null) {
+                throw new BadRequestException("La reprise d'un export demande afterDate et afterId");
+            }
+            return new ExportPosition(afterDate, afterId);
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.shopie.backend.service;
+
+import com.shopie.backend.dto.ReservationView;
+import com.shopie.backend.dto.StockDecrementResult;
+import com.shopie.backend.exception.BadRequestException;
+import com.shopie.backend.exception.InsufficientStockException;
+import com.shopie.backend.model.Product;
+import com.shopie.backend.model.StockReservation;
+import com.shopie.backend.model.User;
+import com.shopie.backend.repository.StockReservationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Réservations de stock prises au début du paiement : le stock du panier est retenu pendant
+ * inventory.reservations.ttl-ms, puis consommé par la commande, libéré par l'utilisateur
+ * ou rendu à l'expiration par StockReservationSweeper.
+ *
+ * Les quantités réservées sont cumulées dans Product.reserved ; tous les contrôles de stock
+ * portent sur le disponible (stock - reserved). Une réservation n'est rendue qu'une fois :
+ * seule la transaction qui supprime effectivement sa ligne ajuste le compteur du produit.
+ */
+@Service
+public class InventoryReservationService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(InventoryReservationService.class);
+    
+    @Autowired
+    private StockReservationRepository reservationRepository;
+    
+    @Autowired
+    private ProductService productService;
+    
+    @Autowired
+    private CartService cartService;
+    
+    private final Duration ttl;
+    
+    public InventoryReservationService(@Value("${inventory.reservations.ttl-ms:600000}") long ttlMillis) {
+        this.ttl = Duration.ofMillis(ttlMillis);
+    }
+    
+    /**
+     * Réserve le stock de tout le panier, ou rien : un produit indisponible annule la transaction.
+     * Les réservations précédentes de l'utilisateur sont remplacées.
+     */
+    @Transactional
+    public ReservationView reserveCart(User user) {
+        Map<Long, Integer> lines = cartService.getCartLines(user);
+        if (lines.isEmpty()) {
+            throw new BadRequestException("Le panier est vide");
+        }
+        
+        releaseHolds(reservationRepository.findByUserId(user.getId()));
+        
+        // Contrôle en lecture seule d'abord : produit épuisé, échec sans verrouiller la ligne du produit
+        Map<Long, Integer> available = productService.getStocks(lines.keySet());
+        if (available.size() < lines.size()) {
+            throw new BadRequestException("Un produit du panier n'est plus disponible");
+        }
+        List<StockDecrementResult> failures = lines.entrySet().stream()
+                .filter(line -> available.get(line.getKey()) < line.getValue())
+                .map(line -> new StockDecrementResult(line.getKey(), line.getValue(), false))
+                .toList();
+        if (failures.isEmpty()) {
+            failures = productService.reserveStock(lines).stream()
+                    .filter(result -> !result.isSuccess())
+                    .toList();
+        }
+        if (!failures.isEmpty()) {
+            Map<Long, Product> products = productService.getProductsByIds(lines.keySet());
+            String names = failures.stream()
+                    .map(failure -> products.get(failure.getProductId()).getNom())
+                    .collect(Collectors.joining(", "));
+            // L'exception annule la transaction, donc aussi les réservations déjà prises
+            throw new InsufficientStockException("Stock insuffisant pour le produit: " + names, failures);
+        }
+        
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime expiresAt = now.plus(ttl);
+        reservationRepository.saveAll(lines.entrySet().stream()
+                .map(line -> StockReservation.of(user.getId(), line.getKey(), line.getValue(), now, expiresAt))
+                .toList());
+        
+        List<ReservationView.Line> items = lines.entrySet().stream()
+                .map(line -> new ReservationView.Line(line.getKey(), line.getValue()))
+                .toList();
+        return new ReservationView(expiresAt, items);
+    }
+    
+    @Transactional
+    public void releaseReservation(User user) {
+        releaseHolds(reservationRepository.findByUserId(user.getId()));
+    }
+    
+    /**
+     * Retire les réservations actives de l'utilisateur dans la transaction de la commande et retourne
+     * les quantités par produit ; la commande les rend au disponible en décrémentant le stock.
+     * Les réservations expirées sont laissées au balayage.
+     */
+    @Transactional
+    public Map<Long, Integer> takeActiveReservations(User user) {
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, Integer> reserved = new HashMap<>();
+        for (StockReservation hold : sortedById(reservationRepository.findByUserId(user.getId()))) {
+            if (hold.getExpiresAt().isAfter(now) && reservationRepository.deleteHold(hold.getId()) == 1) {
+                reserved.merge(hold.getProductId(), hold.getQuantite(), Integer::sum);
+            }
+        }
+        return reserved;
+    }
+    
+    /**
+     * Libère au plus batchSize réservations expirées et retourne le nombre traité.
+     */
+    @Transactional
+    public int releaseExpired(int batchSize) {
+        List<StockReservation> expired = reservationRepository.findExpired(LocalDateTime.now(), PageRequest.of(0, batchSize));
+        int released = releaseHolds(expired);
+        if (released > 0) {
+            logger.debug("{} réservations de stock expirées libérées", released);
+        }
+        return expired.size();
+    }
+    
+    // Supprime les réservations dans l'ordre des identifiants, puis rend les quantités aux produits
+    private int releaseHolds(List<StockReservation> holds) {
+        Map<Long, Integer> released = new HashMap<>();
+        int count = 0;
+        for (StockReservation hold : sortedById(holds)) {
+            if (reservationRepository.deleteHold(hold.getId()) == 1) {
+                released.merge(hold.getProductId(), hold.getQuantite(), Integer::sum);
+                count++;
+            }
+        }
+        if (!released.isEmpty()) {
+            productService.releaseReserved(released);
+        }
+        return count;
+    }
+    
+    private static List<StockReservation> sortedById(List<StockReservation> holds) {
+        return holds.stream().sorted(Comparator.comparing(StockReservation::getId)).toList();
+    }
+}
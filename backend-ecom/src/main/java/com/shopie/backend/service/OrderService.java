@@ -1,16 +1,36 @@
 package com.shopie.backend.service;
 
+import com.shopie.backend.dto.CursorPage;
+import com.shopie.backend.dto.DateRange;
+import com.shopie.backend.dto.OrderDetail;
+import com.shopie.backend.dto.OrderStatusTally;
+import com.shopie.backend.dto.OrderSummary;
+import com.shopie.backend.dto.PageResponse;
+import com.shopie.backend.dto.StockDecrementResult;
 import com.shopie.backend.exception.BadRequestException;
+import com.shopie.backend.exception.InsufficientStockException;
 import com.shopie.backend.exception.ResourceNotFoundException;
 import com.shopie.backend.model.*;
-import com.shopie.backend.repository.OrderItemRepository;
 import com.shopie.backend.repository.OrderRepository;
+import com.shopie.backend.repository.OrderSummaryRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 @Service
 public class OrderService {
@@ -19,7 +39,7 @@ public class OrderService {
     private OrderRepository orderRepository;
     
     @Autowired
-    private OrderItemRepository orderItemRepository;
+    private OrderSummaryRepository orderSummaryRepository;
     
     @Autowired
     private CartService cartService;
@@ -27,12 +47,36 @@ public class OrderService {
     @Autowired
     private ProductService productService;
     
-    public List<Order> getUserOrders(User user) {
-        return orderRepository.findByUserOrderByDateDesc(user);
+    @Autowired
+    private AnalyticsService analyticsService;
+    
+    @Autowired
+    private InventoryReservationService reservationService;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    // Historique du client, des commandes les plus récentes aux plus anciennes, par pages de curseur
+    public CursorPage<OrderSummary> getUserOrders(User user, String cursor, Integer limit) {
+        int pageSize = limit == null ? ProductService.DEFAULT_PAGE_SIZE
+                : Math.min(Math.max(limit, 1), ProductService.MAX_PAGE_SIZE);
+        OrderCursor position = decodeCursor(cursor);
+        
+        // Une ligne de plus que demandé pour savoir s'il existe une page suivante
+        Pageable pageable = PageRequest.of(0, pageSize + 1);
+        List<OrderSummary> rows = position == null
+                ? orderSummaryRepository.findSummariesByUserId(user.getId(), pageable)
+                : orderSummaryRepository.findSummariesByUserIdBefore(user.getId(), position.date(), position.id(), pageable);
+        
+        boolean hasMore = rows.size() > pageSize;
+        List<OrderSummary> items = hasMore ? rows.subList(0, pageSize) : rows;
+        String nextCursor = hasMore ? encodeCursor(items.get(items.size() - 1)) : null;
+        return new CursorPage<>(items, nextCursor, hasMore);
     }
     
-    public List<Order> getAllOrders() {
-        return orderRepository.findAllOrderByDateDesc();
+    public PageResponse<OrderSummary> getAllOrders(LocalDateTime from, LocalDateTime to, Integer page, Integer size) {
+        DateRange range = DateRange.of(from, to);
+        return PageResponse.from(orderSummaryRepository.findSummariesByDateRange(range.from(), range.to(), pageRequest(page, size)));
     }
     
     public Order getOrderById(Long id) {
@@ -40,53 +84,89 @@ public class OrderService {
                 .orElseThrow(() -> new ResourceNotFoundException("Commande non trouvée avec l'ID: " + id));
     }
     
+    @Transactional(readOnly = true)
+    public OrderDetail getOrderDetail(Long id) {
+        Order order = orderRepository.findDetailById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Commande non trouvée avec l'ID: " + id));
+        return OrderDetail.from(order);
+    }
+    
     @Transactional
     public Order createOrderFromCart(User user) {
-        List<CartItem> cartItems = cartService.getCartItems(user);
+        return createOrder(user);
+    }
+    
+    /**
+     * Crée la commande dans la transaction de l'appelant (CheckoutBatcher, plusieurs commandes par
+     * transaction). Un refus (panier vide, stock insuffisant) ne marque pas cette transaction comme
+     * à annuler : l'appelant annule la commande seule en revenant à son point de sauvegarde.
+     */
+    @Transactional(propagation = Propagation.MANDATORY, noRollbackFor = BadRequestException.class)
+    public Order placeOrder(User user) {
+        return createOrder(user);
+    }
+    
+    // Corps commun : un appel interne ne passe pas par le proxy, la transaction et ses règles
+    // d'annulation sont donc toujours celles du point d'entrée public
+    private Order createOrder(User user) {
+        Map<Long, Integer> lines = cartService.getCartLines(user);
         
-        if (cartItems.isEmpty()) {
+        if (lines.isEmpty()) {
             throw new BadRequestException("Le panier est vide");
         }
         
-        // Vérifier le stock pour tous les articles
-        for (CartItem cartItem : cartItems) {
-            if (cartItem.getProduct().getStock() < cartItem.getQuantite()) {
-                throw new BadRequestException("Stock insuffisant pour le produit: " + cartItem.getProduct().getNom());
-            }
+        // Produits servis par le cache : le stock est contrôlé par les décrémentations ci-dessous
+        Map<Long, Product> products = productService.getProductsByIds(lines.keySet());
+        if (products.size() < lines.size()) {
+            throw new BadRequestException("Un produit du panier n'est plus disponible");
         }
         
-        // Créer la commande
+        // Décrémenter le stock de toutes les lignes par des mises à jour conditionnelles atomiques,
+        // en consommant les réservations prises au début du paiement
+        Map<Long, Integer> reserved = reservationService.takeActiveReservations(user);
+        List<StockDecrementResult> failures = productService.decrementStock(lines, reserved).stream()
+                .filter(result -> !result.isSuccess())
+                .toList();
+        if (!failures.isEmpty()) {
+            String names = failures.stream()
+                    .map(failure -> products.get(failure.getProductId()).getNom())
+                    .collect(Collectors.joining(", "));
+            // L'exception annule la transaction, donc aussi les décrémentations déjà réussies
+            // et la consommation des réservations
+            throw new InsufficientStockException("Stock insuffisant pour le produit: " + names, failures);
+        }
+        
+        // Créer la commande avec toutes ses lignes : un seul persist, les OrderItems
+        // sont insérés en cascade dans une même requête JDBC batchée
         Order order = new Order();
         order.setUser(user);
         order.setStatut(Order.Statut.PENDING);
         
-        // Calculer le total et créer les OrderItems
         BigDecimal total = BigDecimal.ZERO;
-        order = orderRepository.save(order); // Sauvegarder d'abord pour obtenir l'ID
-        
-        for (CartItem cartItem : cartItems) {
+        for (Map.Entry<Long, Integer> line : lines.entrySet()) {
+            Product product = products.get(line.getKey());
             OrderItem orderItem = new OrderItem();
             orderItem.setOrder(order);
-            orderItem.setProduct(cartItem.getProduct());
-            orderItem.setQuantite(cartItem.getQuantite());
-            orderItem.setPrix(cartItem.getProduct().getPrix());
-            
-            orderItemRepository.save(orderItem);
-            
-            // Mettre à jour le stock
-            Product product = cartItem.getProduct();
-            product.setStock(product.getStock() - cartItem.getQuantite());
-            productService.updateStock(product.getId(), product.getStock());
+            orderItem.setProduct(product);
+            orderItem.setQuantite(line.getValue());
+            orderItem.setPrix(product.getPrix());
+            order.getOrderItems().add(orderItem);
             
             // Ajouter au total
-            total = total.add(cartItem.getProduct().getPrix().multiply(BigDecimal.valueOf(cartItem.getQuantite())));
+            total = total.add(product.getPrix().multiply(BigDecimal.valueOf(line.getValue())));
         }
         
         order.setTotal(total);
         order = orderRepository.save(order);
+        // Ligne d'historique écrite avec la commande. persist plutôt que save : l'identifiant (celui
+        // de la commande) étant déjà renseigné, save ferait d'abord un SELECT
+        entityManager.persist(OrderSummaryRow.from(order));
+        
+        // Agrégats en dernier : les lignes d'agrégat partagées restent verrouillées le moins longtemps possible
+        analyticsService.recordOrder(order);
         
-        // Vider le panier
-        cartService.clearCart(user);
+        // Retrancher les quantités commandées du panier après validation de la transaction
+        cartService.removeOrderedProducts(user, lines);
         
         return order;
     }
@@ -94,11 +174,60 @@ public class OrderService {
     @Transactional
     public Order updateOrderStatus(Long orderId, Order.Statut newStatus) {
         Order order = getOrderById(orderId);
+        Order.Statut previous = order.getStatut();
         order.setStatut(newStatus);
-        return orderRepository.save(order);
+        Order savedOrder = orderRepository.save(order);
+        if (previous != newStatus) {
+            orderSummaryRepository.updateStatut(List.of(orderId), newStatus);
+            analyticsService.recordOrderStatusChanges(List.of(new OrderStatusTally(previous, 1L)), newStatus);
+        }
+        return savedOrder;
+    }
+    
+    // Mise à jour en masse, sans charger les commandes ; les agrégats partent des statuts relevés juste avant
+    @Transactional
+    public void updateOrderStatuses(Collection<Long> orderIds, Order.Statut newStatus) {
+        if (!orderIds.isEmpty()) {
+            List<OrderStatusTally> previous = orderRepository.tallyStatutsOtherThan(orderIds, newStatus);
+            orderRepository.updateStatut(orderIds, newStatus);
+            orderSummaryRepository.updateStatut(orderIds, newStatus);
+            analyticsService.recordOrderStatusChanges(previous, newStatus);
+        }
+    }
+    
+    public PageResponse<OrderSummary> getOrdersByStatus(Order.Statut statut, LocalDateTime from, LocalDateTime to,
+                                                        Integer page, Integer size) {
+        DateRange range = DateRange.of(from, to);
+        return PageResponse.from(orderSummaryRepository.findSummariesByStatutAndDateRange(
+                statut, range.from(), range.to(), pageRequest(page, size)));
+    }
+    
+    private PageRequest pageRequest(Integer page, Integer size) {
+        int pageNumber = page == null ? 0 : Math.max(page, 0);
+        int pageSize = size == null ? ProductService.DEFAULT_PAGE_SIZE
+                : Math.min(Math.max(size, 1), ProductService.MAX_PAGE_SIZE);
+        return PageRequest.of(pageNumber, pageSize);
+    }
+    
+    // Curseur opaque : "date|id" de la dernière commande de la page, encodé en base64 URL
+    private String encodeCursor(OrderSummary last) {
+        String raw = last.getDate() + "|" + last.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    private OrderCursor decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|");
+            return new OrderCursor(LocalDateTime.parse(parts[0]), Long.parseLong(parts[1]));
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException | DateTimeParseException e) {
+            throw new BadRequestException("Curseur de pagination invalide");
+        }
     }
     
-    public List<Order> getOrdersByStatus(Order.Statut statut) {
-        return orderRepository.findByStatut(statut);
+    private record OrderCursor(LocalDateTime date, Long id) {
     }
 }
\ No newline at end of file
@@ -0,0 +1,167 @@
+package com.shopie.backend.service;
+
+import com.shopie.backend.dto.PaymentTally;
+import com.shopie.backend.model.Order;
+import com.shopie.backend.model.Payment;
+import com.shopie.backend.model.PaymentOutboxEvent;
+import com.shopie.backend.payment.ChargeResult;
+import com.shopie.backend.repository.OrderSummaryRepository;
+import com.shopie.backend.repository.PaymentOutboxRepository;
+import com.shopie.backend.repository.PaymentRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Transactions courtes de l'outbox des paiements : mise en file, prise en charge d'un lot,
+ * enregistrement des résultats. Les appels à la passerelle se font entre ces transactions,
+ * sans connexion JDBC ouverte.
+ */
+@Service
+public class PaymentOutboxService {
+    
+    @Autowired
+    private PaymentOutboxRepository outboxRepository;
+    
+    @Autowired
+    private PaymentRepository paymentRepository;
+    
+    @Autowired
+    private OrderSummaryRepository orderSummaryRepository;
+    
+    @Autowired
+    private OrderService orderService;
+    
+    @Autowired
+    private AnalyticsService analyticsService;
+    
+    @Value("${payments.outbox.max-attempts:6}")
+    private int maxAttempts;
+    
+    @Value("${payments.outbox.backoff-base-ms:1000}")
+    private long backoffBaseMs;
+    
+    @Value("${payments.outbox.backoff-max-ms:300000}")
+    private long backoffMaxMs;
+    
+    @Value("${payments.outbox.lease-ms:60000}")
+    private long leaseMs;
+    
+    // Idempotent : un paiement n'a qu'un seul événement, quel que soit le nombre d'appels
+    @Transactional
+    public PaymentOutboxEvent enqueue(Payment payment) {
+        return outboxRepository.findByPaymentId(payment.getId())
+                .orElseGet(() -> outboxRepository.save(PaymentOutboxEvent.forPayment(payment)));
+    }
+    
+    @Transactional
+    public List<PaymentOutboxEvent> claimBatch(int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        List<PaymentOutboxEvent> events = outboxRepository.findClaimable(
+                now, now.minusNanos(leaseMs * 1_000_000), PageRequest.of(0, limit));
+        for (PaymentOutboxEvent event : events) {
+            event.setStatut(PaymentOutboxEvent.Statut.PROCESSING);
+            event.setClaimedAt(now);
+            event.setAttempts(event.getAttempts() + 1);
+        }
+        // Flush pour que les versions retournées soient celles enregistrées en base
+        outboxRepository.flush();
+        return events;
+    }
+    
+    /**
+     * Enregistre les résultats d'un lot dans une seule transaction ; paiements et commandes
+     * sont mis à jour en masse. Un résultat dont l'événement a été repris par un autre worker
+     * (version différente) est ignoré.
+     */
+    @Transactional
+    public void recordOutcomes(List<ChargeOutcome> outcomes) {
+        Map<Long, PaymentOutboxEvent> events = outboxRepository.findAllById(
+                        outcomes.stream().map(outcome -> outcome.event().getId()).toList()).stream()
+                .collect(Collectors.toMap(PaymentOutboxEvent::getId, Function.identity()));
+        
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> paidPayments = new ArrayList<>();
+        List<Long> paidOrders = new ArrayList<>();
+        List<Long> failedPayments = new ArrayList<>();
+        List<Long> failedOrders = new ArrayList<>();
+        
+        for (ChargeOutcome outcome : outcomes) {
+            PaymentOutboxEvent event = events.get(outcome.event().getId());
+            if (event == null || event.getStatut() != PaymentOutboxEvent.Statut.PROCESSING
+                    || !Objects.equals(event.getVersion(), outcome.event().getVersion())) {
+                continue;
+            }
+            event.setClaimedAt(null);
+            ChargeResult result = outcome.result();
+            if (result != null && result.approved()) {
+                event.setStatut(PaymentOutboxEvent.Statut.DONE);
+                event.setGatewayReference(result.reference());
+                event.setProcessedAt(now);
+                paidPayments.add(event.getPaymentId());
+                paidOrders.add(event.getOrderId());
+            } else if (result != null || event.getAttempts() >= maxAttempts) {
+                event.setStatut(PaymentOutboxEvent.Statut.FAILED);
+                event.setLastError(truncate(result != null ? result.message() : outcome.error()));
+                event.setProcessedAt(now);
+                failedPayments.add(event.getPaymentId());
+                failedOrders.add(event.getOrderId());
+            } else {
+                event.setStatut(PaymentOutboxEvent.Statut.PENDING);
+                event.setLastError(truncate(outcome.error()));
+                event.setNextAttemptAt(now.plusNanos(backoffMs(event.getAttempts()) * 1_000_000));
+            }
+        }
+        
+        if (!paidPayments.isEmpty()) {
+            updatePaymentStatuses(paidPayments, paidOrders, Payment.Statut.PAID);
+            orderService.updateOrderStatuses(paidOrders, Order.Statut.PAID);
+        }
+        if (!failedPayments.isEmpty()) {
+            updatePaymentStatuses(failedPayments, failedOrders, Payment.Statut.FAILED);
+        }
+    }
+    
+    // Mise à jour en masse ; les agrégats sont ajustés d'après les statuts relevés juste avant
+    private void updatePaymentStatuses(List<Long> paymentIds, List<Long> orderIds, Payment.Statut statut) {
+        List<PaymentTally> previous = paymentRepository.tallyStatutsOtherThan(paymentIds, statut);
+        paymentRepository.updateStatut(paymentIds, statut);
+        orderSummaryRepository.updatePaymentStatut(orderIds, statut);
+        analyticsService.recordPaymentStatusChanges(previous, statut);
+    }
+    
+    // Backoff exponentiel plafonné, avec une part aléatoire pour étaler les reprises
+    private long backoffMs(int attempts) {
+        long delay = Math.min(backoffMaxMs, backoffBaseMs << Math.min(attempts - 1, 30));
+        return delay + ThreadLocalRandom.current().nextLong(delay / 5 + 1);
+    }
+    
+    private static String truncate(String message) {
+        return message == null || message.length() <= 500 ? message : message.substring(0, 500);
+    }
+    
+    /**
+     * Résultat d'un appel à la passerelle : result est null en cas d'erreur transitoire.
+     */
+    public record ChargeOutcome(PaymentOutboxEvent event, ChargeResult result, String error) {
+        
+        public static ChargeOutcome of(PaymentOutboxEvent event, ChargeResult result) {
+            return new ChargeOutcome(event, result, null);
+        }
+        
+        public static ChargeOutcome retry(PaymentOutboxEvent event, String error) {
+            return new ChargeOutcome(event, null, error);
+        }
+    }
+}
@@ -1,15 +1,22 @@
 package com.shopie.backend.service;
 
+import com.shopie.backend.dto.DateRange;
+import com.shopie.backend.dto.PageResponse;
 import com.shopie.backend.dto.PaymentRequest;
+import com.shopie.backend.dto.PaymentSummary;
+import com.shopie.backend.dto.PaymentTally;
 import com.shopie.backend.exception.BadRequestException;
 import com.shopie.backend.exception.ResourceNotFoundException;
 import com.shopie.backend.model.Order;
 import com.shopie.backend.model.Payment;
+import com.shopie.backend.repository.OrderSummaryRepository;
 import com.shopie.backend.repository.PaymentRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Service
@@ -18,11 +25,21 @@ public class PaymentService {
     @Autowired
     private PaymentRepository paymentRepository;
     
+    @Autowired
+    private OrderSummaryRepository orderSummaryRepository;
+    
     @Autowired
     private OrderService orderService;
     
-    public List<Payment> getAllPayments() {
-        return paymentRepository.findAllOrderByDateDesc();
+    @Autowired
+    private PaymentOutboxService outboxService;
+    
+    @Autowired
+    private AnalyticsService analyticsService;
+    
+    public PageResponse<PaymentSummary> getAllPayments(LocalDateTime from, LocalDateTime to, Integer page, Integer size) {
+        DateRange range = DateRange.of(from, to);
+        return PageResponse.from(paymentRepository.findSummariesByDateRange(range.from(), range.to(), pageRequest(page, size)));
     }
     
     public Payment getPaymentById(Long id) {
@@ -55,39 +72,58 @@ public class PaymentService {
         payment.setMethode(request.getMethode());
         payment.setStatut(Payment.Statut.PENDING);
         
-        return paymentRepository.save(payment);
+        Payment savedPayment = paymentRepository.save(payment);
+        orderSummaryRepository.updatePaymentStatut(List.of(order.getId()), savedPayment.getStatut());
+        analyticsService.recordPayment(savedPayment);
+        return savedPayment;
     }
     
     @Transactional
     public Payment updatePaymentStatus(Long paymentId, Payment.Statut newStatus) {
         Payment payment = getPaymentById(paymentId);
+        Payment.Statut previous = payment.getStatut();
         payment.setStatut(newStatus);
+        if (previous != newStatus) {
+            orderSummaryRepository.updatePaymentStatut(List.of(payment.getOrder().getId()), newStatus);
+            analyticsService.recordPaymentStatusChanges(
+                    List.of(new PaymentTally(payment.getMethode(), previous, 1L, payment.getMontant())), newStatus);
+        }
         
-        // Si le paiement est confirmé, mettre à jour le statut de la commande
+        // Si le paiement est confirmé, mettre à jour le statut de la commande (sans la recharger)
         if (newStatus == Payment.Statut.PAID) {
-            orderService.updateOrderStatus(payment.getOrder().getId(), Order.Statut.PAID);
+            orderService.updateOrderStatuses(List.of(payment.getOrder().getId()), Order.Statut.PAID);
         }
         
         return paymentRepository.save(payment);
     }
     
-    public List<Payment> getPaymentsByStatus(Payment.Statut statut) {
-        return paymentRepository.findByStatut(statut);
+    public PageResponse<PaymentSummary> getPaymentsByStatus(Payment.Statut statut, LocalDateTime from, LocalDateTime to,
+                                                            Integer page, Integer size) {
+        DateRange range = DateRange.of(from, to);
+        return PageResponse.from(paymentRepository.findSummariesByStatutAndDateRange(
+                statut, range.from(), range.to(), pageRequest(page, size)));
     }
     
+    /**
+     * Accepte le paiement pour traitement asynchrone : un événement est enregistré dans l'outbox
+     * et la passerelle est appelée plus tard par PaymentOutboxWorker. Idempotent : rappeler
+     * la méthode ne crée pas de second débit et retourne l'état courant du paiement.
+     */
     @Transactional
-    public Payment processPayment(Long paymentId) {
+    public PaymentSummary processPayment(Long paymentId) {
         Payment payment = getPaymentById(paymentId);
         
-        if (payment.getStatut() != Payment.Statut.PENDING) {
-            throw new BadRequestException("Ce paiement a déjà été traité");
+        if (payment.getStatut() == Payment.Statut.PENDING) {
+            outboxService.enqueue(payment);
         }
         
-        // Ici, vous intégreriez avec un service de paiement réel (Stripe, PayPal, etc.)
-        // Pour la démo, nous simulons un paiement réussi
-        payment.setStatut(Payment.Statut.PAID);
-        orderService.updateOrderStatus(payment.getOrder().getId(), Order.Statut.PAID);
-        
-        return paymentRepository.save(payment);
+        return PaymentSummary.from(payment);
+    }
+    
+    private PageRequest pageRequest(Integer page, Integer size) {
+        int pageNumber = page == null ? 0 : Math.max(page, 0);
+        int pageSize = size == null ? ProductService.DEFAULT_PAGE_SIZE
+                : Math.min(Math.max(size, 1), ProductService.MAX_PAGE_SIZE);
+        return PageRequest.of(pageNumber, pageSize);
     }
 }
\ No newline at end of file
@@ -0,0 +1,359 @@
+package com.shopie.backend.service;
+
+import com.shopie.backend.cache.CatalogVersion;
+import com.shopie.backend.cache.ProductCache;
+import com.shopie.backend.dto.ExportFormat;
+import com.shopie.backend.dto.ImportReport;
+import com.shopie.backend.exception.ResourceNotFoundException;
+import com.shopie.backend.importer.ImportRow;
+import com.shopie.backend.importer.ProductRowReader;
+import com.shopie.backend.model.Product;
+import com.shopie.backend.repository.ProductRepository;
+import com.shopie.backend.search.ProductSearchIndex;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.OptimisticLockException;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Import en masse de produits depuis un flux CSV ou NDJSON.
+ *
+ * Le flux est lu ligne par ligne et écrit par lots de chunk-size lignes, chacun dans sa propre
+ * transaction, avec des INSERT/UPDATE batchés par JDBC ; le contexte de persistance est vidé après
+ * chaque lot. La mémoire utilisée dépend de la taille d'un lot, pas de celle du fichier.
+ * Une ligne portant une référence déjà connue met à jour le produit, sinon elle le crée.
+ */
+@Service
+public class ProductImportService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ProductImportService.class);
+    
+    @Autowired
+    private ProductRepository productRepository;
+    
+    @Autowired
+    private ProductCache productCache;
+    
+    @Autowired
+    private CatalogVersion catalogVersion;
+    
+    @Autowired
+    private ProductSearchIndex searchIndex;
+    
+    @Autowired
+    private ShardedStockService shardedStockService;
+    
+    @Autowired
+    private Validator validator;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final int jdbcBatchSize;
+    private final int maxErrors;
+    private final int maxAttempts;
+    private final int historySize;
+    
+    // Imports en cours et derniers imports terminés, du plus ancien au plus récent
+    private final Map<String, ImportJob> jobs = new LinkedHashMap<>();
+    
+    public ProductImportService(PlatformTransactionManager transactionManager,
+                                @Value("${catalog.import.chunk-size:1000}") int chunkSize,
+                                @Value("${catalog.import.jdbc-batch-size:500}") int jdbcBatchSize,
+                                @Value("${catalog.import.max-errors:1000}") int maxErrors,
+                                @Value("${catalog.import.max-attempts:3}") int maxAttempts,
+                                @Value("${catalog.import.history-size:20}") int historySize) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.jdbcBatchSize = jdbcBatchSize;
+        this.maxErrors = maxErrors;
+        this.maxAttempts = maxAttempts;
+        this.historySize = historySize;
+    }
+    
+    public ImportReport importProducts(InputStream input, ExportFormat format) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        try (ProductRowReader rows = ProductRowReader.open(format, reader)) {
+            ImportJob job = register(format);
+            try {
+                List<ParsedRow> chunk = new ArrayList<>(chunkSize);
+                ImportRow row;
+                while ((row = rows.next()) != null) {
+                    job.rowsRead.incrementAndGet();
+                    ParsedRow parsed = parse(row, job);
+                    if (parsed != null) {
+                        chunk.add(parsed);
+                        if (chunk.size() == chunkSize) {
+                            writeChunk(chunk, job);
+                            chunk.clear();
+                        }
+                    }
+                }
+                if (!chunk.isEmpty()) {
+                    writeChunk(chunk, job);
+                }
+                job.finish(ImportReport.Statut.COMPLETED, null);
+            } catch (IOException | RuntimeException e) {
+                // Les lots déjà écrits restent validés : le rapport indique où l'import s'est arrêté
+                job.finish(ImportReport.Statut.FAILED, "Import interrompu après " + job.rowsRead.get() + " lignes");
+                logger.error("Import de produits {} interrompu", job.id, e);
+                throw e;
+            }
+            ImportReport report = job.snapshot();
+            logger.info("Import de produits {} terminé : {} lignes, {} créées, {} mises à jour, {} rejetées, {} lignes/s",
+                    report.getId(), report.getRowsRead(), report.getInserted(), report.getUpdated(),
+                    report.getRejected(), report.getRowsPerSecond());
+            return report;
+        }
+    }
+    
+    public List<ImportReport> getImports() {
+        synchronized (jobs) {
+            return jobs.values().stream().map(ImportJob::snapshot).toList();
+        }
+    }
+    
+    public ImportReport getImport(String id) {
+        synchronized (jobs) {
+            ImportJob job = jobs.get(id);
+            if (job == null) {
+                throw new ResourceNotFoundException("Import non trouvé avec l'ID: " + id);
+            }
+            return job.snapshot();
+        }
+    }
+    
+    private ImportJob register(ExportFormat format) {
+        ImportJob job = new ImportJob(UUID.randomUUID().toString(), format);
+        synchronized (jobs) {
+            jobs.put(job.id, job);
+            Iterator<ImportJob> iterator = jobs.values().iterator();
+            while (jobs.size() > historySize && iterator.hasNext()) {
+                if (iterator.next().statut != ImportReport.Statut.RUNNING) {
+                    iterator.remove();
+                }
+            }
+        }
+        return job;
+    }
+    
+    // Conversion et validation avec les contraintes de l'entité Product ; null si la ligne est rejetée
+    private ParsedRow parse(ImportRow row, ImportJob job) {
+        if (row.error() != null) {
+            job.reject(row.line(), row.error());
+            return null;
+        }
+        Product product = new Product();
+        product.setReference(blankToNull(row.reference()));
+        product.setNom(row.nom() != null ? row.nom().trim() : null);
+        product.setDescription(row.description());
+        product.setImageUrl(blankToNull(row.imageUrl()));
+        try {
+            product.setPrix(row.prix() != null ? new BigDecimal(row.prix().trim()) : null);
+        } catch (NumberFormatException e) {
+            job.reject(row.line(), "prix: nombre invalide");
+            return null;
+        }
+        try {
+            product.setStock(row.stock() != null ? Integer.valueOf(row.stock().trim()) : 0);
+        } catch (NumberFormatException e) {
+            job.reject(row.line(), "stock: entier invalide");
+            return null;
+        }
+        
+        Set<ConstraintViolation<Product>> violations = validator.validate(product);
+        if (!violations.isEmpty()) {
+            job.reject(row.line(), violations.stream()
+                    .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining(", ")));
+            return null;
+        }
+        return new ParsedRow(row.line(), product);
+    }
+    
+    private void writeChunk(List<ParsedRow> chunk, ImportJob job) {
+        Set<Product> written = Collections.newSetFromMap(new IdentityHashMap<>());
+        try {
+            int[] counts = upsertWithRetry(chunk, written, job);
+            job.inserted.addAndGet(counts[0]);
+            job.updated.addAndGet(counts[1]);
+        } catch (RuntimeException e) {
+            // Lot annulé en entier (contrainte violée en base, par exemple) : ses lignes sont rejetées
+            logger.warn("Lot de l'import {} rejeté (lignes {} à {})",
+                    job.id, chunk.get(0).line(), chunk.get(chunk.size() - 1).line(), e);
+            for (ParsedRow row : chunk) {
+                job.reject(row.line(), "Lot rejeté par la base de données");
+            }
+            return;
+        }
+        written.forEach(searchIndex::index);
+    }
+    
+    /**
+     * Une réservation de checkout ou une modification admin concurrente incrémente la version d'un
+     * produit du lot : le lot est rejoué dans une nouvelle transaction, sur des produits relus.
+     */
+    private int[] upsertWithRetry(List<ParsedRow> chunk, Set<Product> written, ImportJob job) {
+        for (int attempt = 1; ; attempt++) {
+            written.clear();
+            try {
+                return transactionTemplate.execute(status -> upsert(chunk, written));
+            } catch (OptimisticLockingFailureException | OptimisticLockException e) {
+                if (attempt >= maxAttempts) {
+                    throw e;
+                }
+                logger.debug("Lot de l'import {} en conflit de version (essai {}/{}), nouvel essai",
+                        job.id, attempt, maxAttempts);
+            }
+        }
+    }
+    
+    private int[] upsert(List<ParsedRow> chunk, Set<Product> written) {
+        entityManager.unwrap(Session.class).setJdbcBatchSize(jdbcBatchSize);
+        
+        List<String> references = chunk.stream()
+                .map(row -> row.product().getReference())
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        Map<String, Product> existing = new HashMap<>();
+        if (!references.isEmpty()) {
+            for (Product product : productRepository.findByReferenceIn(references)) {
+                existing.put(product.getReference(), product);
+            }
+        }
+        
+        int inserted = 0;
+        int updated = 0;
+        for (ParsedRow row : chunk) {
+            Product incoming = row.product();
+            Product current = incoming.getReference() != null ? existing.get(incoming.getReference()) : null;
+            if (current == null) {
+                // Nouvelle entité à chaque essai : celle d'un essai annulé garde l'identifiant alloué
+                Product created = new Product();
+                created.setReference(incoming.getReference());
+                created.setNom(incoming.getNom());
+                created.setDescription(incoming.getDescription());
+                created.setPrix(incoming.getPrix());
+                created.setImageUrl(incoming.getImageUrl());
+                created.setStock(incoming.getStock());
+                entityManager.persist(created);
+                if (created.getReference() != null) {
+                    existing.put(created.getReference(), created);
+                }
+                written.add(created);
+                inserted++;
+            } else {
+                current.setNom(incoming.getNom());
+                current.setDescription(incoming.getDescription());
+                current.setPrix(incoming.getPrix());
+                current.setImageUrl(incoming.getImageUrl());
+                current.setStock(incoming.getStock());
+                current.markContentChanged();
+                if (current.getStockShards() > 0) {
+                    shardedStockService.setStock(current.getId(), incoming.getStock());
+                }
+                if (current.getId() != null) {
+                    productCache.evict(current.getId());
+                }
+                written.add(current);
+                updated++;
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        catalogVersion.bump();
+        return new int[] {inserted, updated};
+    }
+    
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+    
+    private record ParsedRow(long line, Product product) {
+    }
+    
+    private final class ImportJob {
+        private final String id;
+        private final ExportFormat format;
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private final long startedNanos = System.nanoTime();
+        private final AtomicLong rowsRead = new AtomicLong();
+        private final AtomicLong inserted = new AtomicLong();
+        private final AtomicLong updated = new AtomicLong();
+        private final AtomicLong rejected = new AtomicLong();
+        private final List<ImportReport.RowError> errors = new ArrayList<>();
+        private volatile ImportReport.Statut statut = ImportReport.Statut.RUNNING;
+        private volatile LocalDateTime finishedAt;
+        private volatile long finishedNanos;
+        private volatile String message;
+        
+        private ImportJob(String id, ExportFormat format) {
+            this.id = id;
+            this.format = format;
+        }
+        
+        private void reject(long line, String error) {
+            rejected.incrementAndGet();
+            synchronized (errors) {
+                if (errors.size() < maxErrors) {
+                    errors.add(new ImportReport.RowError(line, error));
+                }
+            }
+        }
+        
+        private void finish(ImportReport.Statut statut, String message) {
+            this.finishedNanos = System.nanoTime();
+            this.finishedAt = LocalDateTime.now();
+            this.message = message;
+            this.statut = statut;
+        }
+        
+        private ImportReport snapshot() {
+            long end = statut == ImportReport.Statut.RUNNING ? System.nanoTime() : finishedNanos;
+            long elapsedMillis = Math.max((end - startedNanos) / 1_000_000, 1);
+            List<ImportReport.RowError> errorsCopy;
+            synchronized (errors) {
+                errorsCopy = List.copyOf(errors);
+            }
+            long read = rowsRead.get();
+            return new ImportReport(id, format, statut, startedAt, finishedAt, read,
+                    inserted.get(), updated.get(), rejected.get(), read * 1000 / elapsedMillis,
+                    errorsCopy, rejected.get() > errorsCopy.size(), message);
+        }
+    }
+}
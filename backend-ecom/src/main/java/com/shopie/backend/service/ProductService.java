@@ -1,60 +1,352 @@
 package com.shopie.backend.service;
 
+import com.shopie.backend.cache.BoundedTtlCache;
+import com.shopie.backend.cache.CatalogVersion;
+import com.shopie.backend.cache.ProductCache;
+import com.shopie.backend.dto.CursorPage;
+import com.shopie.backend.dto.PageResponse;
+import com.shopie.backend.dto.ProductSort;
+import com.shopie.backend.dto.ProductSummary;
+import com.shopie.backend.dto.StockDecrementResult;
+import com.shopie.backend.exception.BadRequestException;
 import com.shopie.backend.exception.ResourceNotFoundException;
 import com.shopie.backend.model.Product;
 import com.shopie.backend.repository.ProductRepository;
+import com.shopie.backend.search.ProductSearchIndex;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class ProductService {
     
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+    
+    // Bornes de départ des parcours par prix (prix DECIMAL(10,2) toujours positif)
+    private static final BigDecimal PRIX_LOWER_BOUND = BigDecimal.valueOf(-1);
+    private static final BigDecimal PRIX_UPPER_BOUND = new BigDecimal("100000000");
+    
     @Autowired
     private ProductRepository productRepository;
     
-    public List<Product> getAllProducts() {
-        return productRepository.findAll();
-    }
+    @Autowired
+    private ProductSearchIndex searchIndex;
     
-    public List<Product> getAvailableProducts() {
-        return productRepository.findAvailableProducts();
+    @Autowired
+    private ProductCache productCache;
+    
+    @Autowired
+    private CatalogVersion catalogVersion;
+    
+    @Autowired
+    private ShardedStockService shardedStockService;
+    
+    public CursorPage<ProductSummary> getProductsPage(String cursor, Integer limit, ProductSort sort, boolean availableOnly) {
+        ProductSort effectiveSort = sort != null ? sort : ProductSort.ID_ASC;
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+        ProductCursor position = decodeCursor(cursor, effectiveSort);
+        
+        // Une ligne de plus que demandé pour savoir s'il existe une page suivante
+        Pageable pageable = PageRequest.of(0, pageSize + 1);
+        List<ProductSummary> rows = switch (effectiveSort) {
+            case ID_ASC -> productRepository.findSummariesByIdAsc(
+                    position != null ? position.id() : 0L, availableOnly, pageable);
+            case ID_DESC -> productRepository.findSummariesByIdDesc(
+                    position != null ? position.id() : Long.MAX_VALUE, availableOnly, pageable);
+            case PRIX_ASC -> productRepository.findSummariesByPrixAsc(
+                    position != null ? position.prix() : PRIX_LOWER_BOUND,
+                    position != null ? position.id() : 0L, availableOnly, pageable);
+            case PRIX_DESC -> productRepository.findSummariesByPrixDesc(
+                    position != null ? position.prix() : PRIX_UPPER_BOUND,
+                    position != null ? position.id() : Long.MAX_VALUE, availableOnly, pageable);
+        };
+        
+        boolean hasMore = rows.size() > pageSize;
+        List<ProductSummary> items = hasMore ? rows.subList(0, pageSize) : rows;
+        String nextCursor = hasMore ? encodeCursor(effectiveSort, items.get(items.size() - 1)) : null;
+        return new CursorPage<>(items, nextCursor, hasMore);
     }
     
+    // Servi par le cache : le stock retourné peut être en retard, utiliser getStock pour un contrôle
     public Product getProductById(Long id) {
-        return productRepository.findById(id)
+        return productCache.get(id, productRepository::findById)
                 .orElseThrow(() -> new ResourceNotFoundException("Produit non trouvé avec l'ID: " + id));
     }
     
-    public List<Product> searchProducts(String nom) {
-        return productRepository.findByNomContainingIgnoreCase(nom);
+    // Lecture groupée via le cache ; les produits inexistants sont absents de la map
+    public Map<Long, Product> getProductsByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        return productCache.getAll(ids, productRepository::findAllById);
+    }
+    
+    // Stock disponible : stock moins les quantités retenues par les réservations de checkout actives
+    public int getStock(Long id) {
+        return productRepository.findAvailableById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Produit non trouvé avec l'ID: " + id));
+    }
+    
+    // Stocks disponibles lus en base en une requête ; les produits inexistants sont absents de la map
+    public Map<Long, Integer> getStocks(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        return productRepository.findAvailableByIdIn(ids).stream()
+                .collect(Collectors.toMap(ProductSummary::getId, ProductSummary::getStock));
+    }
+    
+    public String getCatalogEtag() {
+        return catalogVersion.etag();
+    }
+    
+    public long getCatalogLastModified() {
+        return catalogVersion.lastModified();
+    }
+    
+    public BoundedTtlCache.CacheStats getCacheStats() {
+        return productCache.stats();
+    }
+    
+    // Le classement vient de l'index en mémoire ; seuls les produits de la page sont lus en base
+    public PageResponse<ProductSummary> searchProducts(String query, Integer page, Integer size) {
+        int pageNumber = page == null ? 0 : Math.max(page, 0);
+        int pageSize = size == null ? DEFAULT_PAGE_SIZE : Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        
+        ProductSearchIndex.SearchHits hits = searchIndex.search(query, pageNumber, pageSize);
+        Map<Long, Product> products = productRepository.findAllById(hits.ids()).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        
+        List<ProductSummary> items = hits.ids().stream()
+                .map(products::get)
+                .filter(Objects::nonNull)
+                .map(ProductSummary::from)
+                .toList();
+        return new PageResponse<>(items, pageNumber, pageSize, hits.total());
     }
     
     public Product createProduct(Product product) {
-        return productRepository.save(product);
+        Product savedProduct = productRepository.save(product);
+        catalogVersion.bump();
+        searchIndex.index(savedProduct);
+        return savedProduct;
     }
     
+    @Transactional
     public Product updateProduct(Long id, Product productDetails) {
-        Product product = getProductById(id);
+        Product product = findProduct(id);
         
         product.setNom(productDetails.getNom());
         product.setDescription(productDetails.getDescription());
         product.setPrix(productDetails.getPrix());
         product.setImageUrl(productDetails.getImageUrl());
         product.setStock(productDetails.getStock());
+        product.markContentChanged();
         
-        return productRepository.save(product);
+        Product savedProduct = productRepository.save(product);
+        if (product.getStockShards() > 0) {
+            shardedStockService.setStock(id, productDetails.getStock());
+        }
+        productCache.evict(id);
+        catalogVersion.bump();
+        afterCommit(() -> searchIndex.index(savedProduct));
+        return savedProduct;
     }
     
+    @Transactional
     public void deleteProduct(Long id) {
-        Product product = getProductById(id);
+        Product product = findProduct(id);
+        if (product.getStockShards() > 0) {
+            shardedStockService.deleteShards(id);
+        }
         productRepository.delete(product);
+        productCache.evict(id);
+        catalogVersion.bump();
+        afterCommit(() -> searchIndex.remove(id));
+    }
+    
+    /**
+     * Décrémente le stock de plusieurs produits dans la transaction courante, une mise à jour
+     * conditionnelle par produit, dans l'ordre des identifiants pour éviter les interblocages
+     * entre commandes concurrentes. Ne lève pas d'exception : l'appelant décide quoi faire des échecs.
+     */
+    @Transactional
+    public List<StockDecrementResult> decrementStock(Map<Long, Integer> quantitiesByProduct) {
+        return decrementStock(quantitiesByProduct, Map.of());
+    }
+    
+    /**
+     * Comme decrementStock(Map), en consommant les réservations de l'acheteur (quantités réservées
+     * par produit, déjà retirées de la table des réservations) : elles sont rendues au stock disponible
+     * dans la même mise à jour. Une réservation sur un produit absent des quantités est simplement libérée.
+     * Le stock d'un produit partitionné est prélevé sur ses compteurs (ShardedStockService).
+     */
+    @Transactional
+    public List<StockDecrementResult> decrementStock(Map<Long, Integer> quantitiesByProduct, Map<Long, Integer> reservedByProduct) {
+        Set<Long> productIds = new TreeSet<>(quantitiesByProduct.keySet());
+        productIds.addAll(reservedByProduct.keySet());
+        Set<Long> sharded = shardedIds(productIds);
+        
+        List<StockDecrementResult> results = new ArrayList<>(quantitiesByProduct.size());
+        LocalDateTime now = LocalDateTime.now();
+        for (Long productId : productIds) {
+            int released = reservedByProduct.getOrDefault(productId, 0);
+            Integer quantite = quantitiesByProduct.get(productId);
+            if (sharded.contains(productId)) {
+                // La réservation a déjà été prélevée sur les compteurs : seul l'écart reste à prendre ou à rendre
+                int missing = (quantite != null ? quantite : 0) - released;
+                boolean success = true;
+                if (missing > 0) {
+                    success = shardedStockService.take(productId, missing);
+                } else if (missing < 0) {
+                    shardedStockService.give(productId, -missing);
+                }
+                if (quantite != null) {
+                    if (success) {
+                        productCache.evict(productId);
+                        catalogVersion.bump();
+                    }
+                    results.add(new StockDecrementResult(productId, quantite, success));
+                }
+                continue;
+            }
+            if (quantite == null) {
+                productRepository.releaseReserved(productId, released, now);
+                continue;
+            }
+            int updated = productRepository.decrementStock(productId, quantite, released, now);
+            if (updated == 1) {
+                productCache.evict(productId);
+                catalogVersion.bump();
+            }
+            results.add(new StockDecrementResult(productId, quantite, updated == 1));
+        }
+        return results;
     }
     
+    /**
+     * Réserve les quantités dans la transaction courante (mises à jour conditionnelles dans l'ordre
+     * des identifiants). Ne lève pas d'exception : l'appelant annule la transaction en cas d'échec.
+     * Le cache produit n'est pas invalidé : le stock affiché ne change pas.
+     * Pour un produit partitionné, la quantité réservée est prélevée sur les compteurs.
+     */
+    @Transactional
+    public List<StockDecrementResult> reserveStock(Map<Long, Integer> quantitiesByProduct) {
+        Set<Long> sharded = shardedIds(quantitiesByProduct.keySet());
+        List<StockDecrementResult> results = new ArrayList<>(quantitiesByProduct.size());
+        LocalDateTime now = LocalDateTime.now();
+        for (Map.Entry<Long, Integer> line : new TreeMap<>(quantitiesByProduct).entrySet()) {
+            boolean success = sharded.contains(line.getKey())
+                    ? shardedStockService.take(line.getKey(), line.getValue())
+                    : productRepository.reserveStock(line.getKey(), line.getValue(), now) == 1;
+            results.add(new StockDecrementResult(line.getKey(), line.getValue(), success));
+        }
+        return results;
+    }
+    
+    // Rend des quantités réservées, dans l'ordre des identifiants
+    @Transactional
+    public void releaseReserved(Map<Long, Integer> quantitiesByProduct) {
+        Set<Long> sharded = shardedIds(quantitiesByProduct.keySet());
+        LocalDateTime now = LocalDateTime.now();
+        for (Map.Entry<Long, Integer> line : new TreeMap<>(quantitiesByProduct).entrySet()) {
+            if (sharded.contains(line.getKey())) {
+                shardedStockService.give(line.getKey(), line.getValue());
+            } else {
+                productRepository.releaseReserved(line.getKey(), line.getValue(), now);
+            }
+        }
+    }
+    
+    @Transactional
     public void updateStock(Long productId, Integer newStock) {
-        Product product = getProductById(productId);
+        Product product = findProduct(productId);
         product.setStock(newStock);
         productRepository.save(product);
+        if (product.getStockShards() > 0) {
+            shardedStockService.setStock(productId, newStock);
+        }
+        productCache.evict(productId);
+        catalogVersion.bump();
+    }
+    
+    // Produits partitionnés, d'après le cache. Une copie en retard n'est pas dangereuse : les mises à jour
+    // de products.stock ne s'appliquent pas à un produit partitionné et échouent
+    private Set<Long> shardedIds(Collection<Long> ids) {
+        return getProductsByIds(ids).values().stream()
+                .filter(product -> product.getStockShards() > 0)
+                .map(Product::getId)
+                .collect(Collectors.toSet());
+    }
+    
+    // L'index de recherche n'est pas transactionnel : il ne suit une modification qu'une fois celle-ci validée
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+    
+    // Les écritures partent toujours de l'état en base, jamais d'une copie en cache
+    private Product findProduct(Long id) {
+        return productRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Produit non trouvé avec l'ID: " + id));
+    }
+    
+    // Curseur opaque : "TRI|id" ou "TRI|prix|id" encodé en base64 URL
+    private String encodeCursor(ProductSort sort, ProductSummary last) {
+        String raw = switch (sort) {
+            case ID_ASC, ID_DESC -> sort.name() + "|" + last.getId();
+            case PRIX_ASC, PRIX_DESC -> sort.name() + "|" + last.getPrix().toPlainString() + "|" + last.getId();
+        };
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    private ProductCursor decodeCursor(String cursor, ProductSort sort) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|");
+            if (!parts[0].equals(sort.name())) {
+                throw new BadRequestException("Le curseur ne correspond pas au tri demandé");
+            }
+            return switch (sort) {
+                case ID_ASC, ID_DESC -> new ProductCursor(null, Long.parseLong(parts[1]));
+                case PRIX_ASC, PRIX_DESC -> new ProductCursor(new BigDecimal(parts[1]), Long.parseLong(parts[2]));
+            };
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            throw new BadRequestException("Curseur de pagination invalide");
+        }
+    }
+    
+    private record ProductCursor(BigDecimal prix, Long id) {
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,189 @@
+package com.shopie.backend.service;
+
+import com.shopie.backend.cache.ProductCache;
+import com.shopie.backend.exception.BadRequestException;
+import com.shopie.backend.exception.ResourceNotFoundException;
+import com.shopie.backend.model.Product;
+import com.shopie.backend.model.ProductStockShard;
+import com.shopie.backend.repository.ProductRepository;
+import com.shopie.backend.repository.ProductStockShardRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Stock partitionné des produits très demandés (ventes flash) : le stock est réparti sur
+ * plusieurs compteurs et chaque vente en prélève un choisi au hasard, ce qui divise la
+ * contention sur les verrous de ligne par le nombre de compteurs.
+ *
+ * ProductService passe ici pour les produits dont stockShards > 0 ; les contrôles de stock
+ * lisent la somme des compteurs. products.stock en est une copie, rafraîchie périodiquement,
+ * pour les listes et la fiche produit.
+ */
+@Service
+public class ShardedStockService {
+    
+    @Autowired
+    private ProductStockShardRepository shardRepository;
+    
+    @Autowired
+    private ProductRepository productRepository;
+    
+    @Autowired
+    private ProductCache productCache;
+    
+    private final int maxShards;
+    
+    public ShardedStockService(@Value("${inventory.stock-shards.max:64}") int maxShards) {
+        this.maxShards = maxShards;
+    }
+    
+    /**
+     * Répartit le stock du produit sur shards compteurs. Refusé si des réservations sont en cours.
+     * La sauvegarde versionnée du produit échoue si une vente l'a modifié entre-temps.
+     */
+    @Transactional
+    public void enable(Long productId, int shards) {
+        if (shards < 2 || shards > maxShards) {
+            throw new BadRequestException("Le nombre de compteurs doit être compris entre 2 et " + maxShards);
+        }
+        Product product = findProduct(productId);
+        if (product.getStockShards() > 0) {
+            throw new BadRequestException("Le stock de ce produit est déjà partitionné");
+        }
+        if (product.getReserved() > 0) {
+            throw new BadRequestException("Des réservations sont en cours sur ce produit");
+        }
+        
+        int[] split = split(product.getStock(), shards);
+        List<ProductStockShard> rows = new ArrayList<>(shards);
+        for (int shard = 0; shard < shards; shard++) {
+            rows.add(new ProductStockShard(productId, shard, split[shard]));
+        }
+        shardRepository.saveAll(rows);
+        
+        product.setStockShards(shards);
+        productRepository.save(product);
+        productCache.evict(productId);
+    }
+    
+    /**
+     * Regroupe les compteurs dans la ligne du produit.
+     */
+    @Transactional
+    public void disable(Long productId) {
+        Product product = findProduct(productId);
+        if (product.getStockShards() == 0) {
+            throw new BadRequestException("Le stock de ce produit n'est pas partitionné");
+        }
+        int total = shardRepository.lockByProductId(productId).stream().mapToInt(ProductStockShard::getStock).sum();
+        shardRepository.deleteByProductId(productId);
+        
+        product.setStock(total);
+        product.setStockShards(0);
+        productRepository.save(product);
+        productCache.evict(productId);
+    }
+    
+    // Nouveau stock total (modification par l'administrateur ou import), réparti à parts égales
+    @Transactional
+    public void setStock(Long productId, int stock) {
+        List<ProductStockShard> shards = shardRepository.lockByProductId(productId);
+        int[] split = split(stock, shards.size());
+        for (int i = 0; i < shards.size(); i++) {
+            shards.get(i).setStock(split[i]);
+        }
+    }
+    
+    @Transactional
+    public void deleteShards(Long productId) {
+        shardRepository.deleteByProductId(productId);
+    }
+    
+    /**
+     * Prélève la quantité dans la transaction courante : d'abord sur un seul compteur, en partant
+     * d'un compteur tiré au hasard, puis, si aucun ne suffit seul, sur plusieurs compteurs.
+     * Retourne false sans rien prélever si le stock est insuffisant.
+     */
+    @Transactional
+    public boolean take(Long productId, int quantite) {
+        List<Integer> stocks = shardRepository.findStocks(productId);
+        int count = stocks.size();
+        if (count == 0 || stocks.stream().mapToInt(Integer::intValue).sum() < quantite) {
+            return false;
+        }
+        
+        int start = ThreadLocalRandom.current().nextInt(count);
+        for (int i = 0; i < count; i++) {
+            int shard = (start + i) % count;
+            if (stocks.get(shard) >= quantite && shardRepository.take(productId, shard, quantite) == 1) {
+                return true;
+            }
+        }
+        
+        // Débordement : aucun compteur ne suffit seul, prélever sur plusieurs
+        int[] taken = new int[count];
+        int remaining = quantite;
+        for (int i = 0; i < count && remaining > 0; i++) {
+            int shard = (start + i) % count;
+            int amount = Math.min(stocks.get(shard), remaining);
+            if (amount > 0 && shardRepository.take(productId, shard, amount) == 1) {
+                taken[shard] = amount;
+                remaining -= amount;
+            }
+        }
+        if (remaining > 0) {
+            // Compteurs vidés entre-temps : rendre les prélèvements partiels
+            for (int shard = 0; shard < count; shard++) {
+                if (taken[shard] > 0) {
+                    shardRepository.give(productId, shard, taken[shard]);
+                }
+            }
+            return false;
+        }
+        return true;
+    }
+    
+    // Rend une quantité au compteur le moins fourni
+    @Transactional
+    public void give(Long productId, int quantite) {
+        List<Integer> stocks = shardRepository.findStocks(productId);
+        int lowest = 0;
+        for (int shard = 1; shard < stocks.size(); shard++) {
+            if (stocks.get(shard) < stocks.get(lowest)) {
+                lowest = shard;
+            }
+        }
+        shardRepository.give(productId, lowest, quantite);
+    }
+    
+    // Copie de la somme des compteurs dans products.stock : affichage et filtres des listes
+    @Scheduled(fixedDelayString = "${inventory.stock-shards.sync-interval-ms:1000}")
+    @Transactional
+    public void copyTotalsToProducts() {
+        List<Long> shardedIds = productRepository.findShardedIds();
+        if (!shardedIds.isEmpty()) {
+            shardRepository.copyTotalsToProducts();
+            shardedIds.forEach(productCache::evict);
+        }
+    }
+    
+    private Product findProduct(Long id) {
+        return productRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Produit non trouvé avec l'ID: " + id));
+    }
+    
+    private static int[] split(int stock, int shards) {
+        int[] split = new int[shards];
+        for (int shard = 0; shard < shards; shard++) {
+            split[shard] = stock / shards + (shard < stock % shards ? 1 : 0);
+        }
+        return split;
+    }
+}
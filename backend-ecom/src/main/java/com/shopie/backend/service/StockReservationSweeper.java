@@ -0,0 +1,37 @@
+package com.shopie.backend.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Rend au stock disponible les réservations expirées, par lots (une transaction par lot).
+ */
+@Component
+public class StockReservationSweeper {
+    
+    @Autowired
+    private InventoryReservationService reservationService;
+    
+    private final boolean enabled;
+    private final int batchSize;
+    
+    public StockReservationSweeper(@Value("${inventory.reservations.sweeper-enabled:true}") boolean enabled,
+                                   @Value("${inventory.reservations.sweep-batch-size:500}") int batchSize) {
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+    }
+    
+    @Scheduled(fixedDelayString = "${inventory.reservations.sweep-interval-ms:10000}")
+    public void sweep() {
+        if (!enabled) {
+            return;
+        }
+        while (reservationService.releaseExpired(batchSize) == batchSize) {
+            if (Thread.currentThread().isInterrupted()) {
+                return;
+            }
+        }
+    }
+}
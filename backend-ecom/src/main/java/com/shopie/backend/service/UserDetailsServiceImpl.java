@@ -4,13 +4,14 @@ import com.shopie.backend.model.User;
 import com.shopie.backend.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 @Service
-public class UserDetailsServiceImpl implements UserDetailsService {
+public class UserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService {
     
     @Autowired
     UserRepository userRepository;
@@ -23,4 +24,14 @@ public class UserDetailsServiceImpl implements UserDetailsService {
         
         return user;
     }
+    
+    // Appelé après une connexion réussie quand le hash stocké utilise un coût BCrypt inférieur à celui configuré
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        User user = userRepository.findByEmail(userDetails.getUsername())
+                .orElseThrow(() -> new UsernameNotFoundException("Utilisateur non trouvé avec l'email: " + userDetails.getUsername()));
+        user.setMotDePasse(newPassword);
+        return userRepository.save(user);
+    }
 }
\ No newline at end of file
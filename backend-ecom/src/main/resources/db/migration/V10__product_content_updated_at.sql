@@ -0,0 +1,18 @@
+-- Date de la dernière modification du contenu indexé d'un produit (création, modification, import).
+-- Contrairement à updated_at, les ventes et réservations de stock ne la changent pas : elle sert de
+-- filigrane à l'instantané de l'index de recherche. Initialisée depuis updated_at.
+
+DROP PROCEDURE IF EXISTS shopie_add_product_content_updated_at;
+
+CREATE PROCEDURE shopie_add_product_content_updated_at()
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM information_schema.columns
+                   WHERE table_schema = DATABASE() AND table_name = 'products' AND column_name = 'content_updated_at') THEN
+        ALTER TABLE products ADD COLUMN content_updated_at DATETIME(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6);
+        UPDATE products SET content_updated_at = updated_at;
+    END IF;
+END;
+
+CALL shopie_add_product_content_updated_at();
+
+DROP PROCEDURE shopie_add_product_content_updated_at;
@@ -0,0 +1,75 @@
+-- Schéma de référence Shopie (idempotent : s'applique aussi bien à une base vide
+-- qu'à une base créée par database-setup.sql ou par ddl-auto)
+
+CREATE TABLE IF NOT EXISTS users (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    nom VARCHAR(50) NOT NULL,
+    email VARCHAR(255) NOT NULL UNIQUE,
+    mot_de_passe VARCHAR(255) NOT NULL,
+    role ENUM('USER', 'ADMIN') NOT NULL DEFAULT 'USER'
+);
+
+CREATE TABLE IF NOT EXISTS products (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    nom VARCHAR(255) NOT NULL,
+    description TEXT,
+    prix DECIMAL(10,2) NOT NULL,
+    image_url VARCHAR(500),
+    stock INT NOT NULL DEFAULT 0
+);
+
+CREATE TABLE IF NOT EXISTS cart_items (
+    id BIGINT PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    product_id BIGINT NOT NULL,
+    quantite INT NOT NULL,
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
+    FOREIGN KEY (product_id) REFERENCES products(id) ON DELETE CASCADE,
+    UNIQUE KEY unique_user_product (user_id, product_id)
+);
+
+CREATE TABLE IF NOT EXISTS orders (
+    id BIGINT PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    total DECIMAL(10,2) NOT NULL,
+    date DATETIME(6) NOT NULL,
+    statut ENUM('PENDING', 'PAID', 'SHIPPED', 'DELIVERED') NOT NULL DEFAULT 'PENDING',
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+);
+
+CREATE TABLE IF NOT EXISTS order_items (
+    id BIGINT PRIMARY KEY,
+    order_id BIGINT NOT NULL,
+    product_id BIGINT NOT NULL,
+    quantite INT NOT NULL,
+    prix DECIMAL(10,2) NOT NULL,
+    FOREIGN KEY (order_id) REFERENCES orders(id) ON DELETE CASCADE,
+    FOREIGN KEY (product_id) REFERENCES products(id) ON DELETE CASCADE
+);
+
+CREATE TABLE IF NOT EXISTS payments (
+    id BIGINT PRIMARY KEY,
+    order_id BIGINT NOT NULL UNIQUE,
+    montant DECIMAL(10,2) NOT NULL,
+    methode VARCHAR(50) NOT NULL,
+    date DATETIME(6) NOT NULL,
+    statut ENUM('PENDING', 'PAID', 'FAILED') NOT NULL DEFAULT 'PENDING',
+    FOREIGN KEY (order_id) REFERENCES orders(id) ON DELETE CASCADE
+);
+
+-- Tables d'allocation des identifiants (séquences émulées par Hibernate, blocs de 50)
+CREATE TABLE IF NOT EXISTS orders_seq (next_val BIGINT);
+CREATE TABLE IF NOT EXISTS order_items_seq (next_val BIGINT);
+CREATE TABLE IF NOT EXISTS payments_seq (next_val BIGINT);
+CREATE TABLE IF NOT EXISTS cart_items_seq (next_val BIGINT);
+
+INSERT INTO orders_seq (next_val) SELECT 1 FROM DUAL WHERE NOT EXISTS (SELECT 1 FROM orders_seq);
+INSERT INTO order_items_seq (next_val) SELECT 1 FROM DUAL WHERE NOT EXISTS (SELECT 1 FROM order_items_seq);
+INSERT INTO payments_seq (next_val) SELECT 1 FROM DUAL WHERE NOT EXISTS (SELECT 1 FROM payments_seq);
+INSERT INTO cart_items_seq (next_val) SELECT 1 FROM DUAL WHERE NOT EXISTS (SELECT 1 FROM cart_items_seq);
+
+-- Sur une base existante, next_val doit dépasser les identifiants déjà attribués
+UPDATE orders_seq SET next_val = GREATEST(next_val, (SELECT COALESCE(MAX(id), 0) + 51 FROM orders));
+UPDATE order_items_seq SET next_val = GREATEST(next_val, (SELECT COALESCE(MAX(id), 0) + 51 FROM order_items));
+UPDATE payments_seq SET next_val = GREATEST(next_val, (SELECT COALESCE(MAX(id), 0) + 51 FROM payments));
+UPDATE cart_items_seq SET next_val = GREATEST(next_val, (SELECT COALESCE(MAX(id), 0) + 51 FROM cart_items));
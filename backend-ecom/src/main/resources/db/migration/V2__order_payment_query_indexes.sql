@@ -0,0 +1,50 @@
+-- Index des requêtes de listing, de filtrage par statut/date et de pagination.
+-- MySQL ne connaît pas CREATE INDEX IF NOT EXISTS : chaque index n'est créé que s'il est absent.
+
+DROP PROCEDURE IF EXISTS shopie_create_index;
+DROP PROCEDURE IF EXISTS shopie_drop_index;
+
+CREATE PROCEDURE shopie_create_index(IN p_table VARCHAR(64), IN p_index VARCHAR(64), IN p_columns VARCHAR(255))
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM information_schema.statistics
+                   WHERE table_schema = DATABASE() AND table_name = p_table AND index_name = p_index) THEN
+        SET @ddl = CONCAT('CREATE INDEX ', p_index, ' ON ', p_table, ' (', p_columns, ')');
+        PREPARE stmt FROM @ddl;
+        EXECUTE stmt;
+        DEALLOCATE PREPARE stmt;
+    END IF;
+END;
+
+CREATE PROCEDURE shopie_drop_index(IN p_table VARCHAR(64), IN p_index VARCHAR(64))
+BEGIN
+    IF EXISTS (SELECT 1 FROM information_schema.statistics
+               WHERE table_schema = DATABASE() AND table_name = p_table AND index_name = p_index) THEN
+        SET @ddl = CONCAT('DROP INDEX ', p_index, ' ON ', p_table);
+        PREPARE stmt FROM @ddl;
+        EXECUTE stmt;
+        DEALLOCATE PREPARE stmt;
+    END IF;
+END;
+
+-- Historique utilisateur : WHERE user_id = ? ORDER BY date DESC
+CALL shopie_create_index('orders', 'idx_orders_user_date', 'user_id, date');
+-- Tableau de bord admin : WHERE statut = ? ORDER BY date DESC
+CALL shopie_create_index('orders', 'idx_orders_statut_date', 'statut, date');
+-- Toutes les commandes : ORDER BY date DESC
+CALL shopie_create_index('orders', 'idx_orders_date', 'date');
+
+CALL shopie_create_index('payments', 'idx_payments_statut_date', 'statut, date');
+CALL shopie_create_index('payments', 'idx_payments_date', 'date');
+
+-- Catalogue : filtre de disponibilité et tri par prix (pagination par clé)
+CALL shopie_create_index('products', 'idx_stock', 'stock');
+CALL shopie_create_index('products', 'idx_prix_id', 'prix, id');
+
+-- Index des anciennes versions de database-setup.sql, couverts par les index composites ci-dessus
+CALL shopie_drop_index('orders', 'idx_user_date');
+CALL shopie_drop_index('orders', 'idx_statut');
+CALL shopie_drop_index('payments', 'idx_statut');
+CALL shopie_drop_index('payments', 'idx_date');
+
+DROP PROCEDURE shopie_create_index;
+DROP PROCEDURE shopie_drop_index;
@@ -0,0 +1,20 @@
+-- Version (verrouillage optimiste, ETag) et date de modification (Last-Modified) des produits.
+-- Colonnes ajoutées seulement si absentes (base créée par une version récente de database-setup.sql).
+
+DROP PROCEDURE IF EXISTS shopie_add_column;
+
+CREATE PROCEDURE shopie_add_column(IN p_table VARCHAR(64), IN p_column VARCHAR(64), IN p_definition VARCHAR(255))
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM information_schema.columns
+                   WHERE table_schema = DATABASE() AND table_name = p_table AND column_name = p_column) THEN
+        SET @ddl = CONCAT('ALTER TABLE ', p_table, ' ADD COLUMN ', p_column, ' ', p_definition);
+        PREPARE stmt FROM @ddl;
+        EXECUTE stmt;
+        DEALLOCATE PREPARE stmt;
+    END IF;
+END;
+
+CALL shopie_add_column('products', 'version', 'BIGINT NOT NULL DEFAULT 0');
+CALL shopie_add_column('products', 'updated_at', 'DATETIME(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6)');
+
+DROP PROCEDURE shopie_add_column;
@@ -0,0 +1,24 @@
+-- Outbox des paiements : demandes de débit traitées de façon asynchrone par le worker
+
+CREATE TABLE IF NOT EXISTS payment_outbox (
+    id BIGINT PRIMARY KEY,
+    payment_id BIGINT NOT NULL UNIQUE,
+    order_id BIGINT NOT NULL,
+    montant DECIMAL(10,2) NOT NULL,
+    methode VARCHAR(50) NOT NULL,
+    idempotency_key VARCHAR(64) NOT NULL UNIQUE,
+    statut ENUM('PENDING', 'PROCESSING', 'DONE', 'FAILED') NOT NULL DEFAULT 'PENDING',
+    attempts INT NOT NULL DEFAULT 0,
+    next_attempt_at DATETIME(6) NOT NULL,
+    claimed_at DATETIME(6),
+    last_error VARCHAR(500),
+    gateway_reference VARCHAR(100),
+    created_at DATETIME(6) NOT NULL,
+    processed_at DATETIME(6),
+    version BIGINT,
+    FOREIGN KEY (payment_id) REFERENCES payments(id) ON DELETE CASCADE,
+    INDEX idx_payment_outbox_statut_next (statut, next_attempt_at)
+);
+
+CREATE TABLE IF NOT EXISTS payment_outbox_seq (next_val BIGINT);
+INSERT INTO payment_outbox_seq (next_val) SELECT 1 FROM DUAL WHERE NOT EXISTS (SELECT 1 FROM payment_outbox_seq);
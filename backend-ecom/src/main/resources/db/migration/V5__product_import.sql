@@ -0,0 +1,24 @@
+-- Import en masse des produits : référence fournisseur unique (clé de mise à jour) et identifiants
+-- alloués par blocs de 50, comme les autres tables, pour que les insertions soient batchées.
+
+DROP PROCEDURE IF EXISTS shopie_add_product_reference;
+
+CREATE PROCEDURE shopie_add_product_reference()
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM information_schema.columns
+                   WHERE table_schema = DATABASE() AND table_name = 'products' AND column_name = 'reference') THEN
+        ALTER TABLE products ADD COLUMN reference VARCHAR(64) NULL;
+    END IF;
+    IF NOT EXISTS (SELECT 1 FROM information_schema.statistics
+                   WHERE table_schema = DATABASE() AND table_name = 'products' AND index_name = 'uk_products_reference') THEN
+        CREATE UNIQUE INDEX uk_products_reference ON products (reference);
+    END IF;
+END;
+
+CALL shopie_add_product_reference();
+
+DROP PROCEDURE shopie_add_product_reference;
+
+CREATE TABLE IF NOT EXISTS products_seq (next_val BIGINT);
+INSERT INTO products_seq (next_val) SELECT 1 FROM DUAL WHERE NOT EXISTS (SELECT 1 FROM products_seq);
+UPDATE products_seq SET next_val = GREATEST(next_val, (SELECT COALESCE(MAX(id), 0) + 51 FROM products));
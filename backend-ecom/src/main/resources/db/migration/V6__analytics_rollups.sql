@@ -0,0 +1,31 @@
+-- Agrégats analytiques tenus à jour de façon incrémentale (upserts) par les services.
+-- Tables vides à la création : POST /api/analytics/admin/rebuild ou --analytics.rebuild-on-startup=true
+-- les calcule depuis l'historique.
+
+CREATE TABLE IF NOT EXISTS analytics_daily_revenue (
+    jour DATE PRIMARY KEY,
+    order_count BIGINT NOT NULL,
+    revenue DECIMAL(14,2) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS analytics_product_sales (
+    product_id BIGINT PRIMARY KEY,
+    units BIGINT NOT NULL,
+    revenue DECIMAL(14,2) NOT NULL,
+    INDEX idx_product_sales_units (units)
+);
+
+CREATE TABLE IF NOT EXISTS analytics_order_status (
+    statut VARCHAR(20) PRIMARY KEY,
+    order_count BIGINT NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS analytics_payment_method (
+    methode VARCHAR(255) PRIMARY KEY,
+    payment_count BIGINT NOT NULL,
+    pending_count BIGINT NOT NULL,
+    paid_count BIGINT NOT NULL,
+    failed_count BIGINT NOT NULL,
+    amount_total DECIMAL(14,2) NOT NULL,
+    amount_paid DECIMAL(14,2) NOT NULL
+);
@@ -0,0 +1,32 @@
+-- Réservations de stock prises au début du paiement, avec expiration.
+-- products.reserved cumule les quantités réservées : disponible = stock - reserved.
+
+DROP PROCEDURE IF EXISTS shopie_add_product_reserved;
+
+CREATE PROCEDURE shopie_add_product_reserved()
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM information_schema.columns
+                   WHERE table_schema = DATABASE() AND table_name = 'products' AND column_name = 'reserved') THEN
+        ALTER TABLE products ADD COLUMN reserved INT NOT NULL DEFAULT 0;
+    END IF;
+END;
+
+CALL shopie_add_product_reserved();
+
+DROP PROCEDURE shopie_add_product_reserved;
+
+CREATE TABLE IF NOT EXISTS stock_reservations (
+    id BIGINT PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    product_id BIGINT NOT NULL,
+    quantite INT NOT NULL,
+    created_at DATETIME(6) NOT NULL,
+    expires_at DATETIME(6) NOT NULL,
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
+    FOREIGN KEY (product_id) REFERENCES products(id) ON DELETE CASCADE,
+    INDEX idx_stock_reservations_user (user_id),
+    INDEX idx_stock_reservations_expires (expires_at)
+);
+
+CREATE TABLE IF NOT EXISTS stock_reservations_seq (next_val BIGINT);
+INSERT INTO stock_reservations_seq (next_val) SELECT 1 FROM DUAL WHERE NOT EXISTS (SELECT 1 FROM stock_reservations_seq);
@@ -0,0 +1,24 @@
+-- Stock partitionné des produits très demandés : products.stock_shards compteurs dans
+-- product_stock_shards, products.stock n'étant alors qu'une copie de leur somme.
+
+DROP PROCEDURE IF EXISTS shopie_add_product_stock_shards;
+
+CREATE PROCEDURE shopie_add_product_stock_shards()
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM information_schema.columns
+                   WHERE table_schema = DATABASE() AND table_name = 'products' AND column_name = 'stock_shards') THEN
+        ALTER TABLE products ADD COLUMN stock_shards INT NOT NULL DEFAULT 0;
+    END IF;
+END;
+
+CALL shopie_add_product_stock_shards();
+
+DROP PROCEDURE shopie_add_product_stock_shards;
+
+CREATE TABLE IF NOT EXISTS product_stock_shards (
+    product_id BIGINT NOT NULL,
+    shard INT NOT NULL,
+    stock INT NOT NULL DEFAULT 0,
+    PRIMARY KEY (product_id, shard),
+    FOREIGN KEY (product_id) REFERENCES products(id) ON DELETE CASCADE
+);
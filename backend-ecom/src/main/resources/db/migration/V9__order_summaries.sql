@@ -0,0 +1,31 @@
+-- Historique des commandes dénormalisé : une ligne par commande, écrite avec la commande et mise
+-- à jour avec les statuts de la commande et du paiement. Les listes de commandes ne lisent que
+-- cette table. Les commandes existantes y sont recopiées.
+
+CREATE TABLE IF NOT EXISTS order_summaries (
+    order_id BIGINT PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    user_nom VARCHAR(255),
+    date DATETIME(6) NOT NULL,
+    statut ENUM('PENDING', 'PAID', 'SHIPPED', 'DELIVERED') NOT NULL,
+    total DECIMAL(10,2) NOT NULL,
+    item_count BIGINT NOT NULL,
+    first_product_nom VARCHAR(255),
+    first_product_image_url VARCHAR(500),
+    payment_statut ENUM('PENDING', 'PAID', 'FAILED'),
+    INDEX idx_order_summaries_user_date (user_id, date),
+    INDEX idx_order_summaries_statut_date (statut, date),
+    INDEX idx_order_summaries_date (date)
+);
+
+INSERT INTO order_summaries (order_id, user_id, user_nom, date, statut, total, item_count,
+                             first_product_nom, first_product_image_url, payment_statut)
+SELECT o.id, o.user_id, u.nom, o.date, o.statut, o.total,
+       (SELECT COUNT(*) FROM order_items i WHERE i.order_id = o.id),
+       fp.nom, fp.image_url, p.statut
+FROM orders o
+JOIN users u ON u.id = o.user_id
+LEFT JOIN payments p ON p.order_id = o.id
+LEFT JOIN order_items fi ON fi.id = (SELECT MIN(i.id) FROM order_items i WHERE i.order_id = o.id)
+LEFT JOIN products fp ON fp.id = fi.product_id
+WHERE NOT EXISTS (SELECT 1 FROM order_summaries s WHERE s.order_id = o.id);
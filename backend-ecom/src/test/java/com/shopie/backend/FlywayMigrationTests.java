@@ -0,0 +1,52 @@
+package com.shopie.backend;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationInfo;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.test.context.ActiveProfiles;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.mysql.MySQLContainer;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Rejoue les migrations V1..Vn sur un MySQL réel puis démarre l'application avec
+ * ddl-auto=validate : le schéma produit par Flyway doit correspondre aux entités.
+ * Les autres tests tournent sur H2 sans Flyway et ne couvrent donc pas les scripts.
+ * Ignoré quand Docker n'est pas disponible.
+ */
+@SpringBootTest(properties = {
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.datasource.driver-class-name=com.mysql.cj.jdbc.Driver",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.MySQLDialect"
+})
+@ActiveProfiles("test")
+@Testcontainers(disabledWithoutDocker = true)
+class FlywayMigrationTests {
+    
+    @Container
+    @ServiceConnection
+    static MySQLContainer mysql = new MySQLContainer("mysql:8.0");
+    
+    @Autowired
+    private Flyway flyway;
+    
+    @Test
+    void migrationsApplyOnMySqlAndMatchEntities() {
+        MigrationInfo[] applied = flyway.info().applied();
+        assertThat(applied).isNotEmpty();
+        assertThat(Arrays.stream(applied).allMatch(info -> info.getState().isApplied() && !info.getState().isFailed()))
+                .isTrue();
+        assertThat(flyway.info().pending()).isEmpty();
+        
+        // Historique à jour : une seconde exécution n'applique rien
+        assertThat(flyway.migrate().migrationsExecuted).isZero();
+    }
+}
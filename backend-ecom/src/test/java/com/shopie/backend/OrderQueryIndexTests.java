@@ -0,0 +1,136 @@
+package com.shopie.backend;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.mysql.MySQLContainer;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Plans d'exécution des listes de commandes et de paiements sur un MySQL réel peuplé d'un million
+ * de commandes (schéma créé par Flyway) : chaque requête doit passer par l'index déclaré pour elle
+ * (V2, V9), sans tri en mémoire. Les plans et la latence médiane de chaque requête sont affichés.
+ * Les requêtes reprennent le SQL des méthodes de OrderSummaryRepository et PaymentRepository.
+ * Ignoré quand Docker n'est pas disponible ; le peuplement prend une à deux minutes.
+ */
+@SpringBootTest(properties = {
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.datasource.driver-class-name=com.mysql.cj.jdbc.Driver",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.MySQLDialect"
+})
+@ActiveProfiles("test")
+@Testcontainers(disabledWithoutDocker = true)
+class OrderQueryIndexTests {
+    
+    private static final int ORDERS = 1_000_000;
+    private static final int USERS = 1_000;
+    private static final int PAGE_SIZE = 20;
+    private static final int TIMED_RUNS = 5;
+    // Commandes réparties sur deux ans à partir du 1er janvier 2024, une toutes les 63 secondes
+    private static final LocalDateTime FROM = LocalDateTime.of(2025, 3, 1, 0, 0);
+    private static final LocalDateTime TO = FROM.plusMonths(1);
+    private static final LocalDateTime CURSOR_DATE = LocalDateTime.of(2025, 3, 15, 12, 0);
+    
+    @Container
+    @ServiceConnection
+    static MySQLContainer mysql = new MySQLContainer("mysql:8.0");
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Test
+    void statusAndDateQueriesUseTheirIndexesOnAMillionOrders() {
+        seed();
+        
+        // Historique d'un client, première page puis page suivante par curseur (date, id)
+        assertIndexedPlan("idx_order_summaries_user_date",
+                "SELECT * FROM order_summaries WHERE user_id = ? ORDER BY date DESC, order_id DESC LIMIT " + PAGE_SIZE,
+                42L);
+        assertIndexedPlan("idx_order_summaries_user_date",
+                "SELECT * FROM order_summaries WHERE user_id = ? AND (date < ? OR (date = ? AND order_id < ?)) "
+                        + "ORDER BY date DESC, order_id DESC LIMIT " + PAGE_SIZE,
+                42L, CURSOR_DATE, CURSOR_DATE, Long.MAX_VALUE);
+        
+        // Tableau de bord admin : commandes par période, puis par statut et période
+        assertIndexedPlan("idx_order_summaries_date",
+                "SELECT * FROM order_summaries WHERE date >= ? AND date < ? ORDER BY date DESC LIMIT " + PAGE_SIZE,
+                FROM, TO);
+        assertIndexedPlan("idx_order_summaries_date",
+                "SELECT COUNT(*) FROM order_summaries WHERE date >= ? AND date < ?",
+                FROM, TO);
+        assertIndexedPlan("idx_order_summaries_statut_date",
+                "SELECT * FROM order_summaries WHERE statut = ? AND date >= ? AND date < ? ORDER BY date DESC LIMIT " + PAGE_SIZE,
+                "PAID", FROM, TO);
+        assertIndexedPlan("idx_order_summaries_statut_date",
+                "SELECT COUNT(*) FROM order_summaries WHERE statut = ? AND date >= ? AND date < ?",
+                "PAID", FROM, TO);
+        
+        // Export : parcours de la période par (date, id) croissants
+        assertIndexedPlan("idx_order_summaries_date",
+                "SELECT * FROM order_summaries WHERE (date > ? OR (date = ? AND order_id > ?)) "
+                        + "AND date >= ? AND date < ? ORDER BY date ASC, order_id ASC",
+                CURSOR_DATE, CURSOR_DATE, 0L, FROM, TO);
+        
+        // Paiements par période, puis par statut et période
+        assertIndexedPlan("idx_payments_date",
+                "SELECT id, order_id, montant, methode, statut, date FROM payments "
+                        + "WHERE date >= ? AND date < ? ORDER BY date DESC LIMIT " + PAGE_SIZE,
+                FROM, TO);
+        assertIndexedPlan("idx_payments_statut_date",
+                "SELECT id, order_id, montant, methode, statut, date FROM payments "
+                        + "WHERE statut = ? AND date >= ? AND date < ? ORDER BY date DESC LIMIT " + PAGE_SIZE,
+                "FAILED", FROM, TO);
+        assertIndexedPlan("idx_payments_statut_date",
+                "SELECT COUNT(*) FROM payments WHERE statut = ? AND date >= ? AND date < ?",
+                "FAILED", FROM, TO);
+    }
+    
+    // Un million de commandes, leur paiement et leur ligne d'historique, générés côté serveur
+    private void seed() {
+        jdbcTemplate.execute("SET SESSION cte_max_recursion_depth = " + ORDERS);
+        jdbcTemplate.update("INSERT INTO users (id, nom, email, mot_de_passe) "
+                + "WITH RECURSIVE seq (n) AS (SELECT 1 UNION ALL SELECT n + 1 FROM seq WHERE n < " + USERS + ") "
+                + "SELECT n, CONCAT('Client ', n), CONCAT('client-', n, '@shopie.test'), 'hash' FROM seq");
+        jdbcTemplate.update("INSERT INTO orders (id, user_id, total, date, statut) "
+                + "WITH RECURSIVE seq (n) AS (SELECT 1 UNION ALL SELECT n + 1 FROM seq WHERE n < " + ORDERS + ") "
+                + "SELECT n, 1 + n % " + USERS + ", 10 + n % 90, TIMESTAMP('2024-01-01') + INTERVAL n * 63 SECOND, "
+                + "ELT(1 + n % 4, 'PENDING', 'PAID', 'SHIPPED', 'DELIVERED') FROM seq");
+        jdbcTemplate.update("INSERT INTO payments (id, order_id, montant, methode, date, statut) "
+                + "SELECT id, id, total, 'Card', date, ELT(1 + id % 3, 'PENDING', 'PAID', 'FAILED') FROM orders");
+        jdbcTemplate.update("INSERT INTO order_summaries (order_id, user_id, user_nom, date, statut, total, item_count, payment_statut) "
+                + "SELECT o.id, o.user_id, u.nom, o.date, o.statut, o.total, 1, p.statut "
+                + "FROM orders o JOIN users u ON u.id = o.user_id JOIN payments p ON p.order_id = o.id");
+        // Statistiques à jour : sans elles, l'optimiseur peut ignorer les index sur des tables fraîchement remplies
+        jdbcTemplate.queryForList("ANALYZE TABLE orders, payments, order_summaries");
+    }
+    
+    private void assertIndexedPlan(String index, String sql, Object... args) {
+        List<Map<String, Object>> plan = jdbcTemplate.queryForList("EXPLAIN " + sql, args);
+        assertThat(plan).as(sql).hasSize(1);
+        Map<String, Object> step = plan.get(0);
+        assertThat(step.get("key")).as(sql).isEqualTo(index);
+        assertThat(String.valueOf(step.get("Extra"))).as(sql).doesNotContain("Using filesort");
+        
+        long[] durations = new long[TIMED_RUNS];
+        for (int i = 0; i < TIMED_RUNS; i++) {
+            long start = System.nanoTime();
+            jdbcTemplate.queryForList(sql, args);
+            durations[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(durations);
+        System.out.printf("%-32s %-6s %8s lignes estimées %8.2f ms  %s%n", index, step.get("type"), step.get("rows"),
+                durations[TIMED_RUNS / 2] / 1_000_000.0, sql);
+    }
+}
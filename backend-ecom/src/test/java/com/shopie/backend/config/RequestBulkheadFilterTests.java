@@ -0,0 +1,65 @@
+package com.shopie.backend.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RequestBulkheadFilterTests {
+    
+    @Test
+    void saturatedBulkheadRejectsWith503AndRetryAfter() throws Exception {
+        RequestBulkheadFilter filter = new RequestBulkheadFilter(1, 50);
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        
+        // Première requête : occupe l'unique place jusqu'à release
+        MockHttpServletResponse firstResponse = new MockHttpServletResponse();
+        CompletableFuture<Void> first = CompletableFuture.runAsync(() -> {
+            try {
+                filter.doFilter(new MockHttpServletRequest("GET", "/orders"), firstResponse, (request, response) -> {
+                    entered.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(filter.availablePermits()).isZero();
+        
+        // Seconde requête : refusée après max-wait-ms, sans atteindre la chaîne de filtres
+        AtomicInteger reached = new AtomicInteger();
+        MockHttpServletRequest rejectedRequest = new MockHttpServletRequest("GET", "/orders");
+        rejectedRequest.setServletPath("/orders");
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        filter.doFilter(rejectedRequest, rejected, (request, response) -> reached.incrementAndGet());
+        
+        assertThat(reached).hasValue(0);
+        assertThat(rejected.getStatus()).isEqualTo(503);
+        assertThat(rejected.getHeader("Retry-After")).isEqualTo("1");
+        assertThat(rejected.getContentType()).startsWith("application/json");
+        assertThat(rejected.getContentAsString()).contains("\"status\":503", "\"path\":\"/orders\"");
+        
+        release.countDown();
+        first.get(5, TimeUnit.SECONDS);
+        assertThat(firstResponse.getStatus()).isEqualTo(200);
+        assertThat(filter.availablePermits()).isEqualTo(1);
+        
+        // Place libérée : la requête suivante passe
+        MockHttpServletResponse next = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/orders"), next, (request, response) -> reached.incrementAndGet());
+        assertThat(reached).hasValue(1);
+        assertThat(next.getStatus()).isEqualTo(200);
+    }
+}
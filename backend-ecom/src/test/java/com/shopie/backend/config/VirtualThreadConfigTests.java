@@ -0,0 +1,85 @@
+package com.shopie.backend.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Garde-fou au démarrage en mode threads virtuels, avec une source de données dont seules
+ * les métadonnées du pilote sont simulées.
+ */
+class VirtualThreadConfigTests {
+    
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withUserConfiguration(VirtualThreadConfig.class)
+            .withPropertyValues("spring.threads.virtual.enabled=true");
+    
+    @Test
+    void refusesToStartOnAPinnedDriver() throws SQLException {
+        // À partir du JDK 24, les blocs synchronized n'épinglent plus : le garde-fou ne refuse rien
+        assumeTrue(Runtime.version().feature() < 24);
+        DataSource dataSource = dataSource("MySQL Connector/J", "mysql-connector-j-8.4.0", 8);
+        
+        contextRunner.withBean(DataSource.class, () -> dataSource)
+                .run(context -> {
+                    assertThat(context).hasFailed();
+                    assertThat(context.getStartupFailure())
+                            .isInstanceOf(IllegalStateException.class)
+                            .hasMessageContaining("épingle les threads virtuels")
+                            .hasMessageContaining("app.virtual-threads.allow-pinning=true");
+                });
+    }
+    
+    @Test
+    void startsOnAPinnedDriverWhenPinningIsAllowed() throws SQLException {
+        DataSource dataSource = dataSource("MySQL Connector/J", "mysql-connector-j-8.4.0", 8);
+        
+        contextRunner.withBean(DataSource.class, () -> dataSource)
+                .withPropertyValues("app.virtual-threads.allow-pinning=true")
+                .run(context -> assertThat(context).hasNotFailed());
+    }
+    
+    @Test
+    void startsOnADriverWithoutSynchronizedBlocks() throws SQLException {
+        DataSource dataSource = dataSource("MySQL Connector/J", "mysql-connector-j-9.1.0", 9);
+        
+        contextRunner.withBean(DataSource.class, () -> dataSource)
+                .run(context -> {
+                    assertThat(context).hasNotFailed();
+                    assertThat(context).hasBean("requestBulkheadFilter");
+                });
+    }
+    
+    @Test
+    void platformThreadsSkipTheGuardAndTheBulkhead() throws SQLException {
+        DataSource dataSource = dataSource("MySQL Connector/J", "mysql-connector-j-8.4.0", 8);
+        
+        contextRunner.withBean(DataSource.class, () -> dataSource)
+                .withPropertyValues("spring.threads.virtual.enabled=false")
+                .run(context -> {
+                    assertThat(context).hasNotFailed();
+                    assertThat(context).doesNotHaveBean("requestBulkheadFilter");
+                });
+    }
+    
+    private DataSource dataSource(String driverName, String driverVersion, int majorVersion) throws SQLException {
+        DatabaseMetaData metaData = mock(DatabaseMetaData.class);
+        when(metaData.getDriverName()).thenReturn(driverName);
+        when(metaData.getDriverVersion()).thenReturn(driverVersion);
+        when(metaData.getDriverMajorVersion()).thenReturn(majorVersion);
+        Connection connection = mock(Connection.class);
+        when(connection.getMetaData()).thenReturn(metaData);
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        return dataSource;
+    }
+}
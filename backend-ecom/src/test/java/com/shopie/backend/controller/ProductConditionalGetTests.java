@@ -0,0 +1,88 @@
+package com.shopie.backend.controller;
+
+import com.shopie.backend.model.Product;
+import com.shopie.backend.repository.ProductRepository;
+import com.shopie.backend.service.ProductService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.springframework.test.web.servlet.setup.MockMvcBuilders.webAppContextSetup;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ProductConditionalGetTests {
+    
+    @Autowired
+    private WebApplicationContext context;
+    
+    @Autowired
+    private ProductRepository productRepository;
+    
+    @Autowired
+    private ProductService productService;
+    
+    private MockMvc mockMvc;
+    
+    @BeforeEach
+    void setUp() {
+        mockMvc = webAppContextSetup(context).apply(springSecurity()).build();
+    }
+    
+    @Test
+    void productWithMatchingEtagIsNotModifiedWithEmptyBody() throws Exception {
+        Product product = createProduct("Clavier");
+        String etag = mockMvc.perform(get("/products/{id}", product.getId()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        assertThat(etag).isNotBlank();
+        
+        MvcResult notModified = mockMvc.perform(get("/products/{id}", product.getId()).header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", etag))
+                .andReturn();
+        assertThat(notModified.getResponse().getContentAsByteArray()).isEmpty();
+    }
+    
+    @Test
+    void catalogPageIsNotModifiedUntilAProductChanges() throws Exception {
+        Product product = createProduct("Souris");
+        String etag = mockMvc.perform(get("/products"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        
+        MvcResult notModified = mockMvc.perform(get("/products").header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andReturn();
+        assertThat(notModified.getResponse().getContentAsByteArray()).isEmpty();
+        
+        // Écriture sur un produit : nouvelle version du catalogue, l'ancien ETag ne correspond plus
+        productService.updateStock(product.getId(), 5);
+        // Tri décroissant : le produit créé est en tête même si le contexte partagé contient d'autres produits
+        MvcResult modified = mockMvc.perform(get("/products").param("sort", "ID_DESC").header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andReturn();
+        assertThat(modified.getResponse().getHeader("ETag")).isNotEqualTo(etag);
+        assertThat(modified.getResponse().getContentAsString()).contains("Souris");
+    }
+    
+    private Product createProduct(String nom) {
+        Product product = new Product();
+        product.setNom(nom);
+        product.setPrix(new BigDecimal("10.00"));
+        product.setStock(100);
+        return productRepository.save(product);
+    }
+}
@@ -0,0 +1,66 @@
+package com.shopie.backend.search;
+
+import com.shopie.backend.model.Product;
+import com.shopie.backend.repository.ProductRepository;
+import com.shopie.backend.service.ProductService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ProductSearchIndexTests {
+    
+    @Autowired
+    private ProductSearchIndex searchIndex;
+    
+    @Autowired
+    private ProductService productService;
+    
+    @Autowired
+    private ProductRepository productRepository;
+    
+    @Value("${search.index.snapshot-path}")
+    private String snapshotPath;
+    
+    @Test
+    void snapshotSurvivesSalesButNotContentChanges() {
+        Product product = new Product();
+        product.setNom("Boussole laiton");
+        product.setPrix(new BigDecimal("24.00"));
+        product.setStock(10);
+        Long productId = productService.createProduct(product).getId();
+        searchIndex.snapshotIfDirty();
+        
+        // Une vente change updatedAt et la version du produit, pas son contenu indexé
+        assertThat(productService.decrementStock(Map.of(productId, 1)).get(0).isSuccess()).isTrue();
+        
+        ProductSearchIndex restarted = restartedIndex();
+        assertThat(restarted.loadSnapshot()).isTrue();
+        assertThat(restarted.search("boussole", 0, 100).ids()).contains(productId);
+        
+        Product details = new Product();
+        details.setNom("Boussole acier");
+        details.setPrix(product.getPrix());
+        details.setStock(9);
+        productService.updateProduct(productId, details);
+        
+        assertThat(restartedIndex().loadSnapshot()).isFalse();
+    }
+    
+    // Nouvelle instance sur le même instantané, comme au redémarrage de l'application
+    private ProductSearchIndex restartedIndex() {
+        ProductSearchIndex index = new ProductSearchIndex();
+        ReflectionTestUtils.setField(index, "productRepository", productRepository);
+        ReflectionTestUtils.setField(index, "snapshotPath", snapshotPath);
+        return index;
+    }
+}
@@ -0,0 +1,119 @@
+package com.shopie.backend.service;
+
+import com.shopie.backend.dto.CartItemRequest;
+import com.shopie.backend.dto.PaymentRequest;
+import com.shopie.backend.dto.ProductSalesView;
+import com.shopie.backend.model.*;
+import com.shopie.backend.repository.OrderStatusCountRepository;
+import com.shopie.backend.repository.PaymentMethodStatsRepository;
+import com.shopie.backend.repository.ProductRepository;
+import com.shopie.backend.repository.ProductSalesRepository;
+import com.shopie.backend.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class AnalyticsTests {
+    
+    @Autowired
+    private AnalyticsService analyticsService;
+    
+    @Autowired
+    private CartService cartService;
+    
+    @Autowired
+    private OrderService orderService;
+    
+    @Autowired
+    private PaymentService paymentService;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private ProductRepository productRepository;
+    
+    @Autowired
+    private ProductSalesRepository productSalesRepository;
+    
+    @Autowired
+    private OrderStatusCountRepository orderStatusCountRepository;
+    
+    @Autowired
+    private PaymentMethodStatsRepository paymentMethodStatsRepository;
+    
+    @Test
+    void rollupsFollowOrderAndPaymentLifecycleAndMatchRebuild() {
+        String methode = "Test-" + UUID.randomUUID();
+        Product product = createProduct();
+        long pendingBefore = statusCount(Order.Statut.PENDING);
+        long paidBefore = statusCount(Order.Statut.PAID);
+        BigDecimal revenueBefore = revenueToday();
+        
+        User user = createUser();
+        cartService.addToCart(user, new CartItemRequest(product.getId(), 3));
+        Order order = orderService.createOrderFromCart(user);
+        
+        assertThat(revenueToday()).isEqualByComparingTo(revenueBefore.add(new BigDecimal("37.50")));
+        assertThat(statusCount(Order.Statut.PENDING)).isEqualTo(pendingBefore + 1);
+        ProductSales sales = productSalesRepository.findById(product.getId()).orElseThrow();
+        assertThat(sales.getUnits()).isEqualTo(3);
+        assertThat(sales.getRevenue()).isEqualByComparingTo("37.50");
+        
+        Payment payment = paymentService.createPayment(new PaymentRequest(order.getId(), order.getTotal(), methode));
+        paymentService.updatePaymentStatus(payment.getId(), Payment.Statut.PAID);
+        
+        PaymentMethodStats stats = paymentMethodStatsRepository.findById(methode).orElseThrow();
+        assertThat(stats.getPaymentCount()).isEqualTo(1);
+        assertThat(stats.getPendingCount()).isZero();
+        assertThat(stats.getPaidCount()).isEqualTo(1);
+        assertThat(stats.getAmountPaid()).isEqualByComparingTo("37.50");
+        assertThat(statusCount(Order.Statut.PENDING)).isEqualTo(pendingBefore);
+        assertThat(statusCount(Order.Statut.PAID)).isEqualTo(paidBefore + 1);
+        assertThat(analyticsService.getTopProducts(100)).extracting(ProductSalesView::getProductId).contains(product.getId());
+        
+        analyticsService.rebuild();
+        
+        assertThat(productSalesRepository.findById(product.getId()).orElseThrow().getUnits()).isEqualTo(3);
+        PaymentMethodStats rebuilt = paymentMethodStatsRepository.findById(methode).orElseThrow();
+        assertThat(rebuilt.getPaidCount()).isEqualTo(1);
+        assertThat(rebuilt.getAmountTotal()).isEqualByComparingTo("37.50");
+    }
+    
+    private long statusCount(Order.Statut statut) {
+        return orderStatusCountRepository.findById(statut).map(OrderStatusCount::getOrderCount).orElse(0L);
+    }
+    
+    private BigDecimal revenueToday() {
+        LocalDate today = LocalDate.now();
+        return analyticsService.getDailyRevenue(today, today.plusDays(1)).stream()
+                .map(DailyRevenue::getRevenue)
+                .findFirst()
+                .orElse(BigDecimal.ZERO);
+    }
+    
+    private User createUser() {
+        User user = new User();
+        user.setNom("Client Test");
+        user.setEmail("client-" + UUID.randomUUID() + "@shopie.test");
+        user.setMotDePasse("hash");
+        return userRepository.save(user);
+    }
+    
+    private Product createProduct() {
+        Product product = new Product();
+        product.setNom("Produit analytique");
+        product.setPrix(new BigDecimal("12.50"));
+        product.setStock(10);
+        return productRepository.save(product);
+    }
+}
@@ -0,0 +1,144 @@
+package com.shopie.backend.service;
+
+import com.shopie.backend.dto.CartBatchRequest;
+import com.shopie.backend.dto.CartBatchResponse;
+import com.shopie.backend.dto.CartItemRequest;
+import com.shopie.backend.model.Product;
+import com.shopie.backend.model.User;
+import com.shopie.backend.repository.ProductRepository;
+import com.shopie.backend.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class CartBatchTests {
+    
+    @Autowired
+    private CartService cartService;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private ProductRepository productRepository;
+    
+    @Autowired
+    private OrderService orderService;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    private Statistics statistics;
+    
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+    
+    @Test
+    void restoringThirtyLinesTakesTwoStatementsInsteadOfOnePerLine() {
+        List<Product> products = createProducts(30);
+        
+        // Une requête par ligne : un contrôle de stock en base à chaque ajout
+        User oneByOne = createUser();
+        statistics.clear();
+        for (Product product : products) {
+            cartService.addToCart(oneByOne, new CartItemRequest(product.getId(), 2));
+        }
+        long oneByOneStatements = statistics.getPrepareStatementCount();
+        
+        // Lot : produits (cache) et stocks lus une seule fois
+        User batched = createUser();
+        List<CartBatchRequest.Operation> operations = new ArrayList<>();
+        for (Product product : products) {
+            operations.add(new CartBatchRequest.Operation(CartBatchRequest.Action.ADD, product.getId(), 2));
+        }
+        statistics.clear();
+        CartBatchResponse response = cartService.applyBatch(batched, new CartBatchRequest(operations));
+        long batchStatements = statistics.getPrepareStatementCount();
+        
+        assertThat(response.getResults()).hasSize(30).allMatch(CartBatchResponse.LineResult::isSuccess);
+        assertThat(response.getCart().getNombreArticles()).isEqualTo(60);
+        assertThat(batchStatements).isLessThanOrEqualTo(2);
+        assertThat(oneByOneStatements).isGreaterThanOrEqualTo(30);
+    }
+    
+    @Test
+    void invalidOperationsAreReportedWithoutRejectingTheBatch() {
+        List<Product> products = createProducts(2);
+        Product first = products.get(0);
+        Product second = products.get(1);
+        User user = createUser();
+        
+        CartBatchResponse response = cartService.applyBatch(user, new CartBatchRequest(List.of(
+                new CartBatchRequest.Operation(CartBatchRequest.Action.ADD, first.getId(), 3),
+                new CartBatchRequest.Operation(CartBatchRequest.Action.ADD, second.getId(), 500),
+                new CartBatchRequest.Operation(CartBatchRequest.Action.UPDATE, first.getId(), 5),
+                new CartBatchRequest.Operation(CartBatchRequest.Action.REMOVE, second.getId(), null),
+                new CartBatchRequest.Operation(CartBatchRequest.Action.ADD, Long.MAX_VALUE, 1))));
+        
+        assertThat(response.getResults()).extracting(CartBatchResponse.LineResult::isSuccess)
+                .containsExactly(true, false, true, false, false);
+        assertThat(response.getResults().get(2).getQuantite()).isEqualTo(5);
+        assertThat(response.getCart().getItems()).hasSize(1);
+        assertThat(cartService.getCartLines(user)).containsEntry(first.getId(), 5);
+    }
+    
+    @Test
+    void quantityAddedDuringCheckoutStaysInTheCart() {
+        List<Product> products = createProducts(2);
+        Product kept = products.get(0);
+        Product ordered = products.get(1);
+        User user = createUser();
+        cartService.addToCart(user, new CartItemRequest(kept.getId(), 2));
+        cartService.addToCart(user, new CartItemRequest(ordered.getId(), 1));
+        
+        // Article ajouté pendant la commande : seules les quantités commandées sont retranchées au commit
+        transactionTemplate.executeWithoutResult(status -> {
+            orderService.placeOrder(user);
+            cartService.addToCart(user, new CartItemRequest(kept.getId(), 3));
+        });
+        
+        assertThat(cartService.getCartLines(user)).containsExactly(Map.entry(kept.getId(), 3));
+    }
+    
+    private User createUser() {
+        User user = new User();
+        user.setNom("Client Test");
+        user.setEmail("client-" + UUID.randomUUID() + "@shopie.test");
+        user.setMotDePasse("hash");
+        return userRepository.save(user);
+    }
+    
+    private List<Product> createProducts(int count) {
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Product product = new Product();
+            product.setNom("Produit " + i);
+            product.setDescription("Description du produit " + i);
+            product.setPrix(new BigDecimal("10.00"));
+            product.setStock(100);
+            products.add(productRepository.save(product));
+        }
+        return products;
+    }
+}
@@ -0,0 +1,115 @@
+package com.shopie.backend.service;
+
+import com.shopie.backend.dto.CartItemRequest;
+import com.shopie.backend.model.Product;
+import com.shopie.backend.model.User;
+import com.shopie.backend.repository.ProductRepository;
+import com.shopie.backend.repository.UserRepository;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Requêtes préparées par une commande de 1, 10 et 100 lignes, classées par nature.
+ * Seules la décrémentation conditionnelle du stock et l'agrégat des ventes par produit sont
+ * écrites ligne par ligne. Les lignes de commande partagent une seule requête préparée, exécutée
+ * en batchs JDBC de hibernate.jdbc.batch_size lignes (deux allers-retours pour 100 lignes).
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.shopie.backend.service.CheckoutStatementCountTests$StatementCounter")
+@ActiveProfiles("test")
+class CheckoutStatementCountTests {
+    
+    @Autowired
+    private CartService cartService;
+    
+    @Autowired
+    private OrderService orderService;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private ProductRepository productRepository;
+    
+    @Test
+    void orderWritesStayConstantAsTheCartGrows() {
+        // Première commande : blocs d'identifiants et cache des produits initialisés
+        checkout(1);
+        
+        Map<String, Integer> single = checkout(1);
+        for (int lines : new int[] {1, 10, 100}) {
+            Map<String, Integer> counts = checkout(lines);
+            
+            assertThat(counts.get("order_items")).isEqualTo(1);
+            assertThat(counts.get("stock")).isEqualTo(lines);
+            assertThat(counts.get("product_sales")).isEqualTo(lines);
+            // Commande, ligne d'historique, agrégats, réservations, panier : indépendants du nombre de lignes
+            assertThat(counts.get("other")).isEqualTo(single.get("other"));
+        }
+    }
+    
+    // Requêtes de la commande d'un panier de `lines` produits, hors allocation des identifiants
+    private Map<String, Integer> checkout(int lines) {
+        User user = new User();
+        user.setNom("Client Test");
+        user.setEmail("client-" + UUID.randomUUID() + "@shopie.test");
+        user.setMotDePasse("hash");
+        user = userRepository.save(user);
+        for (int i = 0; i < lines; i++) {
+            Product product = new Product();
+            product.setNom("Produit " + i);
+            product.setPrix(new BigDecimal("10.00"));
+            product.setStock(100);
+            product = productRepository.save(product);
+            cartService.addToCart(user, new CartItemRequest(product.getId(), 1));
+        }
+        
+        StatementCounter.COUNTS.clear();
+        orderService.createOrderFromCart(user);
+        Map<String, Integer> counts = new ConcurrentHashMap<>();
+        StatementCounter.COUNTS.forEach((kind, count) -> counts.put(kind, count.get()));
+        for (String kind : new String[] {"order_items", "stock", "product_sales", "other"}) {
+            counts.putIfAbsent(kind, 0);
+        }
+        return counts;
+    }
+    
+    /**
+     * Classe les requêtes au moment de leur préparation : un batch JDBC n'est préparé qu'une fois.
+     */
+    public static class StatementCounter implements StatementInspector {
+        
+        static final Map<String, AtomicInteger> COUNTS = new ConcurrentHashMap<>();
+        
+        @Override
+        public String inspect(String sql) {
+            String lower = sql.toLowerCase(Locale.ROOT);
+            String kind;
+            if (lower.contains("next value for") || lower.contains("nextval")) {
+                kind = "sequence";
+            } else if (lower.startsWith("insert into order_items")) {
+                kind = "order_items";
+            } else if (lower.startsWith("update products")) {
+                kind = "stock";
+            } else if (lower.contains("analytics_product_sales")) {
+                kind = "product_sales";
+            } else {
+                kind = "other";
+            }
+            COUNTS.computeIfAbsent(kind, k -> new AtomicInteger()).incrementAndGet();
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.shopie.backend.service;
+
+import com.shopie.backend.dto.ExportFormat;
+import com.shopie.backend.model.Order;
+import com.shopie.backend.model.OrderSummaryRow;
+import com.shopie.backend.repository.OrderSummaryRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ExportServiceTests {
+    
+    private static final Pattern ID = Pattern.compile("\"id\":(\\d+)");
+    
+    // Fenêtre d'export propre au test, loin des commandes créées par les autres tests
+    private static final LocalDateTime FROM = LocalDateTime.of(2001, 1, 1, 0, 0);
+    private static final LocalDateTime TO = LocalDateTime.of(2001, 1, 2, 0, 0);
+    
+    @Autowired
+    private ExportService exportService;
+    
+    @Autowired
+    private OrderSummaryRepository orderSummaryRepository;
+    
+    @Test
+    void resumeAfterLastRowKeepsRowsCommittedLateWithALowerId() throws IOException {
+        // Identifiants alloués par blocs : la commande 9000020 précède la commande 9000010
+        saveSummary(9_000_020L, FROM.plusHours(1));
+        saveSummary(9_000_010L, FROM.plusHours(2));
+        assertThat(exportedIds(null, null)).containsExactly(9_000_020L, 9_000_010L);
+        
+        // Validée après le premier export, avec un identifiant inférieur au dernier reçu
+        saveSummary(9_000_015L, FROM.plusHours(3));
+        assertThat(exportedIds(FROM.plusHours(2), 9_000_010L)).containsExactly(9_000_015L);
+    }
+    
+    @Test
+    void rowsYoungerThanTheSafetyLagWaitForTheNextExport() throws IOException {
+        saveSummary(9_000_030L, LocalDateTime.now());
+        
+        StringWriter out = new StringWriter();
+        exportService.exportOrders(null, null, null, null, ExportFormat.NDJSON, out);
+        assertThat(ids(out.toString())).doesNotContain(9_000_030L);
+    }
+    
+    private List<Long> exportedIds(LocalDateTime afterDate, Long afterId) throws IOException {
+        StringWriter out = new StringWriter();
+        exportService.exportOrders(FROM, TO, afterDate, afterId, ExportFormat.NDJSON, out);
+        return ids(out.toString());
+    }
+    
+    private static List<Long> ids(String ndjson) {
+        Matcher matcher = ID.matcher(ndjson);
+        List<Long> ids = new ArrayList<>();
+        while (matcher.find()) {
+            ids.add(Long.parseLong(matcher.group(1)));
+        }
+        return ids;
+    }
+    
+    // Lignes d'historique écrites directement : l'export ne lit que order_summaries
+    private void saveSummary(Long orderId, LocalDateTime date) {
+        orderSummaryRepository.save(new OrderSummaryRow(orderId, 1L, "Client export", date, Order.Statut.PAID,
+                new BigDecimal("10.00"), 1L, null, null, null));
+    }
+}
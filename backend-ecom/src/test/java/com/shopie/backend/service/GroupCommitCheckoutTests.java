@@ -0,0 +1,114 @@
+package com.shopie.backend.service;
+
+import com.shopie.backend.dto.CartItemRequest;
+import com.shopie.backend.exception.InsufficientStockException;
+import com.shopie.backend.model.Order;
+import com.shopie.backend.model.Product;
+import com.shopie.backend.model.User;
+import com.shopie.backend.repository.ProductRepository;
+import com.shopie.backend.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "orders.checkout.group-commit.enabled=true",
+        "orders.checkout.group-commit.max-delay-ms=200"
+})
+@ActiveProfiles("test")
+class GroupCommitCheckoutTests {
+    
+    private static final int BUYERS = 20;
+    
+    @Autowired
+    private CheckoutBatcher checkoutBatcher;
+    
+    @Autowired
+    private CartService cartService;
+    
+    @Autowired
+    private ProductService productService;
+    
+    @Autowired
+    private ProductRepository productRepository;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Test
+    void rejectedOrderIsRolledBackAloneWhileTheBatchCommits() throws Exception {
+        Product available = createProduct(100);
+        Product scarce = createProduct(5);
+        
+        // Les 10 acheteurs impairs veulent aussi le produit rare : 5 d'entre eux seulement seront servis
+        List<User> buyers = new ArrayList<>();
+        for (int i = 0; i < BUYERS; i++) {
+            User buyer = createUser();
+            cartService.addToCart(buyer, new CartItemRequest(available.getId(), 1));
+            if (i % 2 == 1) {
+                cartService.addToCart(buyer, new CartItemRequest(scarce.getId(), 1));
+            }
+            buyers.add(buyer);
+        }
+        
+        long batchesBefore = meterRegistry.summary("orders.checkout.batch.size").count();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(BUYERS);
+        List<Future<Order>> futures = new ArrayList<>();
+        for (User buyer : buyers) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                return checkoutBatcher.checkout(buyer);
+            }));
+        }
+        start.countDown();
+        int orders = 0;
+        int rejected = 0;
+        for (Future<Order> future : futures) {
+            try {
+                future.get(60, TimeUnit.SECONDS);
+                orders++;
+            } catch (ExecutionException e) {
+                assertThat(e.getCause()).isInstanceOf(InsufficientStockException.class);
+                rejected++;
+            }
+        }
+        executor.shutdown();
+        
+        assertThat(orders).isEqualTo(15);
+        assertThat(rejected).isEqualTo(5);
+        // Les commandes refusées n'ont rien décrémenté, même sur le produit disponible traité avant le produit rare
+        assertThat(productService.getStock(available.getId())).isEqualTo(85);
+        assertThat(productService.getStock(scarce.getId())).isZero();
+        assertThat(meterRegistry.summary("orders.checkout.batch.size").count() - batchesBefore).isLessThan(BUYERS);
+    }
+    
+    private User createUser() {
+        User user = new User();
+        user.setNom("Acheteur");
+        user.setEmail("acheteur-" + UUID.randomUUID() + "@shopie.test");
+        user.setMotDePasse("hash");
+        return userRepository.save(user);
+    }
+    
+    private Product createProduct(int stock) {
+        Product product = new Product();
+        product.setNom("Produit");
+        product.setPrix(new BigDecimal("15.00"));
+        product.setStock(stock);
+        return productRepository.save(product);
+    }
+}
@@ -0,0 +1,135 @@
+package com.shopie.backend.service;
+
+import com.shopie.backend.dto.CartItemRequest;
+import com.shopie.backend.dto.CursorPage;
+import com.shopie.backend.dto.OrderSummary;
+import com.shopie.backend.dto.PaymentRequest;
+import com.shopie.backend.exception.BadRequestException;
+import com.shopie.backend.model.Order;
+import com.shopie.backend.model.Payment;
+import com.shopie.backend.model.Product;
+import com.shopie.backend.model.User;
+import com.shopie.backend.repository.ProductRepository;
+import com.shopie.backend.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class OrderSummaryTests {
+    
+    @Autowired
+    private CartService cartService;
+    
+    @Autowired
+    private OrderService orderService;
+    
+    @Autowired
+    private PaymentService paymentService;
+    
+    @Autowired
+    private ProductRepository productRepository;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Test
+    void summaryIsWrittenWithTheOrderAndFollowsOrderAndPaymentStatuses() {
+        User user = createUser();
+        Product first = createProduct("Casque", "https://cdn.shopie.test/casque.jpg", "20.00");
+        Product second = createProduct("Câble", null, "5.00");
+        cartService.addToCart(user, new CartItemRequest(first.getId(), 2));
+        cartService.addToCart(user, new CartItemRequest(second.getId(), 1));
+        
+        Order order = orderService.createOrderFromCart(user);
+        
+        OrderSummary summary = singleSummary(user);
+        assertThat(summary.getId()).isEqualTo(order.getId());
+        assertThat(summary.getUserNom()).isEqualTo(user.getNom());
+        assertThat(summary.getTotal()).isEqualByComparingTo("45.00");
+        assertThat(summary.getItemCount()).isEqualTo(2);
+        assertThat(summary.getFirstProductNom()).isEqualTo("Casque");
+        assertThat(summary.getFirstProductImageUrl()).isEqualTo("https://cdn.shopie.test/casque.jpg");
+        assertThat(summary.getStatut()).isEqualTo(Order.Statut.PENDING);
+        assertThat(summary.getPaymentStatut()).isNull();
+        
+        Payment payment = paymentService.createPayment(new PaymentRequest(order.getId(), order.getTotal(), "Card"));
+        assertThat(singleSummary(user).getPaymentStatut()).isEqualTo(Payment.Statut.PENDING);
+        
+        // Paiement confirmé : la commande passe aussi à PAID
+        paymentService.updatePaymentStatus(payment.getId(), Payment.Statut.PAID);
+        summary = singleSummary(user);
+        assertThat(summary.getPaymentStatut()).isEqualTo(Payment.Statut.PAID);
+        assertThat(summary.getStatut()).isEqualTo(Order.Statut.PAID);
+        
+        orderService.updateOrderStatus(order.getId(), Order.Statut.SHIPPED);
+        assertThat(singleSummary(user).getStatut()).isEqualTo(Order.Statut.SHIPPED);
+        assertThat(orderService.getOrdersByStatus(Order.Statut.SHIPPED, null, null, 0, 100).getItems())
+                .extracting(OrderSummary::getId)
+                .contains(order.getId());
+    }
+    
+    @Test
+    void userOrdersArePagedFromNewestToOldestWithACursor() {
+        User user = createUser();
+        Product product = createProduct("Carnet", null, "3.00");
+        List<Long> orderIds = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            cartService.addToCart(user, new CartItemRequest(product.getId(), 1));
+            orderIds.add(orderService.createOrderFromCart(user).getId());
+        }
+        Collections.reverse(orderIds);
+        
+        List<Long> pagedIds = new ArrayList<>();
+        List<Integer> pageSizes = new ArrayList<>();
+        String cursor = null;
+        CursorPage<OrderSummary> page;
+        do {
+            page = orderService.getUserOrders(user, cursor, 2);
+            page.getItems().forEach(summary -> pagedIds.add(summary.getId()));
+            pageSizes.add(page.getItems().size());
+            cursor = page.getNextCursor();
+        } while (page.isHasMore());
+        
+        assertThat(pageSizes).containsExactly(2, 2, 1);
+        assertThat(pagedIds).containsExactlyElementsOf(orderIds);
+        assertThat(page.getNextCursor()).isNull();
+        
+        assertThatThrownBy(() -> orderService.getUserOrders(user, "pas-un-curseur", 2))
+                .isInstanceOf(BadRequestException.class);
+    }
+    
+    private OrderSummary singleSummary(User user) {
+        List<OrderSummary> orders = orderService.getUserOrders(user, null, null).getItems();
+        assertThat(orders).hasSize(1);
+        return orders.get(0);
+    }
+    
+    private User createUser() {
+        User user = new User();
+        user.setNom("Client Historique");
+        user.setEmail("historique-" + UUID.randomUUID() + "@shopie.test");
+        user.setMotDePasse("hash");
+        return userRepository.save(user);
+    }
+    
+    private Product createProduct(String nom, String imageUrl, String prix) {
+        Product product = new Product();
+        product.setNom(nom);
+        product.setImageUrl(imageUrl);
+        product.setPrix(new BigDecimal(prix));
+        product.setStock(10);
+        return productRepository.save(product);
+    }
+}
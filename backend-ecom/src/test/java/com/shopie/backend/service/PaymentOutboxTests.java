@@ -0,0 +1,198 @@
+package com.shopie.backend.service;
+
+import com.shopie.backend.dto.PaymentRequest;
+import com.shopie.backend.dto.PaymentSummary;
+import com.shopie.backend.model.Order;
+import com.shopie.backend.model.Payment;
+import com.shopie.backend.model.PaymentOutboxEvent;
+import com.shopie.backend.model.User;
+import com.shopie.backend.payment.ChargeResult;
+import com.shopie.backend.payment.PaymentOutboxWorker;
+import com.shopie.backend.repository.OrderRepository;
+import com.shopie.backend.repository.PaymentOutboxRepository;
+import com.shopie.backend.repository.PaymentRepository;
+import com.shopie.backend.repository.UserRepository;
+import com.shopie.backend.service.PaymentOutboxService.ChargeOutcome;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class PaymentOutboxTests {
+    
+    @Autowired
+    private PaymentService paymentService;
+    
+    @Autowired
+    private PaymentOutboxWorker outboxWorker;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private OrderRepository orderRepository;
+    
+    @Autowired
+    private PaymentRepository paymentRepository;
+    
+    @Autowired
+    private PaymentOutboxRepository outboxRepository;
+    
+    @Autowired
+    private PaymentOutboxService outboxService;
+    
+    @Value("${payments.outbox.max-attempts}")
+    private int maxAttempts;
+    
+    @Value("${payments.outbox.backoff-base-ms}")
+    private long backoffBaseMs;
+    
+    @Value("${payments.outbox.lease-ms}")
+    private long leaseMs;
+    
+    @Test
+    void paymentIsAcceptedThenChargedOnceByTheWorker() {
+        Order order = createOrder();
+        Payment payment = paymentService.createPayment(new PaymentRequest(order.getId(), order.getTotal(), "Card"));
+        
+        PaymentSummary accepted = paymentService.processPayment(payment.getId());
+        PaymentSummary acceptedAgain = paymentService.processPayment(payment.getId());
+        
+        assertThat(accepted.getStatut()).isEqualTo(Payment.Statut.PENDING);
+        assertThat(acceptedAgain.getStatut()).isEqualTo(Payment.Statut.PENDING);
+        PaymentOutboxEvent event = outboxRepository.findByPaymentId(payment.getId()).orElseThrow();
+        assertThat(event.getStatut()).isEqualTo(PaymentOutboxEvent.Statut.PENDING);
+        
+        while (outboxWorker.processBatch() > 0) {
+            // Vide l'outbox (les événements des autres tests compris)
+        }
+        
+        event = outboxRepository.findById(event.getId()).orElseThrow();
+        assertThat(event.getStatut()).isEqualTo(PaymentOutboxEvent.Statut.DONE);
+        assertThat(event.getAttempts()).isEqualTo(1);
+        assertThat(event.getGatewayReference()).isNotBlank();
+        assertThat(paymentRepository.findById(payment.getId()).orElseThrow().getStatut()).isEqualTo(Payment.Statut.PAID);
+        assertThat(orderRepository.findById(order.getId()).orElseThrow().getStatut()).isEqualTo(Order.Statut.PAID);
+        
+        // Paiement finalisé : un nouvel appel ne remet rien en file
+        assertThat(paymentService.processPayment(payment.getId()).getStatut()).isEqualTo(Payment.Statut.PAID);
+        assertThat(outboxWorker.processBatch()).isZero();
+    }
+    
+    @Test
+    void transientGatewayErrorsAreRetriedWithExponentialBackoffThenFail() {
+        drainOutbox();
+        Order order = createOrder();
+        Payment payment = paymentService.createPayment(new PaymentRequest(order.getId(), order.getTotal(), "Card"));
+        paymentService.processPayment(payment.getId());
+        Long eventId = outboxRepository.findByPaymentId(payment.getId()).orElseThrow().getId();
+        
+        for (int attempt = 1; attempt < maxAttempts; attempt++) {
+            PaymentOutboxEvent claimed = claimOnly(eventId);
+            assertThat(claimed.getAttempts()).isEqualTo(attempt);
+            
+            // Marge d'une milliseconde : la base tronque les dates enregistrées
+            LocalDateTime before = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+            outboxService.recordOutcomes(List.of(ChargeOutcome.retry(claimed, "Délai dépassé")));
+            LocalDateTime after = LocalDateTime.now().plus(Duration.ofMillis(1));
+            
+            // Délai doublé à chaque tentative, plus au plus 20 % d'aléa
+            long delayMs = backoffBaseMs << (attempt - 1);
+            PaymentOutboxEvent retried = outboxRepository.findById(eventId).orElseThrow();
+            assertThat(retried.getStatut()).isEqualTo(PaymentOutboxEvent.Statut.PENDING);
+            assertThat(retried.getLastError()).isEqualTo("Délai dépassé");
+            assertThat(retried.getClaimedAt()).isNull();
+            assertThat(retried.getNextAttemptAt())
+                    .isAfterOrEqualTo(before.plus(Duration.ofMillis(delayMs)))
+                    .isBeforeOrEqualTo(after.plus(Duration.ofMillis(delayMs + delayMs / 5)));
+            
+            // Pas de reprise avant l'échéance
+            assertThat(outboxService.claimBatch(50)).extracting(PaymentOutboxEvent::getId).doesNotContain(eventId);
+            retried.setNextAttemptAt(LocalDateTime.now().minusSeconds(1));
+            outboxRepository.save(retried);
+        }
+        
+        // Dernière tentative en erreur : le paiement échoue au lieu d'être remis en file
+        PaymentOutboxEvent last = claimOnly(eventId);
+        assertThat(last.getAttempts()).isEqualTo(maxAttempts);
+        outboxService.recordOutcomes(List.of(ChargeOutcome.retry(last, "Délai dépassé")));
+        
+        PaymentOutboxEvent failed = outboxRepository.findById(eventId).orElseThrow();
+        assertThat(failed.getStatut()).isEqualTo(PaymentOutboxEvent.Statut.FAILED);
+        assertThat(failed.getProcessedAt()).isNotNull();
+        assertThat(paymentRepository.findById(payment.getId()).orElseThrow().getStatut()).isEqualTo(Payment.Statut.FAILED);
+        assertThat(orderRepository.findById(order.getId()).orElseThrow().getStatut()).isNotEqualTo(Order.Statut.PAID);
+    }
+    
+    @Test
+    void outcomeOfAnExpiredClaimIsIgnoredAfterTheEventWasReclaimed() {
+        drainOutbox();
+        Order order = createOrder();
+        Payment payment = paymentService.createPayment(new PaymentRequest(order.getId(), order.getTotal(), "Card"));
+        paymentService.processPayment(payment.getId());
+        Long eventId = outboxRepository.findByPaymentId(payment.getId()).orElseThrow().getId();
+        
+        // Premier worker : prise en charge puis bail expiré (worker lent ou arrêté)
+        PaymentOutboxEvent stale = claimOnly(eventId);
+        PaymentOutboxEvent expired = outboxRepository.findById(eventId).orElseThrow();
+        expired.setClaimedAt(LocalDateTime.now().minus(Duration.ofMillis(leaseMs + 1000)));
+        outboxRepository.save(expired);
+        
+        // Second worker : reprise de l'événement, nouvelle version
+        PaymentOutboxEvent reclaimed = claimOnly(eventId);
+        assertThat(reclaimed.getAttempts()).isEqualTo(2);
+        assertThat(reclaimed.getVersion()).isNotEqualTo(stale.getVersion());
+        
+        // Le résultat du premier worker arrive en retard : ignoré
+        outboxService.recordOutcomes(List.of(ChargeOutcome.of(stale, ChargeResult.approved("ref-perimee"))));
+        PaymentOutboxEvent afterStale = outboxRepository.findById(eventId).orElseThrow();
+        assertThat(afterStale.getStatut()).isEqualTo(PaymentOutboxEvent.Statut.PROCESSING);
+        assertThat(afterStale.getGatewayReference()).isNull();
+        assertThat(paymentRepository.findById(payment.getId()).orElseThrow().getStatut()).isEqualTo(Payment.Statut.PENDING);
+        
+        // Le résultat du second worker est enregistré
+        outboxService.recordOutcomes(List.of(ChargeOutcome.of(reclaimed, ChargeResult.approved("ref-reprise"))));
+        PaymentOutboxEvent done = outboxRepository.findById(eventId).orElseThrow();
+        assertThat(done.getStatut()).isEqualTo(PaymentOutboxEvent.Statut.DONE);
+        assertThat(done.getGatewayReference()).isEqualTo("ref-reprise");
+        assertThat(paymentRepository.findById(payment.getId()).orElseThrow().getStatut()).isEqualTo(Payment.Statut.PAID);
+    }
+    
+    // Vide l'outbox pour que la prise en charge suivante ne concerne que l'événement du test
+    private void drainOutbox() {
+        while (outboxWorker.processBatch() > 0) {
+            // Événements des autres tests
+        }
+    }
+    
+    private PaymentOutboxEvent claimOnly(Long eventId) {
+        List<PaymentOutboxEvent> claimed = outboxService.claimBatch(50);
+        assertThat(claimed).extracting(PaymentOutboxEvent::getId).containsExactly(eventId);
+        return claimed.get(0);
+    }
+    
+    private Order createOrder() {
+        User user = new User();
+        user.setNom("Client Test");
+        user.setEmail("client-" + UUID.randomUUID() + "@shopie.test");
+        user.setMotDePasse("hash");
+        user = userRepository.save(user);
+        
+        Order order = new Order();
+        order.setUser(user);
+        order.setTotal(new BigDecimal("42.00"));
+        return orderRepository.save(order);
+    }
+}
@@ -0,0 +1,87 @@
+package com.shopie.backend.service;
+
+import com.shopie.backend.dto.ExportFormat;
+import com.shopie.backend.dto.ImportReport;
+import com.shopie.backend.model.Product;
+import com.shopie.backend.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "catalog.import.chunk-size=500")
+@ActiveProfiles("test")
+class ProductImportTests {
+    
+    private static final int ROWS = 20_000;
+    
+    @Autowired
+    private ProductImportService productImportService;
+    
+    @Autowired
+    private ProductRepository productRepository;
+    
+    @Test
+    void csvFeedIsImportedThenUpsertedByReference() throws Exception {
+        String prefix = "SKU-" + UUID.randomUUID() + "-";
+        StringBuilder csv = new StringBuilder("reference,nom,prix,stock,description\n");
+        for (int i = 0; i < ROWS; i++) {
+            csv.append(prefix).append(i).append(",Produit ").append(i).append(",19.90,")
+               .append(i % 50).append(",\"Description, sur\nplusieurs lignes\"\n");
+        }
+        csv.append(prefix).append("bad-1,,19.90,1,\n");
+        csv.append(prefix).append("bad-2,Produit,-3,1,\n");
+        
+        // Débit (lignes/s) journalisé par le service en fin d'import
+        ImportReport first = productImportService.importProducts(stream(csv.toString()), ExportFormat.CSV);
+        
+        assertThat(first.getStatut()).isEqualTo(ImportReport.Statut.COMPLETED);
+        assertThat(first.getRowsRead()).isEqualTo(ROWS + 2);
+        assertThat(first.getInserted()).isEqualTo(ROWS);
+        assertThat(first.getRejected()).isEqualTo(2);
+        assertThat(first.getErrors()).extracting(ImportReport.RowError::getMessage)
+                .anySatisfy(message -> assertThat(message).startsWith("nom:"))
+                .anySatisfy(message -> assertThat(message).startsWith("prix:"));
+        
+        String update = "reference,nom,prix,stock\n" + prefix + "7,Produit renommé,25.00,3\n";
+        ImportReport second = productImportService.importProducts(stream(update), ExportFormat.CSV);
+        
+        assertThat(second.getInserted()).isZero();
+        assertThat(second.getUpdated()).isEqualTo(1);
+        List<Product> updated = productRepository.findByReferenceIn(List.of(prefix + "7"));
+        assertThat(updated).singleElement().satisfies(product -> {
+            assertThat(product.getNom()).isEqualTo("Produit renommé");
+            assertThat(product.getPrix()).isEqualByComparingTo(new BigDecimal("25.00"));
+            assertThat(product.getStock()).isEqualTo(3);
+        });
+        assertThat(productImportService.getImport(second.getId()).getStatut()).isEqualTo(ImportReport.Statut.COMPLETED);
+    }
+    
+    @Test
+    void malformedNdjsonLinesAreReportedWithoutStoppingTheImport() throws Exception {
+        String prefix = "NDJ-" + UUID.randomUUID() + "-";
+        String ndjson = "{\"reference\":\"" + prefix + "1\",\"nom\":\"Lampe\",\"prix\":12.5,\"stock\":4}\n"
+                + "{\"reference\": oups}\n"
+                + "\n"
+                + "{\"reference\":\"" + prefix + "2\",\"nom\":\"Chaise\",\"prix\":\"abc\"}\n"
+                + "{\"reference\":\"" + prefix + "3\",\"nom\":\"Table\",\"prix\":80}\n";
+        
+        ImportReport report = productImportService.importProducts(stream(ndjson), ExportFormat.NDJSON);
+        
+        assertThat(report.getInserted()).isEqualTo(2);
+        assertThat(report.getRejected()).isEqualTo(2);
+        assertThat(report.getErrors()).extracting(ImportReport.RowError::getLine).containsExactly(2L, 4L);
+    }
+    
+    private static ByteArrayInputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,65 @@
+package com.shopie.backend.service;
+
+import com.shopie.backend.model.Product;
+import com.shopie.backend.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ProductStockConcurrencyTests {
+    
+    private static final int INITIAL_STOCK = 200;
+    private static final int THREADS = 16;
+    private static final int ATTEMPTS_PER_THREAD = 40;
+    
+    @Autowired
+    private ProductService productService;
+    
+    @Autowired
+    private ProductRepository productRepository;
+    
+    @Test
+    void concurrentDecrementsOnHotSkuNeverOversell() throws Exception {
+        Product product = new Product();
+        product.setNom("Produit très demandé");
+        product.setPrix(new BigDecimal("19.99"));
+        product.setStock(INITIAL_STOCK);
+        Long productId = productRepository.save(product).getId();
+        
+        AtomicInteger successes = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+                    if (productService.decrementStock(Map.of(productId, 1)).get(0).isSuccess()) {
+                        successes.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+        
+        assertThat(successes.get()).isEqualTo(INITIAL_STOCK);
+        assertThat(productRepository.findById(productId).orElseThrow().getStock()).isZero();
+    }
+}
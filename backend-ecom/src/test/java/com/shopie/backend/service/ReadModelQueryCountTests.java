@@ -0,0 +1,155 @@
+package com.shopie.backend.service;
+
+import com.shopie.backend.dto.CartView;
+import com.shopie.backend.dto.OrderDetail;
+import com.shopie.backend.dto.OrderSummary;
+import com.shopie.backend.model.*;
+import com.shopie.backend.repository.*;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ReadModelQueryCountTests {
+    
+    @Autowired
+    private CartService cartService;
+    
+    @Autowired
+    private OrderService orderService;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private ProductRepository productRepository;
+    
+    @Autowired
+    private CartItemRepository cartItemRepository;
+    
+    @Autowired
+    private OrderRepository orderRepository;
+    
+    @Autowired
+    private PaymentRepository paymentRepository;
+    
+    @Autowired
+    private OrderSummaryRepository orderSummaryRepository;
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    private Statistics statistics;
+    
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+    
+    @Test
+    void cartWithFiftyLinesIsLoadedOnceThenServedFromMemory() {
+        User user = createUser();
+        List<Product> products = createProducts(50);
+        for (Product product : products) {
+            CartItem cartItem = new CartItem();
+            cartItem.setUser(user);
+            cartItem.setProduct(product);
+            cartItem.setQuantite(2);
+            cartItemRepository.save(cartItem);
+        }
+        
+        statistics.clear();
+        CartView cart = cartService.getCartView(user);
+        
+        assertThat(cart.getItems()).hasSize(50);
+        assertThat(cart.getItems()).allSatisfy(line -> assertThat(line.getProduct().getNom()).isNotNull());
+        // Premier accès : lignes du panier puis produits absents du cache
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(2);
+        
+        statistics.clear();
+        cart = cartService.getCartView(user);
+        
+        assertThat(cart.getItems()).hasSize(50);
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+    
+    @Test
+    void hundredOrdersAreListedWithOneStatement() {
+        User user = createUser();
+        List<Product> products = createProducts(3);
+        Long lastOrderId = null;
+        for (int i = 0; i < 100; i++) {
+            Order order = new Order();
+            order.setUser(user);
+            order.setTotal(new BigDecimal("30.00"));
+            for (Product product : products) {
+                OrderItem orderItem = new OrderItem();
+                orderItem.setOrder(order);
+                orderItem.setProduct(product);
+                orderItem.setQuantite(1);
+                orderItem.setPrix(new BigDecimal("10.00"));
+                order.getOrderItems().add(orderItem);
+            }
+            order = orderRepository.save(order);
+            if (i % 2 == 0) {
+                Payment payment = new Payment();
+                payment.setOrder(order);
+                payment.setMontant(order.getTotal());
+                payment.setMethode("Card");
+                order.setPayment(paymentRepository.save(payment));
+            }
+            // Commandes insérées sans passer par OrderService : ligne d'historique écrite ici
+            orderSummaryRepository.save(OrderSummaryRow.from(order));
+            lastOrderId = order.getId();
+        }
+        
+        statistics.clear();
+        List<OrderSummary> orders = orderService.getUserOrders(user, null, 100).getItems();
+        
+        assertThat(orders).hasSize(100);
+        assertThat(orders).allSatisfy(order -> assertThat(order.getItemCount()).isEqualTo(3));
+        assertThat(orders).allSatisfy(order -> assertThat(order.getFirstProductNom()).isEqualTo("Produit 0"));
+        assertThat(orders).filteredOn(order -> order.getPaymentStatut() == Payment.Statut.PENDING).hasSize(50);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        
+        statistics.clear();
+        OrderDetail detail = orderService.getOrderDetail(lastOrderId);
+        
+        assertThat(detail.getItems()).hasSize(3);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+    
+    private User createUser() {
+        User user = new User();
+        user.setNom("Client Test");
+        user.setEmail("client-" + UUID.randomUUID() + "@shopie.test");
+        user.setMotDePasse("hash");
+        return userRepository.save(user);
+    }
+    
+    private List<Product> createProducts(int count) {
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Product product = new Product();
+            product.setNom("Produit " + i);
+            product.setDescription("Description du produit " + i);
+            product.setPrix(new BigDecimal("10.00"));
+            product.setStock(100);
+            products.add(productRepository.save(product));
+        }
+        return products;
+    }
+}
@@ -0,0 +1,34 @@
+package com.shopie.backend.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ServiceMetricsTests {
+    
+    @Autowired
+    private ProductService productService;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Test
+    void publicServiceMethodsAreTimedPerMethod() {
+        productService.getCatalogEtag();
+        productService.getCatalogEtag();
+        
+        Timer timer = meterRegistry.find("service.method")
+                .tag("class", "ProductService")
+                .tag("method", "getCatalogEtag")
+                .timer();
+        assertThat(timer).isNotNull();
+        assertThat(timer.count()).isGreaterThanOrEqualTo(2);
+    }
+}
@@ -0,0 +1,149 @@
+package com.shopie.backend.service;
+
+import com.shopie.backend.cache.CatalogVersion;
+import com.shopie.backend.model.Product;
+import com.shopie.backend.repository.ProductRepository;
+import com.shopie.backend.repository.ProductStockShardRepository;
+import com.shopie.backend.search.ProductSearchIndex;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ShardedStockTests {
+    
+    private static final int INITIAL_STOCK = 200;
+    private static final int THREADS = 16;
+    private static final int ATTEMPTS_PER_THREAD = 40;
+    
+    @Autowired
+    private ProductService productService;
+    
+    @Autowired
+    private ShardedStockService shardedStockService;
+    
+    @Autowired
+    private ProductRepository productRepository;
+    
+    @Autowired
+    private ProductStockShardRepository shardRepository;
+    
+    @Autowired
+    private CatalogVersion catalogVersion;
+    
+    @Autowired
+    private ProductSearchIndex searchIndex;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Test
+    void concurrentDecrementsOnShardedSkuNeverOversell() throws Exception {
+        Long productId = createProduct(INITIAL_STOCK);
+        shardedStockService.enable(productId, 8);
+        assertThat(productService.getStock(productId)).isEqualTo(INITIAL_STOCK);
+        
+        AtomicInteger successes = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+                    if (productService.decrementStock(Map.of(productId, 1)).get(0).isSuccess()) {
+                        successes.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+        
+        assertThat(successes.get()).isEqualTo(INITIAL_STOCK);
+        assertThat(productService.getStock(productId)).isZero();
+        assertThat(productService.getStocks(List.of(productId))).containsEntry(productId, 0);
+    }
+    
+    @Test
+    void decrementSpillsOverAcrossShardsAndStockIsRegroupedOnDisable() {
+        Long productId = createProduct(10);
+        shardedStockService.enable(productId, 4);
+        assertThat(shardRepository.findStocks(productId)).containsExactly(3, 3, 2, 2);
+        
+        // Aucun compteur ne contient 7 unités : le prélèvement déborde sur plusieurs compteurs
+        assertThat(productService.decrementStock(Map.of(productId, 7)).get(0).isSuccess()).isTrue();
+        assertThat(productService.getStock(productId)).isEqualTo(3);
+        
+        // Stock insuffisant : rien n'est prélevé
+        assertThat(productService.decrementStock(Map.of(productId, 4)).get(0).isSuccess()).isFalse();
+        assertThat(productService.getStock(productId)).isEqualTo(3);
+        
+        shardedStockService.copyTotalsToProducts();
+        assertThat(productRepository.findById(productId).orElseThrow().getStock()).isEqualTo(3);
+        
+        shardedStockService.disable(productId);
+        Product regrouped = productRepository.findById(productId).orElseThrow();
+        assertThat(regrouped.getStockShards()).isZero();
+        assertThat(regrouped.getStock()).isEqualTo(3);
+        assertThat(shardRepository.findStocks(productId)).isEmpty();
+        assertThat(productService.decrementStock(Map.of(productId, 3)).get(0).isSuccess()).isTrue();
+    }
+    
+    @Test
+    void decrementOnShardedSkuInvalidatesCatalogVersion() {
+        Long productId = createProduct(10);
+        shardedStockService.enable(productId, 2);
+        
+        String etag = catalogVersion.etag();
+        assertThat(productService.decrementStock(Map.of(productId, 1)).get(0).isSuccess()).isTrue();
+        assertThat(catalogVersion.etag()).isNotEqualTo(etag);
+    }
+    
+    @Test
+    void searchIndexFollowsOnlyCommittedProductUpdates() {
+        Long productId = createProduct(10);
+        shardedStockService.enable(productId, 2);
+        Product details = new Product();
+        details.setNom("Lanterne solaire pliable");
+        details.setPrix(new BigDecimal("29.90"));
+        details.setStock(10);
+        
+        // Modification annulée avec sa transaction : l'index ne la voit pas
+        transactionTemplate.executeWithoutResult(status -> {
+            productService.updateProduct(productId, details);
+            status.setRollbackOnly();
+        });
+        assertThat(searchIndex.search("lanterne", 0, 100).ids()).doesNotContain(productId);
+        
+        productService.updateProduct(productId, details);
+        assertThat(searchIndex.search("lanterne", 0, 100).ids()).contains(productId);
+        
+        productService.deleteProduct(productId);
+        assertThat(searchIndex.search("lanterne", 0, 100).ids()).doesNotContain(productId);
+    }
+    
+    private Long createProduct(int stock) {
+        Product product = new Product();
+        product.setNom("Produit vente flash");
+        product.setPrix(new BigDecimal("29.90"));
+        product.setStock(stock);
+        return productRepository.save(product).getId();
+    }
+}
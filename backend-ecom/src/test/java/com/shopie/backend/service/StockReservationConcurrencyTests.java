@@ -0,0 +1,154 @@
+package com.shopie.backend.service;
+
+import com.shopie.backend.dto.CartItemRequest;
+import com.shopie.backend.exception.InsufficientStockException;
+import com.shopie.backend.model.Product;
+import com.shopie.backend.model.StockReservation;
+import com.shopie.backend.model.User;
+import com.shopie.backend.repository.ProductRepository;
+import com.shopie.backend.repository.StockReservationRepository;
+import com.shopie.backend.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class StockReservationConcurrencyTests {
+    
+    private static final int BUYERS = 1000;
+    private static final int INITIAL_STOCK = 100;
+    
+    @Autowired
+    private InventoryReservationService reservationService;
+    
+    @Autowired
+    private CartService cartService;
+    
+    @Autowired
+    private OrderService orderService;
+    
+    @Autowired
+    private ProductService productService;
+    
+    @Autowired
+    private ProductRepository productRepository;
+    
+    @Autowired
+    private StockReservationRepository reservationRepository;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Test
+    void thousandBuyersOnSingleSkuReserveExactlyTheStock() throws Exception {
+        Product product = createProduct(INITIAL_STOCK);
+        List<User> buyers = new ArrayList<>();
+        for (int i = 0; i < BUYERS; i++) {
+            User buyer = createUser();
+            cartService.addToCart(buyer, new CartItemRequest(product.getId(), 1));
+            buyers.add(buyer);
+        }
+        
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(BUYERS);
+        List<Future<User>> futures = new ArrayList<>();
+        for (User buyer : buyers) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                try {
+                    reservationService.reserveCart(buyer);
+                    return buyer;
+                } catch (InsufficientStockException e) {
+                    return null;
+                }
+            }));
+        }
+        start.countDown();
+        List<User> winners = new ArrayList<>();
+        List<User> losers = new ArrayList<>();
+        for (int i = 0; i < futures.size(); i++) {
+            User winner = futures.get(i).get(120, TimeUnit.SECONDS);
+            if (winner != null) {
+                winners.add(winner);
+            } else {
+                losers.add(buyers.get(i));
+            }
+        }
+        executor.shutdown();
+        
+        assertThat(winners).hasSize(INITIAL_STOCK);
+        Product reserved = productRepository.findById(product.getId()).orElseThrow();
+        assertThat(reserved.getStock()).isEqualTo(INITIAL_STOCK);
+        assertThat(reserved.getReserved()).isEqualTo(INITIAL_STOCK);
+        assertThat(productService.getStock(product.getId())).isZero();
+        
+        // Sans réservation, la commande échoue sur le disponible ; avec, elle consomme la réservation
+        assertThatThrownBy(() -> orderService.createOrderFromCart(losers.get(0)))
+                .isInstanceOf(InsufficientStockException.class);
+        for (User winner : winners) {
+            orderService.createOrderFromCart(winner);
+        }
+        
+        Product sold = productRepository.findById(product.getId()).orElseThrow();
+        assertThat(sold.getStock()).isZero();
+        assertThat(sold.getReserved()).isZero();
+        assertThat(reservationsOf(product)).isEmpty();
+    }
+    
+    @Test
+    void expiredReservationsAreReleasedBySweep() {
+        Product product = createProduct(5);
+        User buyer = createUser();
+        cartService.addToCart(buyer, new CartItemRequest(product.getId(), 2));
+        reservationService.reserveCart(buyer);
+        assertThat(productService.getStock(product.getId())).isEqualTo(3);
+        
+        for (StockReservation hold : reservationsOf(product)) {
+            hold.setExpiresAt(LocalDateTime.now().minusSeconds(1));
+            reservationRepository.save(hold);
+        }
+        reservationService.releaseExpired(500);
+        
+        assertThat(reservationsOf(product)).isEmpty();
+        assertThat(productRepository.findById(product.getId()).orElseThrow().getReserved()).isZero();
+        assertThat(productService.getStock(product.getId())).isEqualTo(5);
+        
+        // Réservation expirée : la commande passe quand même sur le stock disponible
+        orderService.createOrderFromCart(buyer);
+        assertThat(productService.getStock(product.getId())).isEqualTo(3);
+    }
+    
+    private List<StockReservation> reservationsOf(Product product) {
+        return reservationRepository.findAll().stream()
+                .filter(hold -> hold.getProductId().equals(product.getId()))
+                .toList();
+    }
+    
+    private User createUser() {
+        User user = new User();
+        user.setNom("Acheteur");
+        user.setEmail("acheteur-" + UUID.randomUUID() + "@shopie.test");
+        user.setMotDePasse("hash");
+        return userRepository.save(user);
+    }
+    
+    private Product createProduct(int stock) {
+        Product product = new Product();
+        product.setNom("Vente flash");
+        product.setPrix(new BigDecimal("49.90"));
+        product.setStock(stock);
+        return productRepository.save(product);
+    }
+}
@@ -29,7 +29,7 @@ export const CartProvider = ({ children }) => {
     try {
       setLoading(true);
       const response = await authenticatedRequest(API_CONFIG.ENDPOINTS.CART);
-      setCartItems(response || []);
+      setCartItems(response?.items || []);
     } catch (error) {
       console.error('Error loading cart:', error);
       setCartItems([]);
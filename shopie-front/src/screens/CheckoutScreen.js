@@ -33,6 +33,17 @@ export default function CheckoutScreen({ navigation }) {
         method: 'POST',
       });
 
+      // 202 : la commande est encore en cours de validation, la renvoyer la dupliquerait
+      if (orderResponse?.status === 202) {
+        Alert.alert('Commande en cours de validation', orderResponse.message, [
+          {
+            text: 'Voir mes commandes',
+            onPress: () => navigation.navigate('Main', { screen: 'Commandes' }),
+          },
+        ]);
+        return;
+      }
+
       if (!orderResponse || !orderResponse.id) {
         throw new Error('Erreur lors de la création de la commande');
       }
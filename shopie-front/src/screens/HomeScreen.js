@@ -18,6 +18,8 @@ import { API_CONFIG } from '../config/api';
 export default function HomeScreen({ navigation }) {
   const [products, setProducts] = useState([]);
   const [loading, setLoading] = useState(false);
+  const [loadingMore, setLoadingMore] = useState(false);
+  const [nextCursor, setNextCursor] = useState(null);
   const [refreshing, setRefreshing] = useState(false);
   const [searchQuery, setSearchQuery] = useState('');
   const { authenticatedRequest } = useAuth();
@@ -31,7 +33,8 @@ export default function HomeScreen({ navigation }) {
     try {
       setLoading(true);
       const response = await authenticatedRequest(API_CONFIG.ENDPOINTS.PRODUCTS);
-      setProducts(response || []);
+      setProducts(response?.items || []);
+      setNextCursor(response?.hasMore ? response.nextCursor : null);
     } catch (error) {
       console.error('Error loading products:', error);
       Alert.alert('Erreur', 'Impossible de charger les produits');
@@ -40,6 +43,26 @@ export default function HomeScreen({ navigation }) {
     }
   };
 
+  // Page suivante du listing : le serveur renvoie les produits par pages de curseur
+  const loadMoreProducts = async () => {
+    if (!nextCursor || loading || loadingMore || searchQuery.trim()) {
+      return;
+    }
+
+    try {
+      setLoadingMore(true);
+      const response = await authenticatedRequest(
+        `${API_CONFIG.ENDPOINTS.PRODUCTS}?cursor=${encodeURIComponent(nextCursor)}`
+      );
+      setProducts((current) => [...current, ...(response?.items || [])]);
+      setNextCursor(response?.hasMore ? response.nextCursor : null);
+    } catch (error) {
+      console.error('Error loading more products:', error);
+    } finally {
+      setLoadingMore(false);
+    }
+  };
+
   const searchProducts = async (query) => {
     if (!query.trim()) {
       loadProducts();
@@ -51,7 +74,8 @@ export default function HomeScreen({ navigation }) {
       const response = await authenticatedRequest(
         `${API_CONFIG.ENDPOINTS.PRODUCT_SEARCH}?nom=${encodeURIComponent(query)}`
       );
-      setProducts(response || []);
+      setProducts(response?.items || []);
+      setNextCursor(null);
     } catch (error) {
       console.error('Error searching products:', error);
       Alert.alert('Erreur', 'Erreur lors de la recherche');
@@ -143,6 +167,8 @@ export default function HomeScreen({ navigation }) {
         keyExtractor={(item) => item.id.toString()}
         numColumns={2}
         contentContainerStyle={styles.productList}
+        onEndReached={loadMoreProducts}
+        onEndReachedThreshold={0.5}
         refreshControl={
           <RefreshControl refreshing={refreshing} onRefresh={onRefresh} />
         }
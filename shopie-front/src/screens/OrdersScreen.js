@@ -15,6 +15,8 @@ import { API_CONFIG } from '../config/api';
 export default function OrdersScreen({ navigation }) {
   const [orders, setOrders] = useState([]);
   const [loading, setLoading] = useState(false);
+  const [loadingMore, setLoadingMore] = useState(false);
+  const [nextCursor, setNextCursor] = useState(null);
   const [refreshing, setRefreshing] = useState(false);
   const { authenticatedRequest } = useAuth();
 
@@ -33,7 +35,8 @@ export default function OrdersScreen({ navigation }) {
     try {
       setLoading(true);
       const response = await authenticatedRequest(API_CONFIG.ENDPOINTS.ORDERS);
-      setOrders(response || []);
+      setOrders(response?.items || []);
+      setNextCursor(response?.hasMore ? response.nextCursor : null);
     } catch (error) {
       console.error('Error loading orders:', error);
       Alert.alert('Erreur', 'Impossible de charger les commandes');
@@ -42,6 +45,26 @@ export default function OrdersScreen({ navigation }) {
     }
   };
 
+  // Commandes plus anciennes : le serveur renvoie l'historique par pages de curseur
+  const loadMoreOrders = async () => {
+    if (!nextCursor || loading || loadingMore) {
+      return;
+    }
+
+    try {
+      setLoadingMore(true);
+      const response = await authenticatedRequest(
+        `${API_CONFIG.ENDPOINTS.ORDERS}?cursor=${encodeURIComponent(nextCursor)}`
+      );
+      setOrders((current) => [...current, ...(response?.items || [])]);
+      setNextCursor(response?.hasMore ? response.nextCursor : null);
+    } catch (error) {
+      console.error('Error loading more orders:', error);
+    } finally {
+      setLoadingMore(false);
+    }
+  };
+
   const onRefresh = async () => {
     setRefreshing(true);
     await loadOrders();
@@ -139,11 +162,11 @@ export default function OrdersScreen({ navigation }) {
           </Text>
         </View>
 
-        {item.orderItems && item.orderItems.length > 0 && (
+        {item.itemCount > 0 && (
           <View style={styles.orderRow}>
             <Ionicons name="cube-outline" size={16} color="#666" />
             <Text style={styles.orderItems}>
-              {item.orderItems.length} article{item.orderItems.length > 1 ? 's' : ''}
+              {item.itemCount} article{item.itemCount > 1 ? 's' : ''}
             </Text>
           </View>
         )}
@@ -190,6 +213,8 @@ export default function OrdersScreen({ navigation }) {
           renderItem={renderOrder}
           keyExtractor={(item) => item.id.toString()}
           contentContainerStyle={styles.ordersList}
+          onEndReached={loadMoreOrders}
+          onEndReachedThreshold={0.5}
           refreshControl={
             <RefreshControl refreshing={refreshing} onRefresh={onRefresh} />
           }